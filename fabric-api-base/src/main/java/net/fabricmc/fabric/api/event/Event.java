@@ -16,6 +16,8 @@
 
 package net.fabricmc.fabric.api.event;
 
+import net.minecraft.util.Identifier;
+
 /**
  * Base class for Event implementations.
  *
@@ -23,6 +25,12 @@ package net.fabricmc.fabric.api.event;
  * @see EventFactory
  */
 public abstract class Event<T> {
+	/**
+	 * The identifier of the default phase.
+	 * Have a look at {@link EventFactory#createWithPhases} for an explanation of event phases.
+	 */
+	public static final Identifier DEFAULT_PHASE = new Identifier("fabric", "default");
+
 	/**
 	 * The invoker field. This should be updated by the implementation to
 	 * always refer to an instance containing all code that should be
@@ -49,4 +57,45 @@ public abstract class Event<T> {
 	 * @param listener The desired listener.
 	 */
 	public abstract void register(T listener);
+
+	/**
+	 * Register a listener to the event for the specified phase.
+	 * Have a look at {@link EventFactory#createWithPhases} for an explanation of event phases.
+	 *
+	 * <p>The default implementation ignores the phase and registers the listener like {@link #register(Object)}.
+	 *
+	 * @param phase Identifier of the phase this listener should be registered for. It will be created if it didn't exist yet.
+	 * @param listener The desired listener.
+	 */
+	public void register(Identifier phase, T listener) {
+		register(listener);
+	}
+
+	/**
+	 * Request that listeners registered for one phase be executed before listeners registered for another phase.
+	 * Relying on the default phases supplied to {@link EventFactory#createWithPhases} should be preferred over manually
+	 * registering phase ordering dependencies.
+	 *
+	 * <p>Incompatible ordering constraints such as cycles will lead to inconsistent behavior:
+	 * some constraints will be respected and some will be ignored. If this happens, a warning will be logged.
+	 *
+	 * <p>The default implementation does nothing.
+	 *
+	 * @param firstPhase The identifier of the phase that should run before the other. It will be created if it didn't exist yet.
+	 * @param secondPhase The identifier of the phase that should run after the other. It will be created if it didn't exist yet.
+	 */
+	public void addPhaseOrdering(Identifier firstPhase, Identifier secondPhase) {
+	}
+
+	/**
+	 * Register a listener to be called asynchronously, on a worker thread, after the event is invoked.
+	 * Have a look at {@link EventFactory#createAsyncCapable} for an explanation of asynchronous listeners.
+	 *
+	 * <p>The default implementation registers the listener like {@link #register(Object)}, so that it is called synchronously.
+	 *
+	 * @param listener The desired listener, which must be thread-safe.
+	 */
+	public void registerAsync(T listener) {
+		register(listener);
+	}
 }
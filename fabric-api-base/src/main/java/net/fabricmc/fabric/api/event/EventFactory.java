@@ -18,23 +18,66 @@ package net.fabricmc.fabric.api.event;
 
 import java.util.function.Function;
 
+import net.minecraft.util.Identifier;
+
 import net.fabricmc.fabric.impl.base.event.EventFactoryImpl;
 
 /**
  * Helper for creating {@link Event} classes.
  */
 public final class EventFactory {
-	private static boolean profilingEnabled = true;
+	private static volatile boolean profilingEnabled = System.getProperty("fabric.event.profiling", "true").equalsIgnoreCase("true");
+	private static volatile boolean listenerProfilingEnabled = System.getProperty("fabric.event.profiling.listeners", "false").equalsIgnoreCase("true");
 
 	private EventFactory() { }
 
 	/**
+	 * Profiling is enabled by default, so that the events of Fabric API show up in the vanilla profiler.
+	 * It can be disabled with {@link #setProfilingEnabled(boolean)} or the {@code fabric.event.profiling} system property.
+	 *
 	 * @return True if events are supposed to be profiled.
 	 */
 	public static boolean isProfilingEnabled() {
 		return profilingEnabled;
 	}
 
+	/**
+	 * Enable or disable event profiling, and {@linkplain #invalidate() re-create all invokers} if this changes the current state.
+	 *
+	 * <p>Profiling can also be disabled at startup by setting the {@code fabric.event.profiling} system property to {@code false}.
+	 *
+	 * @param enabled True if events are supposed to be profiled.
+	 */
+	public static void setProfilingEnabled(boolean enabled) {
+		if (profilingEnabled != enabled) {
+			profilingEnabled = enabled;
+			invalidate();
+		}
+	}
+
+	/**
+	 * Profiling every listener of {@linkplain #createUnrolled(Class, Function, Function, Function) unrolled events} in its own section
+	 * is disabled by default, since their generated invokers can't be used then. While it is disabled, these events are profiled as a whole.
+	 * It can be enabled with {@link #setListenerProfilingEnabled(boolean)} or the {@code fabric.event.profiling.listeners} system property.
+	 *
+	 * @return True if the listeners of events are supposed to be profiled separately, while profiling is enabled.
+	 */
+	public static boolean isListenerProfilingEnabled() {
+		return listenerProfilingEnabled;
+	}
+
+	/**
+	 * Enable or disable the profiling of every listener in its own section, and {@linkplain #invalidate() re-create all invokers} if this changes the current state.
+	 *
+	 * @param enabled True if the listeners of events are supposed to be profiled separately.
+	 */
+	public static void setListenerProfilingEnabled(boolean enabled) {
+		if (listenerProfilingEnabled != enabled) {
+			listenerProfilingEnabled = enabled;
+			invalidate();
+		}
+	}
+
 	/**
 	 * Invalidate and re-create all existing "invoker" instances across
 	 * events created by this EventFactory. Use this if, for instance,
@@ -93,6 +136,114 @@ public final class EventFactory {
 		});
 	}
 
+	/**
+	 * Create an array-backed event with a list of default phases that get invoked in order.
+	 * Exposing the identifiers of the default phases as {@code public static final} constants is encouraged.
+	 *
+	 * <p>An event phase is a named group of listeners, which may be ordered before or after other groups of listeners.
+	 * This allows some listeners to take priority over other listeners.
+	 * Adding separate events should be considered before making use of multiple event phases.
+	 *
+	 * <p>Phases may be freely added to events created with any of the factory functions,
+	 * however using this function is preferred for widely used event phases.
+	 * If more phases are necessary, discussion with the author of the Event is encouraged.
+	 *
+	 * <p>The ordering of phases is resolved once per change, and all listeners are flattened in phase order
+	 * into the array passed to {@code invokerFactory}, so phases have no cost when the event is invoked.
+	 *
+	 * @param type           The listener class type.
+	 * @param invokerFactory The invoker factory, combining multiple listeners into one instance.
+	 * @param defaultPhases  The default phases of this event, in the correct order. Must contain {@link Event#DEFAULT_PHASE}.
+	 * @param <T>            The listener type.
+	 * @return The Event instance.
+	 */
+	public static <T> Event<T> createWithPhases(Class<? super T> type, Function<T[], T> invokerFactory, Identifier... defaultPhases) {
+		EventFactoryImpl.ensureContainsDefault(defaultPhases);
+		EventFactoryImpl.ensureNoDuplicates(defaultPhases);
+
+		Event<T> event = createArrayBacked(type, invokerFactory);
+
+		for (int i = 1; i < defaultPhases.length; ++i) {
+			event.addPhaseOrdering(defaultPhases[i-1], defaultPhases[i]);
+		}
+
+		return event;
+	}
+
+	/**
+	 * Create an "array-backed" Event instance supporting {@linkplain Event#registerAsync asynchronous listeners},
+	 * for events whose listeners do not return anything.
+	 *
+	 * <p>Listeners registered with {@link Event#register(Object)} are called synchronously as usual.
+	 * Listeners registered with {@link Event#registerAsync(Object)} are called later, on a pool of worker threads,
+	 * through a bounded queue shared by all asynchronous events. This is meant for listeners that only observe the
+	 * event, for instance to log or gather statistics, and keeps their work off the thread invoking the event.
+	 * Asynchronous listeners:
+	 * <ul>
+	 *   <li>must be thread-safe, and may be called concurrently for different invocations of the event;</li>
+	 *   <li>must not modify the event arguments, which may still be modified by the game while they run;</li>
+	 *   <li>are called on the invoking thread if the queue is full, to apply backpressure instead of dropping events.</li>
+	 * </ul>
+	 *
+	 * <p>The number of worker threads and the capacity of the queue can be configured with the
+	 * {@code fabric.event.async.threads} and {@code fabric.event.async.queueCapacity} system properties.
+	 * {@link EventInstrumentation#getAsyncDispatchStatistics()} reports how the queue is keeping up.
+	 *
+	 * @param type           The listener class type.
+	 * @param invokerFactory The invoker factory, combining multiple listeners into one instance.
+	 * @param <T>            The listener type.
+	 * @return The Event instance.
+	 */
+	public static <T> Event<T> createAsyncCapable(Class<? super T> type, Function<T[], T> invokerFactory) {
+		return EventFactoryImpl.createAsyncCapable(type, invokerFactory);
+	}
+
+	/**
+	 * Create an "array-backed" Event instance whose invoker is a class generated at runtime for the current listeners.
+	 *
+	 * <p>The generated invoker calls every listener in its own call site, which lets the JVM inline each of them
+	 * instead of going through a single megamorphic call in a loop. It only supports a restricted set of behaviors,
+	 * which {@code invokerFactory} must match:
+	 * <ul>
+	 *   <li>If the listener method returns {@code void}, all listeners are called in registration order.</li>
+	 *   <li>Otherwise, the listeners are called in registration order until one returns a result that is different from the
+	 *   "empty" result, in which case that result is returned. The empty result is what the invoker built by
+	 *   {@code invokerFactory} for no listeners returns, and is compared by identity for reference types.</li>
+	 * </ul>
+	 *
+	 * <p>{@code invokerFactory} is used as-is if the listener type is not a public functional interface with a public signature.
+	 *
+	 * @param type           The listener class type.
+	 * @param invokerFactory The invoker factory, combining multiple listeners into one instance.
+	 * @param <T>            The listener type.
+	 * @return The Event instance.
+	 */
+	public static <T> Event<T> createUnrolled(Class<? super T> type, Function<T[], T> invokerFactory) {
+		return EventFactoryImpl.createUnrolled(type, invokerFactory, null, null);
+	}
+
+	/**
+	 * Create an "array-backed" Event instance whose invoker is generated at runtime like {@link #createUnrolled(Class, Function)},
+	 * and which is profiled:
+	 * <ul>
+	 *   <li>While {@linkplain #isProfilingEnabled() profiling is enabled}, which is the default, the generated invoker is wrapped
+	 *   by {@code profilingWrapper}, which should profile the whole invocation in a single section.</li>
+	 *   <li>While {@linkplain #isListenerProfilingEnabled() listener profiling} is enabled too, {@code listenerProfilingInvokerFactory}
+	 *   is used instead of the generated invoker, so that every listener can be profiled in its own section.</li>
+	 *   <li>Otherwise, the generated invoker is used as-is.</li>
+	 * </ul>
+	 *
+	 * @param type                            The listener class type.
+	 * @param invokerFactory                  The invoker factory, combining multiple listeners into one instance.
+	 * @param profilingWrapper                Wraps the generated invoker while profiling is enabled.
+	 * @param listenerProfilingInvokerFactory The invoker factory used while listener profiling is enabled.
+	 * @param <T>                             The listener type.
+	 * @return The Event instance.
+	 */
+	public static <T> Event<T> createUnrolled(Class<? super T> type, Function<T[], T> invokerFactory, Function<T, T> profilingWrapper, Function<T[], T> listenerProfilingInvokerFactory) {
+		return EventFactoryImpl.createUnrolled(type, invokerFactory, profilingWrapper, listenerProfilingInvokerFactory);
+	}
+
 	/**
 	 * Get the listener object name. This can be used in debugging/profiling
 	 * scenarios.
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.api.event;
+
+import java.util.List;
+
+import net.fabricmc.fabric.impl.base.event.EventInstrumentationImpl;
+
+/**
+ * Opt-in instrumentation measuring how long the listeners of events created by {@link EventFactory} take.
+ *
+ * <p>While instrumentation is enabled, every listener is wrapped into a timer when the event invoker is built.
+ * Enabling or disabling it {@linkplain EventFactory#invalidate() re-creates all invokers}, so that it has no cost at all while disabled.
+ *
+ * <p>Instrumentation can also be enabled at startup by setting the {@code fabric.event.instrumentation} system property to {@code true}.
+ * If the {@code fabric.event.instrumentation.dumpInterval} system property is set to a number of seconds,
+ * the statistics of all listeners are periodically {@linkplain #dump() written to the log}.
+ */
+public final class EventInstrumentation {
+	private EventInstrumentation() { }
+
+	/**
+	 * @return True if the listeners of events are currently instrumented.
+	 */
+	public static boolean isEnabled() {
+		return EventInstrumentationImpl.isEnabled();
+	}
+
+	/**
+	 * Enable or disable the instrumentation of event listeners.
+	 * Statistics that were already collected are kept.
+	 *
+	 * @param enabled True if the listeners of events are supposed to be instrumented.
+	 */
+	public static void setEnabled(boolean enabled) {
+		EventInstrumentationImpl.setEnabled(enabled);
+	}
+
+	/**
+	 * @return The statistics of every listener that was instrumented so far.
+	 */
+	public static List<ListenerStatistics> getStatistics() {
+		return EventInstrumentationImpl.getStatistics(null);
+	}
+
+	/**
+	 * @param event The event.
+	 * @return The statistics of every listener of this event that was instrumented so far, in registration order.
+	 */
+	public static List<ListenerStatistics> getStatistics(Event<?> event) {
+		return EventInstrumentationImpl.getStatistics(event);
+	}
+
+	/**
+	 * @return A snapshot of the statistics of the worker pool running {@linkplain Event#registerAsync asynchronous listeners}.
+	 */
+	public static AsyncDispatchStatistics getAsyncDispatchStatistics() {
+		return EventInstrumentationImpl.getAsyncDispatchStatistics();
+	}
+
+	/**
+	 * Reset the statistics of all listeners.
+	 */
+	public static void reset() {
+		EventInstrumentationImpl.reset();
+	}
+
+	/**
+	 * Write the statistics of all listeners that were called at least once to the log, slowest first,
+	 * followed by the statistics of the asynchronous listener worker pool.
+	 */
+	public static void dump() {
+		EventInstrumentationImpl.dump();
+	}
+
+	/**
+	 * Timing statistics of a single listener of an event.
+	 */
+	public interface ListenerStatistics {
+		/**
+		 * @return The event the listener is registered to.
+		 */
+		Event<?> getEvent();
+
+		/**
+		 * @return The listener class type of the event.
+		 */
+		Class<?> getListenerType();
+
+		/**
+		 * @return The listener object name, as given by {@link EventFactory#getHandlerName(Object)}.
+		 */
+		String getListenerName();
+
+		/**
+		 * @return The id of the mod the listener class comes from, or {@code "unknown"}.
+		 */
+		String getModId();
+
+		/**
+		 * @return The number of times the listener was called.
+		 */
+		long getCallCount();
+
+		/**
+		 * @return The total time spent in the listener, in nanoseconds.
+		 */
+		long getTotalNanos();
+
+		/**
+		 * Return an approximation of a percentile of the duration of a single call, in nanoseconds.
+		 * The returned value is within 12.5% of the exact one.
+		 *
+		 * @param percentile The percentile, between 0 and 100.
+		 * @return The approximate duration, or 0 if the listener was never called.
+		 */
+		long getPercentileNanos(double percentile);
+
+		/**
+		 * @return The approximate 99th percentile of the duration of a single call, in nanoseconds.
+		 */
+		default long getP99Nanos() {
+			return getPercentileNanos(99);
+		}
+	}
+
+	/**
+	 * Statistics of the worker pool running asynchronous listeners, which are always collected.
+	 * Each task is one invocation of an event, running all of its asynchronous listeners.
+	 */
+	public interface AsyncDispatchStatistics {
+		/**
+		 * @return The number of worker threads.
+		 */
+		int getWorkerCount();
+
+		/**
+		 * @return The maximum number of queued invocations, past which they run on the invoking thread.
+		 */
+		int getQueueCapacity();
+
+		/**
+		 * @return The number of invocations currently waiting for a worker.
+		 */
+		int getQueuedTasks();
+
+		/**
+		 * @return The largest number of invocations that waited for a worker at the same time.
+		 */
+		int getMaxQueuedTasks();
+
+		/**
+		 * @return The number of invocations submitted to the worker pool.
+		 */
+		long getSubmittedTasks();
+
+		/**
+		 * @return The number of invocations that completed, including the ones that overflowed.
+		 */
+		long getCompletedTasks();
+
+		/**
+		 * @return The number of invocations that ran on the invoking thread because the queue was full.
+		 */
+		long getOverflowedTasks();
+
+		/**
+		 * @return The number of asynchronous listener calls that threw an exception.
+		 */
+		long getFailedTasks();
+	}
+}
@@ -17,42 +17,212 @@
 package net.fabricmc.fabric.impl.base.event;
 
 import java.lang.reflect.Array;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 
+import net.minecraft.util.Identifier;
+
 import net.fabricmc.fabric.api.event.Event;
 
 class ArrayBackedEvent<T> extends Event<T> {
+	private final Class<? super T> type;
 	private final Function<T[], T> invokerFactory;
 	private final Lock lock = new ReentrantLock();
+	// Listeners registered since the invoker was last rebuilt.
+	private final Queue<PendingListener<T>> pendingListeners = new ConcurrentLinkedQueue<>();
+	private final AtomicBoolean hasPendingListeners = new AtomicBoolean();
+	// Generates the invoker rebuilding the invoker on its first call after a registration,
+	// or null if the invoker is rebuilt on every registration instead.
+	private final InvokerGenerator generator;
+	// Created on the first registration, since many events never have any listener.
+	private volatile T rebuildingInvoker;
+	private final Map<Identifier, EventPhaseData<T>> phases = new LinkedHashMap<>();
+	private List<EventPhaseData<T>> sortedPhases = new ArrayList<>();
 	private T[] handlers;
 
 	@SuppressWarnings("unchecked")
 	ArrayBackedEvent(Class<? super T> type, Function<T[], T> invokerFactory) {
+		this.type = type;
 		this.invokerFactory = invokerFactory;
 		this.handlers = (T[]) Array.newInstance(type, 0);
+		this.generator = InvokerGenerator.get(type);
 		update();
 	}
 
-	void update() {
-		this.invoker = invokerFactory.apply(handlers);
+	/**
+	 * Add the pending listeners to their phases and rebuild the invoker.
+	 *
+	 * @return The new invoker.
+	 */
+	T update() {
+		lock.lock();
+
+		try {
+			hasPendingListeners.set(false);
+			boolean phasesChanged = false;
+			boolean listenersChanged = false;
+			PendingListener<T> pending;
+
+			while ((pending = pendingListeners.poll()) != null) {
+				EventPhaseData<T> phase = phases.get(pending.phase);
+
+				if (phase == null) {
+					phase = getOrCreatePhase(pending.phase);
+					phasesChanged = true;
+				}
+
+				phase.listeners.add(pending.listener);
+				listenersChanged = true;
+			}
+
+			if (phasesChanged) {
+				sortedPhases = EventPhaseData.sort(phases.values());
+			}
+
+			if (listenersChanged) {
+				rebuildHandlers();
+			}
+
+			T[] listeners = handlers;
+
+			if (EventInstrumentationImpl.isEnabled()) {
+				listeners = EventInstrumentationImpl.instrument(this, type, listeners);
+			}
+
+			T newInvoker = invokerFactory.apply(listeners);
+			this.invoker = newInvoker;
+
+			// A listener may have been registered concurrently after the queue was drained,
+			// in which case the invoker must be rebuilt again on its next call.
+			if (hasPendingListeners.get()) {
+				this.invoker = rebuildingInvoker;
+			}
+
+			return newInvoker;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private T getUpToDateInvoker() {
+		T current = invoker;
+		return current != rebuildingInvoker ? current : update();
+	}
+
+	private EventPhaseData<T> getOrCreatePhase(Identifier id) {
+		return phases.computeIfAbsent(id, i -> new EventPhaseData<>(i, phases.size()));
+	}
+
+	// Flatten the listeners of all phases, in phase order, into a single array.
+	private void rebuildHandlers() {
+		int count = 0;
+
+		for (EventPhaseData<T> phase : sortedPhases) {
+			count += phase.listeners.size();
+		}
+
+		T[] newHandlers = Arrays.copyOf(handlers, count);
+		int i = 0;
+
+		for (EventPhaseData<T> phase : sortedPhases) {
+			for (T listener : phase.listeners) {
+				newHandlers[i++] = listener;
+			}
+		}
+
+		handlers = newHandlers;
 	}
 
 	@Override
 	public void register(T listener) {
+		register(DEFAULT_PHASE, listener);
+	}
+
+	@Override
+	public void register(Identifier phase, T listener) {
+		Objects.requireNonNull(phase, "Tried to register a listener for a null phase!");
 		Objects.requireNonNull(listener, "Tried to register a null listener!");
 
+		pendingListeners.add(new PendingListener<>(phase, listener));
+
+		if (generator == null) {
+			update();
+			return;
+		}
+
+		// Must be created before flagging the pending listeners, which update() checks to install it.
+		T rebuilding = getRebuildingInvoker();
+
+		if (hasPendingListeners.compareAndSet(false, true)) {
+			// Defer the rebuild until the event is invoked, so that registering many listeners in a row only rebuilds it once.
+			this.invoker = rebuilding;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private T getRebuildingInvoker() {
+		T rebuilding = rebuildingInvoker;
+
+		if (rebuilding == null) {
+			lock.lock();
+
+			try {
+				rebuilding = rebuildingInvoker;
+
+				if (rebuilding == null) {
+					rebuilding = (T) generator.createDelegatingInvoker(this::getUpToDateInvoker);
+					rebuildingInvoker = rebuilding;
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		return rebuilding;
+	}
+
+	@Override
+	public void addPhaseOrdering(Identifier firstPhase, Identifier secondPhase) {
+		Objects.requireNonNull(firstPhase, "Tried to add an ordering for a null phase.");
+		Objects.requireNonNull(secondPhase, "Tried to add an ordering for a null phase.");
+
+		if (firstPhase.equals(secondPhase)) {
+			throw new IllegalArgumentException("Tried to add a phase that depends on itself.");
+		}
+
 		lock.lock();
 
 		try {
-			handlers = Arrays.copyOf(handlers, handlers.length + 1);
-			handlers[handlers.length - 1] = listener;
-			update();
+			EventPhaseData<T> first = getOrCreatePhase(firstPhase);
+			EventPhaseData<T> second = getOrCreatePhase(secondPhase);
+
+			if (first.subsequentPhases.add(second)) {
+				sortedPhases = EventPhaseData.sort(phases.values());
+				rebuildHandlers();
+				update();
+			}
 		} finally {
 			lock.unlock();
 		}
 	}
+
+	private static final class PendingListener<T> {
+		final Identifier phase;
+		final T listener;
+
+		PendingListener(Identifier phase, T listener) {
+			this.phase = phase;
+			this.listener = listener;
+		}
+	}
 }
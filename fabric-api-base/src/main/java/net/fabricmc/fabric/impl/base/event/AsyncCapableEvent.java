@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.base.event;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Array-backed event with a separate list of asynchronous listeners.
+ * The first asynchronous registration adds a synchronous listener forwarding every invocation to the {@link AsyncEventDispatcher}.
+ *
+ * <p>The asynchronous listeners are called directly rather than through the invoker factory of the event,
+ * which may do things that are only safe on the invoking thread, such as profiling.
+ */
+final class AsyncCapableEvent<T> extends ArrayBackedEvent<T> {
+	private final Class<? super T> type;
+	// The listener method, made accessible once since it is invoked reflectively for every asynchronous call.
+	private final Method listenerMethod;
+	private final List<T> asyncListeners = new CopyOnWriteArrayList<>();
+	private final AtomicBoolean forwarderRegistered = new AtomicBoolean();
+
+	AsyncCapableEvent(Class<? super T> type, Function<T[], T> invokerFactory) {
+		super(type, invokerFactory);
+		this.type = type;
+		Method listenerMethod = null;
+
+		for (Method method : type.getMethods()) {
+			if (Modifier.isAbstract(method.getModifiers())) {
+				if (method.getReturnType() != void.class) {
+					throw new IllegalArgumentException("Listeners of asynchronous events must not return anything, but " + method + " does.");
+				}
+
+				if (listenerMethod != null) {
+					throw new IllegalArgumentException("Listeners of asynchronous events must have a single abstract method, but " + type.getName() + " has several.");
+				}
+
+				listenerMethod = method;
+			}
+		}
+
+		if (listenerMethod == null) {
+			throw new IllegalArgumentException("Listeners of asynchronous events must have an abstract method, but " + type.getName() + " has none.");
+		}
+
+		listenerMethod.setAccessible(true);
+		this.listenerMethod = listenerMethod;
+	}
+
+	@Override
+	public void registerAsync(T listener) {
+		Objects.requireNonNull(listener, "Tried to register a null listener!");
+		asyncListeners.add(listener);
+
+		if (forwarderRegistered.compareAndSet(false, true)) {
+			register(createForwarder());
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private T createForwarder() {
+		return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class[] { type }, (proxy, method, args) -> {
+			if (method.getDeclaringClass() == Object.class) {
+				switch (method.getName()) {
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				default:
+					return "AsyncForwarder[" + type.getName() + "]";
+				}
+			} else if (!method.equals(listenerMethod)) {
+				throw new UnsupportedOperationException("Only " + listenerMethod + " is forwarded to asynchronous listeners.");
+			}
+
+			AsyncEventDispatcher.submit(() -> {
+				for (T listener : asyncListeners) {
+					try {
+						listenerMethod.invoke(listener, args);
+					} catch (InvocationTargetException e) {
+						AsyncEventDispatcher.onListenerFailed(type, listener, e.getCause());
+					} catch (IllegalAccessException e) {
+						AsyncEventDispatcher.onListenerFailed(type, listener, e);
+					}
+				}
+			});
+
+			return null;
+		});
+	}
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.base.event;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import net.fabricmc.fabric.api.event.EventFactory;
+import net.fabricmc.fabric.api.event.EventInstrumentation;
+
+/**
+ * Worker pool running the asynchronous listeners of {@link AsyncCapableEvent}s.
+ *
+ * <p>Submitting a task never blocks: tasks are appended to a lock-free queue bounded by a counter,
+ * and when the queue is full the task is run on the submitting thread instead, which slows the producer down.
+ */
+final class AsyncEventDispatcher {
+	private static final Logger LOGGER = LogManager.getLogger("fabric-api-base");
+	private static final int THREADS = Integer.getInteger("fabric.event.async.threads", Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2)));
+	private static final int CAPACITY = Integer.getInteger("fabric.event.async.queueCapacity", 8192);
+
+	private static final Queue<Runnable> QUEUE = new ConcurrentLinkedQueue<>();
+	// Number of tasks in the queue, which the queue itself cannot tell in constant time.
+	private static final AtomicInteger QUEUED = new AtomicInteger();
+	// One permit per queued task, to wake up the workers.
+	private static final Semaphore AVAILABLE = new Semaphore(0);
+	private static final AtomicInteger MAX_QUEUED = new AtomicInteger();
+	private static final AtomicLong SUBMITTED = new AtomicLong();
+	private static final AtomicLong COMPLETED = new AtomicLong();
+	private static final AtomicLong OVERFLOWED = new AtomicLong();
+	private static final AtomicLong FAILED = new AtomicLong();
+	private static volatile boolean started = false;
+
+	private AsyncEventDispatcher() { }
+
+	static void submit(Runnable task) {
+		if (!started) {
+			start();
+		}
+
+		SUBMITTED.incrementAndGet();
+		int queued = QUEUED.incrementAndGet();
+
+		if (queued > CAPACITY) {
+			QUEUED.decrementAndGet();
+			OVERFLOWED.incrementAndGet();
+			run(task);
+			return;
+		}
+
+		int max = MAX_QUEUED.get();
+
+		while (queued > max && !MAX_QUEUED.compareAndSet(max, queued)) {
+			max = MAX_QUEUED.get();
+		}
+
+		QUEUE.add(task);
+		AVAILABLE.release();
+	}
+
+	private static synchronized void start() {
+		if (started) {
+			return;
+		}
+
+		for (int i = 0; i < THREADS; i++) {
+			Thread worker = new Thread(AsyncEventDispatcher::work, "Fabric Async Event Worker #" + i);
+			worker.setDaemon(true);
+			worker.start();
+		}
+
+		started = true;
+	}
+
+	private static void work() {
+		while (true) {
+			AVAILABLE.acquireUninterruptibly();
+			Runnable task = QUEUE.poll();
+			QUEUED.decrementAndGet();
+			run(task);
+		}
+	}
+
+	private static void run(Runnable task) {
+		task.run();
+		COMPLETED.incrementAndGet();
+	}
+
+	static void onListenerFailed(Class<?> type, Object listener, Throwable t) {
+		FAILED.incrementAndGet();
+		LOGGER.error("Asynchronous listener {} of {} threw an exception", EventFactory.getHandlerName(listener), type.getName(), t);
+	}
+
+	static EventInstrumentation.AsyncDispatchStatistics getStatistics() {
+		return new EventInstrumentation.AsyncDispatchStatistics() {
+			private final int queued = QUEUED.get();
+			private final int maxQueued = MAX_QUEUED.get();
+			private final long submitted = SUBMITTED.get();
+			private final long completed = COMPLETED.get();
+			private final long overflowed = OVERFLOWED.get();
+			private final long failed = FAILED.get();
+
+			@Override
+			public int getWorkerCount() {
+				return THREADS;
+			}
+
+			@Override
+			public int getQueueCapacity() {
+				return CAPACITY;
+			}
+
+			@Override
+			public int getQueuedTasks() {
+				return queued;
+			}
+
+			@Override
+			public int getMaxQueuedTasks() {
+				return maxQueued;
+			}
+
+			@Override
+			public long getSubmittedTasks() {
+				return submitted;
+			}
+
+			@Override
+			public long getCompletedTasks() {
+				return completed;
+			}
+
+			@Override
+			public long getOverflowedTasks() {
+				return overflowed;
+			}
+
+			@Override
+			public long getFailedTasks() {
+				return failed;
+			}
+		};
+	}
+}
@@ -27,7 +27,10 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
 
+import net.minecraft.util.Identifier;
+
 import net.fabricmc.fabric.api.event.Event;
+import net.fabricmc.fabric.api.event.EventFactory;
 
 public final class EventFactoryImpl {
 	private static final List<ArrayBackedEvent<?>> ARRAY_BACKED_EVENTS = new ArrayList<>();
@@ -44,6 +47,50 @@ public final class EventFactoryImpl {
 		return event;
 	}
 
+	public static <T> Event<T> createAsyncCapable(Class<? super T> type, Function<T[], T> invokerFactory) {
+		AsyncCapableEvent<T> event = new AsyncCapableEvent<>(type, invokerFactory);
+		ARRAY_BACKED_EVENTS.add(event);
+		return event;
+	}
+
+	public static <T> Event<T> createUnrolled(Class<? super T> type, Function<T[], T> invokerFactory, Function<T, T> profilingWrapper, Function<T[], T> listenerProfilingInvokerFactory) {
+		Function<T[], T> unrolledFactory = UnrolledInvokerFactory.create(type, invokerFactory);
+
+		if (profilingWrapper == null) {
+			return createArrayBacked(type, unrolledFactory);
+		}
+
+		return createArrayBacked(type, listeners -> {
+			if (!EventFactory.isProfilingEnabled()) {
+				return unrolledFactory.apply(listeners);
+			} else if (EventFactory.isListenerProfilingEnabled()) {
+				return listenerProfilingInvokerFactory.apply(listeners);
+			} else {
+				return profilingWrapper.apply(unrolledFactory.apply(listeners));
+			}
+		});
+	}
+
+	public static void ensureContainsDefault(Identifier[] defaultPhases) {
+		for (Identifier id : defaultPhases) {
+			if (id.equals(Event.DEFAULT_PHASE)) {
+				return;
+			}
+		}
+
+		throw new IllegalArgumentException("The event phases must contain Event.DEFAULT_PHASE.");
+	}
+
+	public static void ensureNoDuplicates(Identifier[] defaultPhases) {
+		for (int i = 0; i < defaultPhases.length; ++i) {
+			for (int j = i+1; j < defaultPhases.length; ++j) {
+				if (defaultPhases[i].equals(defaultPhases[j])) {
+					throw new IllegalArgumentException("Duplicate event phase: " + defaultPhases[i]);
+				}
+			}
+		}
+	}
+
 	// Code originally by sfPlayer1.
 	// Unfortunately, it's slightly slower than just passing an empty array in the first place.
 	private static <T> T buildEmptyInvoker(Class<T> handlerClass, Function<T[], T> invokerSetup) {
@@ -64,37 +111,43 @@ public final class EventFactoryImpl {
 			throw new IllegalStateException("No virtual methods in " + handlerClass + "; cannot build empty invoker!");
 		}
 
-		Object defValue = null;
+		final Object returnValue = getEmptyResult(handlerClass, funcIfMethod, invokerSetup);
+		//noinspection unchecked
+		return (T) Proxy.newProxyInstance(EventFactoryImpl.class.getClassLoader(), new Class[]{handlerClass},
+			(proxy, method, args) -> returnValue);
+	}
 
+	/**
+	 * Determine the result of the invoker built by {@code invokerSetup} for no listeners,
+	 * by invoking it with all-jvm-default args (null for refs, false for boolean, etc.)
+	 *
+	 * @return The result, or null if the method returns void.
+	 */
+	static <T> Object getEmptyResult(Class<? super T> handlerClass, Method funcIfMethod, Function<T[], T> invokerSetup) {
 		try {
 			// concert to mh, determine its type without the "this" reference
 			MethodHandle target = MethodHandles.lookup().unreflect(funcIfMethod);
 			MethodType type = target.type().dropParameterTypes(0, 1);
 
-			if (type.returnType() != void.class) {
-				// determine default return value by invoking invokerSetup.apply(T[0]) with all-jvm-default args (null for refs, false for boolean, etc.)
-				// explicitCastArguments is being used to cast Object=null to the jvm default value for the correct type
+			if (type.returnType() == void.class) {
+				return null;
+			}
 
-				// construct method desc (TLjava/lang/Object;Ljava/lang/Object;...)R where T = invoker ref ("this"), R = invoker ret type and args 1+ are Object for each non-"this" invoker arg
-				MethodType objTargetType = MethodType.genericMethodType(type.parameterCount()).changeReturnType(type.returnType()).insertParameterTypes(0, target.type().parameterType(0));
-				// explicit cast to translate to the invoker args from Object to their real type, inferring jvm default values
-				MethodHandle objTarget = MethodHandles.explicitCastArguments(target, objTargetType);
+			// explicitCastArguments is being used to cast Object=null to the jvm default value for the correct type
+			// construct method desc (TLjava/lang/Object;Ljava/lang/Object;...)R where T = invoker ref ("this"), R = invoker ret type and args 1+ are Object for each non-"this" invoker arg
+			MethodType objTargetType = MethodType.genericMethodType(type.parameterCount()).changeReturnType(type.returnType()).insertParameterTypes(0, target.type().parameterType(0));
+			// explicit cast to translate to the invoker args from Object to their real type, inferring jvm default values
+			MethodHandle objTarget = MethodHandles.explicitCastArguments(target, objTargetType);
 
-				// build invocation args with 0 = "this", 1+ = null
-				Object[] args = new Object[target.type().parameterCount()];
-				//noinspection unchecked
-				args[0] = invokerSetup.apply((T[]) Array.newInstance(handlerClass, 0));
+			// build invocation args with 0 = "this", 1+ = null
+			Object[] args = new Object[target.type().parameterCount()];
+			//noinspection unchecked
+			args[0] = invokerSetup.apply((T[]) Array.newInstance(handlerClass, 0));
 
-				// retrieve default by invoking invokerSetup.apply(T[0]).targetName(def,def,...)
-				defValue = objTarget.invokeWithArguments(args);
-			}
+			// retrieve default by invoking invokerSetup.apply(T[0]).targetName(def,def,...)
+			return objTarget.invokeWithArguments(args);
 		} catch (Throwable t) {
 			throw new RuntimeException(t);
 		}
-
-		final Object returnValue = defValue;
-		//noinspection unchecked
-		return (T) Proxy.newProxyInstance(EventFactoryImpl.class.getClassLoader(), new Class[]{handlerClass},
-			(proxy, method, args) -> returnValue);
 	}
 }
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.base.event;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import net.fabricmc.fabric.api.event.Event;
+import net.fabricmc.fabric.api.event.EventFactory;
+import net.fabricmc.fabric.api.event.EventInstrumentation;
+import net.fabricmc.loader.api.FabricLoader;
+import net.fabricmc.loader.api.ModContainer;
+
+public final class EventInstrumentationImpl {
+	private static final Logger LOGGER = LogManager.getLogger("fabric-api-base");
+	private static final String UNKNOWN_MOD = "unknown";
+	// Event -> listener -> statistics, kept across invalidations so that re-wrapping a listener doesn't lose its statistics.
+	private static final Map<Event<?>, Map<Object, ListenerStatisticsImpl>> STATISTICS = new IdentityHashMap<>();
+	private static final Map<String, String> MOD_IDS = new HashMap<>();
+	private static volatile boolean enabled = System.getProperty("fabric.event.instrumentation", "false").equalsIgnoreCase("true");
+
+	static {
+		long dumpInterval = Long.getLong("fabric.event.instrumentation.dumpInterval", 0);
+
+		if (dumpInterval > 0) {
+			ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "Fabric Event Instrumentation Dump");
+				thread.setDaemon(true);
+				return thread;
+			});
+			executor.scheduleAtFixedRate(EventInstrumentationImpl::dump, dumpInterval, dumpInterval, TimeUnit.SECONDS);
+		}
+	}
+
+	private EventInstrumentationImpl() { }
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	public static void setEnabled(boolean enabled) {
+		if (EventInstrumentationImpl.enabled != enabled) {
+			EventInstrumentationImpl.enabled = enabled;
+			EventFactory.invalidate();
+		}
+	}
+
+	/**
+	 * Wrap every listener into a timer recording into the statistics of that listener.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> T[] instrument(Event<T> event, Class<? super T> type, T[] listeners) {
+		T[] instrumented = (T[]) Array.newInstance(type, listeners.length);
+		InvokerGenerator generator = InvokerGenerator.get(type);
+		// Made accessible once for all the listeners, rather than on every call within the measured time.
+		final Map<Method, Method> accessibleMethods = generator == null ? getAccessibleMethods(type) : null;
+
+		synchronized (STATISTICS) {
+			Map<Object, ListenerStatisticsImpl> eventStatistics = STATISTICS.computeIfAbsent(event, e -> new IdentityHashMap<>());
+
+			for (int i = 0; i < listeners.length; i++) {
+				final T listener = listeners[i];
+				final ListenerStatisticsImpl statistics = eventStatistics.computeIfAbsent(listener, l -> new ListenerStatisticsImpl(event, type, l, getModId(l.getClass())));
+
+				if (generator != null) {
+					instrumented[i] = (T) generator.createTimingWrapper(listener, statistics);
+				} else {
+					// Slower, but works for non-public interfaces too.
+					instrumented[i] = (T) Proxy.newProxyInstance(type.getClassLoader(), new Class[] { type }, (proxy, method, args) -> {
+						final Method target = accessibleMethods.getOrDefault(method, method);
+						final long start = System.nanoTime();
+
+						try {
+							return target.invoke(listener, args);
+						} catch (InvocationTargetException e) {
+							throw e.getCause();
+						} finally {
+							if (method.getDeclaringClass() != Object.class) {
+								statistics.accept(System.nanoTime() - start);
+							}
+						}
+					});
+				}
+			}
+		}
+
+		return instrumented;
+	}
+
+	/**
+	 * Make the methods of a listener interface accessible, keyed by themselves since the methods given to proxies are equal but distinct objects.
+	 * The methods of {@link Object} are public, so they don't need to be made accessible.
+	 */
+	private static Map<Method, Method> getAccessibleMethods(Class<?> type) {
+		Map<Method, Method> methods = new HashMap<>();
+
+		for (Method method : type.getMethods()) {
+			method.setAccessible(true);
+			methods.put(method, method);
+		}
+
+		return methods;
+	}
+
+	public static List<EventInstrumentation.ListenerStatistics> getStatistics(Event<?> event) {
+		List<EventInstrumentation.ListenerStatistics> result = new ArrayList<>();
+
+		synchronized (STATISTICS) {
+			if (event == null) {
+				STATISTICS.values().forEach(statistics -> result.addAll(statistics.values()));
+			} else if (STATISTICS.containsKey(event)) {
+				result.addAll(STATISTICS.get(event).values());
+			}
+		}
+
+		return result;
+	}
+
+	public static EventInstrumentation.AsyncDispatchStatistics getAsyncDispatchStatistics() {
+		return AsyncEventDispatcher.getStatistics();
+	}
+
+	public static void reset() {
+		synchronized (STATISTICS) {
+			STATISTICS.values().forEach(statistics -> statistics.values().forEach(ListenerStatisticsImpl::reset));
+		}
+	}
+
+	public static void dump() {
+		List<EventInstrumentation.ListenerStatistics> statistics = getStatistics(null);
+		statistics.removeIf(s -> s.getCallCount() == 0);
+		statistics.sort(Comparator.comparingLong(EventInstrumentation.ListenerStatistics::getTotalNanos).reversed());
+
+		StringBuilder builder = new StringBuilder("Event listener statistics (").append(statistics.size()).append(" listeners):");
+
+		for (EventInstrumentation.ListenerStatistics s : statistics) {
+			builder.append(String.format("%n - [%s] %s on %s: %d calls, %.3f ms total, %.3f us/call, p99 %.3f us",
+					s.getModId(), s.getListenerName(), s.getListenerType().getName(), s.getCallCount(),
+					s.getTotalNanos() / 1e6, s.getTotalNanos() / 1e3 / s.getCallCount(), s.getP99Nanos() / 1e3));
+		}
+
+		EventInstrumentation.AsyncDispatchStatistics async = getAsyncDispatchStatistics();
+		builder.append(String.format("%nAsynchronous listeners: %d submitted, %d completed, %d overflowed, %d failed, %d/%d queued (max %d) on %d workers",
+				async.getSubmittedTasks(), async.getCompletedTasks(), async.getOverflowedTasks(), async.getFailedTasks(),
+				async.getQueuedTasks(), async.getQueueCapacity(), async.getMaxQueuedTasks(), async.getWorkerCount()));
+
+		LOGGER.info(builder.toString());
+	}
+
+	/**
+	 * Find the mod containing a listener class, by looking up its class file in the root path of every mod.
+	 */
+	private static String getModId(Class<?> listenerClass) {
+		String className = listenerClass.getName();
+		int lambdaIndex = className.indexOf("$$Lambda$");
+
+		if (lambdaIndex >= 0) {
+			className = className.substring(0, lambdaIndex);
+		}
+
+		return MOD_IDS.computeIfAbsent(className, name -> {
+			String classFile = name.replace('.', '/') + ".class";
+
+			for (ModContainer mod : FabricLoader.getInstance().getAllMods()) {
+				try {
+					if (Files.exists(mod.getRootPath().resolve(classFile))) {
+						return mod.getMetadata().getId();
+					}
+				} catch (RuntimeException e) {
+					// Ignore mods whose root path cannot be searched.
+				}
+			}
+
+			return UNKNOWN_MOD;
+		});
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.base.event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import net.minecraft.util.Identifier;
+
+/**
+ * Data of an {@link ArrayBackedEvent} phase.
+ */
+final class EventPhaseData<T> {
+	private static final Logger LOGGER = LogManager.getLogger("fabric-api-base");
+
+	final Identifier id;
+	// Creation order of the phase in its event, used to break ties when sorting.
+	final int index;
+	final List<T> listeners = new ArrayList<>();
+	final Set<EventPhaseData<T>> subsequentPhases = new LinkedHashSet<>();
+	int previousPhaseCount;
+
+	EventPhaseData(Identifier id, int index) {
+		this.id = id;
+		this.index = index;
+	}
+
+	/**
+	 * Sort phases so that every phase comes after all phases ordered before it, using Kahn's algorithm.
+	 * Unordered phases keep their creation order.
+	 * Should the ordering contain a cycle, it is broken at the phase that was created first, and a warning is logged.
+	 */
+	static <T> List<EventPhaseData<T>> sort(Collection<EventPhaseData<T>> phases) {
+		for (EventPhaseData<T> phase : phases) {
+			phase.previousPhaseCount = 0;
+		}
+
+		for (EventPhaseData<T> phase : phases) {
+			for (EventPhaseData<T> subsequentPhase : phase.subsequentPhases) {
+				subsequentPhase.previousPhaseCount++;
+			}
+		}
+
+		Comparator<EventPhaseData<T>> creationOrder = Comparator.comparingInt(phase -> phase.index);
+		PriorityQueue<EventPhaseData<T>> ready = new PriorityQueue<>(creationOrder);
+		List<EventPhaseData<T>> remaining = new ArrayList<>();
+		List<EventPhaseData<T>> sorted = new ArrayList<>(phases.size());
+
+		for (EventPhaseData<T> phase : phases) {
+			(phase.previousPhaseCount == 0 ? ready : remaining).add(phase);
+		}
+
+		while (sorted.size() < phases.size()) {
+			if (ready.isEmpty()) {
+				remaining.removeAll(sorted);
+				EventPhaseData<T> first = remaining.stream().min(creationOrder).get();
+				LOGGER.warn("Event phase ordering conflict detected at phase {}, which is part of a cycle.", first.id);
+				first.previousPhaseCount = 0;
+				ready.add(first);
+			}
+
+			EventPhaseData<T> phase = ready.poll();
+			sorted.add(phase);
+
+			for (EventPhaseData<T> subsequentPhase : phase.subsequentPhases) {
+				if (--subsequentPhase.previousPhaseCount == 0) {
+					ready.add(subsequentPhase);
+				}
+			}
+		}
+
+		return sorted;
+	}
+}
@@ -0,0 +1,561 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.base.event;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Generates invoker classes for a single listener interface.
+ *
+ * <p>For up to {@link #MAX_UNROLLED} listeners, the generated invoker stores every listener in its own field
+ * and calls them one after the other, so that each call site only ever sees a single receiver type and can be inlined.
+ * Past that, a single generated class iterating over the listener array is used.
+ *
+ * <p>If the listener method returns a value, the generated invoker returns the first result that is different from the
+ * "empty" result (compared by identity for references), or the empty result if every listener returned it.
+ *
+ * <p>This also generates the timing wrappers used by {@link EventInstrumentationImpl},
+ * and the delegating invokers used by {@link ArrayBackedEvent} to rebuild its invoker lazily.
+ */
+final class InvokerGenerator {
+	static final int MAX_UNROLLED = 32;
+
+	private static final Map<Class<?>, InvokerGenerator> GENERATORS = new HashMap<>();
+	private static final AtomicInteger NEXT_ID = new AtomicInteger();
+	private static final String OBJECT = "java/lang/Object";
+
+	private final Class<?> type;
+	private final Method method;
+	private final Type returnType;
+	private final Type[] argumentTypes;
+	private final InvokerClassLoader classLoader;
+	private final Constructor<?>[] unrolledConstructors = new Constructor<?>[MAX_UNROLLED + 1];
+	private Constructor<?> loopingConstructor;
+	private Constructor<?> timingConstructor;
+	private Constructor<?> delegatingConstructor;
+
+	private InvokerGenerator(Class<?> type, Method method) {
+		this.type = type;
+		this.method = method;
+		this.returnType = Type.getReturnType(method);
+		this.argumentTypes = Type.getArgumentTypes(method);
+		this.classLoader = new InvokerClassLoader(type.getClassLoader());
+	}
+
+	/**
+	 * @return The generator for this listener type, or {@code null} if no invoker can be generated for it.
+	 */
+	static InvokerGenerator get(Class<?> type) {
+		synchronized (GENERATORS) {
+			if (GENERATORS.containsKey(type)) {
+				return GENERATORS.get(type);
+			}
+
+			Method method = findListenerMethod(type);
+			InvokerGenerator generator = method == null ? null : new InvokerGenerator(type, method);
+			GENERATORS.put(type, generator);
+			return generator;
+		}
+	}
+
+	Method getMethod() {
+		return method;
+	}
+
+	/**
+	 * Create a new invoker for these listeners.
+	 *
+	 * @param listeners   The listeners, of the type of this generator.
+	 * @param emptyResult The result returned by the invoker if no listener returns anything else, ignored if the listener method returns void.
+	 */
+	Object createInvoker(Object[] listeners, Object emptyResult) {
+		final boolean unrolled = listeners.length <= MAX_UNROLLED;
+		final boolean hasResult = returnType.getSort() != Type.VOID;
+		final Object[] args;
+
+		if (unrolled) {
+			args = Arrays.copyOf(listeners, listeners.length + (hasResult ? 1 : 0), Object[].class);
+		} else {
+			args = new Object[hasResult ? 2 : 1];
+			args[0] = listeners;
+		}
+
+		if (hasResult) {
+			args[args.length - 1] = emptyResult;
+		}
+
+		try {
+			return getConstructor(unrolled ? listeners.length : -1).newInstance(args);
+		} catch (ReflectiveOperationException e) {
+			throw new RuntimeException("Failed to instantiate generated invoker for " + type.getName(), e);
+		}
+	}
+
+	/**
+	 * Wrap a listener so that the duration of each of its calls is passed to {@code timer}, in nanoseconds.
+	 */
+	Object createTimingWrapper(Object listener, LongConsumer timer) {
+		try {
+			synchronized (this) {
+				if (timingConstructor == null) {
+					String name = "net/fabricmc/fabric/impl/base/event/generated/" + type.getSimpleName() + "Timer_" + NEXT_ID.getAndIncrement();
+					timingConstructor = classLoader.define(name.replace('/', '.'), generateTimingWrapper(name)).getConstructors()[0];
+				}
+			}
+
+			return timingConstructor.newInstance(listener, timer);
+		} catch (ReflectiveOperationException e) {
+			throw new RuntimeException("Failed to instantiate timing wrapper for " + type.getName(), e);
+		}
+	}
+
+	/**
+	 * Create an invoker calling the invoker returned by {@code target} every time it is invoked.
+	 */
+	Object createDelegatingInvoker(Supplier<?> target) {
+		try {
+			synchronized (this) {
+				if (delegatingConstructor == null) {
+					String name = "net/fabricmc/fabric/impl/base/event/generated/" + type.getSimpleName() + "Delegate_" + NEXT_ID.getAndIncrement();
+					delegatingConstructor = classLoader.define(name.replace('/', '.'), generateDelegatingInvoker(name)).getConstructors()[0];
+				}
+			}
+
+			return delegatingConstructor.newInstance(target);
+		} catch (ReflectiveOperationException e) {
+			throw new RuntimeException("Failed to instantiate delegating invoker for " + type.getName(), e);
+		}
+	}
+
+	private Constructor<?> getConstructor(int listenerCount) {
+		synchronized (this) {
+			Constructor<?> constructor = listenerCount < 0 ? loopingConstructor : unrolledConstructors[listenerCount];
+
+			if (constructor == null) {
+				String name = "net/fabricmc/fabric/impl/base/event/generated/" + type.getSimpleName() + "Invoker" + (listenerCount < 0 ? "N" : listenerCount) + "_" + NEXT_ID.getAndIncrement();
+				byte[] bytes = listenerCount < 0 ? generateLooping(name) : generateUnrolled(name, listenerCount);
+				Class<?> invokerClass = classLoader.define(name.replace('/', '.'), bytes);
+				constructor = invokerClass.getConstructors()[0];
+
+				if (listenerCount < 0) {
+					loopingConstructor = constructor;
+				} else {
+					unrolledConstructors[listenerCount] = constructor;
+				}
+			}
+
+			return constructor;
+		}
+	}
+
+	private byte[] generateUnrolled(String name, int listenerCount) {
+		final String listenerDesc = Type.getDescriptor(type);
+		final ClassWriter writer = createClassWriter(name);
+
+		StringBuilder constructorDesc = new StringBuilder("(");
+
+		for (int i = 0; i < listenerCount; i++) {
+			writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "listener" + i, listenerDesc, null, null).visitEnd();
+			constructorDesc.append(listenerDesc);
+		}
+
+		if (returnType.getSort() != Type.VOID) {
+			writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "emptyResult", returnType.getDescriptor(), null, null).visitEnd();
+			constructorDesc.append(returnType.getDescriptor());
+		}
+
+		constructorDesc.append(")V");
+
+		// Constructor: store every listener and the empty result.
+		MethodVisitor init = beginConstructor(writer, constructorDesc.toString());
+		int slot = 1;
+
+		for (int i = 0; i < listenerCount; i++) {
+			init.visitVarInsn(Opcodes.ALOAD, 0);
+			init.visitVarInsn(Opcodes.ALOAD, slot++);
+			init.visitFieldInsn(Opcodes.PUTFIELD, name, "listener" + i, listenerDesc);
+		}
+
+		endConstructor(init, name, slot);
+
+		// Listener method: call every listener in order.
+		MethodVisitor mv = beginListenerMethod(writer);
+		final int resultSlot = getArgumentSlots() + 1;
+
+		for (int i = 0; i < listenerCount; i++) {
+			mv.visitVarInsn(Opcodes.ALOAD, 0);
+			mv.visitFieldInsn(Opcodes.GETFIELD, name, "listener" + i, listenerDesc);
+			visitListenerCall(mv, name, resultSlot);
+		}
+
+		visitEmptyReturn(mv, name);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		writer.visitEnd();
+		return writer.toByteArray();
+	}
+
+	private byte[] generateLooping(String name) {
+		final String listenerDesc = Type.getDescriptor(type);
+		final String arrayDesc = "[" + listenerDesc;
+		final ClassWriter writer = createClassWriter(name);
+
+		writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "listeners", arrayDesc, null, null).visitEnd();
+		String constructorDesc = "(" + arrayDesc;
+
+		if (returnType.getSort() != Type.VOID) {
+			writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "emptyResult", returnType.getDescriptor(), null, null).visitEnd();
+			constructorDesc += returnType.getDescriptor();
+		}
+
+		MethodVisitor init = beginConstructor(writer, constructorDesc + ")V");
+		init.visitVarInsn(Opcodes.ALOAD, 0);
+		init.visitVarInsn(Opcodes.ALOAD, 1);
+		init.visitFieldInsn(Opcodes.PUTFIELD, name, "listeners", arrayDesc);
+		endConstructor(init, name, 2);
+
+		MethodVisitor mv = beginListenerMethod(writer);
+		final int arraySlot = getArgumentSlots() + 1;
+		final int indexSlot = arraySlot + 1;
+		final int resultSlot = indexSlot + 1;
+		final Label loop = new Label();
+		final Label end = new Label();
+
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitFieldInsn(Opcodes.GETFIELD, name, "listeners", arrayDesc);
+		mv.visitVarInsn(Opcodes.ASTORE, arraySlot);
+		mv.visitInsn(Opcodes.ICONST_0);
+		mv.visitVarInsn(Opcodes.ISTORE, indexSlot);
+
+		mv.visitLabel(loop);
+		mv.visitVarInsn(Opcodes.ILOAD, indexSlot);
+		mv.visitVarInsn(Opcodes.ALOAD, arraySlot);
+		mv.visitInsn(Opcodes.ARRAYLENGTH);
+		mv.visitJumpInsn(Opcodes.IF_ICMPGE, end);
+
+		mv.visitVarInsn(Opcodes.ALOAD, arraySlot);
+		mv.visitVarInsn(Opcodes.ILOAD, indexSlot);
+		mv.visitInsn(Opcodes.AALOAD);
+		visitListenerCall(mv, name, resultSlot);
+
+		mv.visitIincInsn(indexSlot, 1);
+		mv.visitJumpInsn(Opcodes.GOTO, loop);
+
+		mv.visitLabel(end);
+		visitEmptyReturn(mv, name);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		writer.visitEnd();
+		return writer.toByteArray();
+	}
+
+	private byte[] generateTimingWrapper(String name) {
+		final String listenerDesc = Type.getDescriptor(type);
+		final String timerDesc = "Ljava/util/function/LongConsumer;";
+		final ClassWriter writer = createClassWriter(name);
+
+		writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "listener", listenerDesc, null, null).visitEnd();
+		writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "timer", timerDesc, null, null).visitEnd();
+
+		MethodVisitor init = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "(" + listenerDesc + timerDesc + ")V", null, null);
+		init.visitCode();
+		init.visitVarInsn(Opcodes.ALOAD, 0);
+		init.visitMethodInsn(Opcodes.INVOKESPECIAL, OBJECT, "<init>", "()V", false);
+		init.visitVarInsn(Opcodes.ALOAD, 0);
+		init.visitVarInsn(Opcodes.ALOAD, 1);
+		init.visitFieldInsn(Opcodes.PUTFIELD, name, "listener", listenerDesc);
+		init.visitVarInsn(Opcodes.ALOAD, 0);
+		init.visitVarInsn(Opcodes.ALOAD, 2);
+		init.visitFieldInsn(Opcodes.PUTFIELD, name, "timer", timerDesc);
+		init.visitInsn(Opcodes.RETURN);
+		init.visitMaxs(0, 0);
+		init.visitEnd();
+
+		// long start = System.nanoTime(); result = listener.method(args); timer.accept(System.nanoTime() - start); return result;
+		MethodVisitor mv = beginListenerMethod(writer);
+		final int startSlot = getArgumentSlots() + 1;
+		final int resultSlot = startSlot + 2;
+
+		mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/System", "nanoTime", "()J", false);
+		mv.visitVarInsn(Opcodes.LSTORE, startSlot);
+
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitFieldInsn(Opcodes.GETFIELD, name, "listener", listenerDesc);
+		int slot = 1;
+
+		for (Type argumentType : argumentTypes) {
+			mv.visitVarInsn(argumentType.getOpcode(Opcodes.ILOAD), slot);
+			slot += argumentType.getSize();
+		}
+
+		mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(type), method.getName(), Type.getMethodDescriptor(method), true);
+
+		if (returnType.getSort() != Type.VOID) {
+			mv.visitVarInsn(returnType.getOpcode(Opcodes.ISTORE), resultSlot);
+		}
+
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitFieldInsn(Opcodes.GETFIELD, name, "timer", timerDesc);
+		mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/System", "nanoTime", "()J", false);
+		mv.visitVarInsn(Opcodes.LLOAD, startSlot);
+		mv.visitInsn(Opcodes.LSUB);
+		mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, "java/util/function/LongConsumer", "accept", "(J)V", true);
+
+		if (returnType.getSort() == Type.VOID) {
+			mv.visitInsn(Opcodes.RETURN);
+		} else {
+			mv.visitVarInsn(returnType.getOpcode(Opcodes.ILOAD), resultSlot);
+			mv.visitInsn(returnType.getOpcode(Opcodes.IRETURN));
+		}
+
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		writer.visitEnd();
+		return writer.toByteArray();
+	}
+
+	private byte[] generateDelegatingInvoker(String name) {
+		final String targetDesc = "Ljava/util/function/Supplier;";
+		final ClassWriter writer = createClassWriter(name);
+
+		writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "target", targetDesc, null, null).visitEnd();
+
+		MethodVisitor init = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "(" + targetDesc + ")V", null, null);
+		init.visitCode();
+		init.visitVarInsn(Opcodes.ALOAD, 0);
+		init.visitMethodInsn(Opcodes.INVOKESPECIAL, OBJECT, "<init>", "()V", false);
+		init.visitVarInsn(Opcodes.ALOAD, 0);
+		init.visitVarInsn(Opcodes.ALOAD, 1);
+		init.visitFieldInsn(Opcodes.PUTFIELD, name, "target", targetDesc);
+		init.visitInsn(Opcodes.RETURN);
+		init.visitMaxs(0, 0);
+		init.visitEnd();
+
+		// return ((T) target.get()).method(args);
+		MethodVisitor mv = beginListenerMethod(writer);
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitFieldInsn(Opcodes.GETFIELD, name, "target", targetDesc);
+		mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, "java/util/function/Supplier", "get", "()Ljava/lang/Object;", true);
+		mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(type));
+		int slot = 1;
+
+		for (Type argumentType : argumentTypes) {
+			mv.visitVarInsn(argumentType.getOpcode(Opcodes.ILOAD), slot);
+			slot += argumentType.getSize();
+		}
+
+		mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(type), method.getName(), Type.getMethodDescriptor(method), true);
+		mv.visitInsn(returnType.getOpcode(Opcodes.IRETURN));
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		writer.visitEnd();
+		return writer.toByteArray();
+	}
+
+	private ClassWriter createClassWriter(String name) {
+		// Frames only ever merge identical types, so there is no need to load any class to compute them.
+		ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+			@Override
+			protected String getCommonSuperClass(String type1, String type2) {
+				return OBJECT;
+			}
+		};
+
+		writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER | Opcodes.ACC_SYNTHETIC, name, null, OBJECT, new String[] { Type.getInternalName(type) });
+		return writer;
+	}
+
+	private MethodVisitor beginConstructor(ClassWriter writer, String desc) {
+		MethodVisitor init = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", desc, null, null);
+		init.visitCode();
+		init.visitVarInsn(Opcodes.ALOAD, 0);
+		init.visitMethodInsn(Opcodes.INVOKESPECIAL, OBJECT, "<init>", "()V", false);
+		return init;
+	}
+
+	private void endConstructor(MethodVisitor init, String name, int emptyResultSlot) {
+		if (returnType.getSort() != Type.VOID) {
+			init.visitVarInsn(Opcodes.ALOAD, 0);
+			init.visitVarInsn(returnType.getOpcode(Opcodes.ILOAD), emptyResultSlot);
+			init.visitFieldInsn(Opcodes.PUTFIELD, name, "emptyResult", returnType.getDescriptor());
+		}
+
+		init.visitInsn(Opcodes.RETURN);
+		init.visitMaxs(0, 0);
+		init.visitEnd();
+	}
+
+	private MethodVisitor beginListenerMethod(ClassWriter writer) {
+		MethodVisitor mv = writer.visitMethod(Opcodes.ACC_PUBLIC, method.getName(), Type.getMethodDescriptor(method), null, null);
+		mv.visitCode();
+		return mv;
+	}
+
+	private int getArgumentSlots() {
+		int slots = 0;
+
+		for (Type argumentType : argumentTypes) {
+			slots += argumentType.getSize();
+		}
+
+		return slots;
+	}
+
+	/**
+	 * Emit the call to the listener currently on top of the stack,
+	 * returning its result early if it is not the empty result.
+	 */
+	private void visitListenerCall(MethodVisitor mv, String name, int resultSlot) {
+		int slot = 1;
+
+		for (Type argumentType : argumentTypes) {
+			mv.visitVarInsn(argumentType.getOpcode(Opcodes.ILOAD), slot);
+			slot += argumentType.getSize();
+		}
+
+		mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(type), method.getName(), Type.getMethodDescriptor(method), true);
+
+		if (returnType.getSort() == Type.VOID) {
+			return;
+		}
+
+		final Label next = new Label();
+		mv.visitVarInsn(returnType.getOpcode(Opcodes.ISTORE), resultSlot);
+		mv.visitVarInsn(returnType.getOpcode(Opcodes.ILOAD), resultSlot);
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitFieldInsn(Opcodes.GETFIELD, name, "emptyResult", returnType.getDescriptor());
+
+		switch (returnType.getSort()) {
+		case Type.OBJECT:
+		case Type.ARRAY:
+			mv.visitJumpInsn(Opcodes.IF_ACMPEQ, next);
+			break;
+		case Type.LONG:
+			mv.visitInsn(Opcodes.LCMP);
+			mv.visitJumpInsn(Opcodes.IFEQ, next);
+			break;
+		case Type.FLOAT:
+			mv.visitInsn(Opcodes.FCMPL);
+			mv.visitJumpInsn(Opcodes.IFEQ, next);
+			break;
+		case Type.DOUBLE:
+			mv.visitInsn(Opcodes.DCMPL);
+			mv.visitJumpInsn(Opcodes.IFEQ, next);
+			break;
+		default:
+			mv.visitJumpInsn(Opcodes.IF_ICMPEQ, next);
+			break;
+		}
+
+		mv.visitVarInsn(returnType.getOpcode(Opcodes.ILOAD), resultSlot);
+		mv.visitInsn(returnType.getOpcode(Opcodes.IRETURN));
+		mv.visitLabel(next);
+	}
+
+	private void visitEmptyReturn(MethodVisitor mv, String name) {
+		if (returnType.getSort() == Type.VOID) {
+			mv.visitInsn(Opcodes.RETURN);
+		} else {
+			mv.visitVarInsn(Opcodes.ALOAD, 0);
+			mv.visitFieldInsn(Opcodes.GETFIELD, name, "emptyResult", returnType.getDescriptor());
+			mv.visitInsn(returnType.getOpcode(Opcodes.IRETURN));
+		}
+	}
+
+	/**
+	 * Find the single abstract method of a listener interface.
+	 *
+	 * @return The method, or {@code null} if the type is not a public functional interface whose signature only uses public types.
+	 */
+	private static Method findListenerMethod(Class<?> type) {
+		if (!type.isInterface() || !isPublic(type)) {
+			return null;
+		}
+
+		Method listenerMethod = null;
+
+		for (Method m : type.getMethods()) {
+			if (!Modifier.isAbstract(m.getModifiers()) || isObjectMethod(m)) {
+				continue;
+			}
+
+			if (listenerMethod != null) {
+				return null;
+			}
+
+			listenerMethod = m;
+		}
+
+		if (listenerMethod == null || !isPublic(listenerMethod.getReturnType())) {
+			return null;
+		}
+
+		for (Class<?> parameterType : listenerMethod.getParameterTypes()) {
+			if (!isPublic(parameterType)) {
+				return null;
+			}
+		}
+
+		return listenerMethod;
+	}
+
+	private static boolean isObjectMethod(Method m) {
+		try {
+			Object.class.getMethod(m.getName(), m.getParameterTypes());
+			return true;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	// The generated classes live in their own class loader, so they can only access public types.
+	private static boolean isPublic(Class<?> type) {
+		while (type.isArray()) {
+			type = type.getComponentType();
+		}
+
+		return type.isPrimitive() || Modifier.isPublic(type.getModifiers());
+	}
+
+	private static final class InvokerClassLoader extends ClassLoader {
+		InvokerClassLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		Class<?> define(String name, byte[] bytes) {
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.base.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongConsumer;
+
+import net.fabricmc.fabric.api.event.Event;
+import net.fabricmc.fabric.api.event.EventFactory;
+import net.fabricmc.fabric.api.event.EventInstrumentation;
+
+/**
+ * Statistics of a listener, recording durations in a log-linear histogram:
+ * one bucket per value below 8, then 8 buckets per power of two.
+ */
+final class ListenerStatisticsImpl implements EventInstrumentation.ListenerStatistics, LongConsumer {
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final Event<?> event;
+	private final Class<?> listenerType;
+	private final String listenerName;
+	private final String modId;
+	private final AtomicLong callCount = new AtomicLong();
+	private final AtomicLong totalNanos = new AtomicLong();
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+	ListenerStatisticsImpl(Event<?> event, Class<?> listenerType, Object listener, String modId) {
+		this.event = event;
+		this.listenerType = listenerType;
+		this.listenerName = EventFactory.getHandlerName(listener);
+		this.modId = modId;
+	}
+
+	@Override
+	public void accept(long nanos) {
+		nanos = Math.max(nanos, 0);
+		callCount.incrementAndGet();
+		totalNanos.addAndGet(nanos);
+		buckets.incrementAndGet(getBucket(nanos));
+	}
+
+	static int getBucket(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+
+		int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	static long getBucketUpperBound(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+
+		int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		int shift = exponent - SUB_BUCKET_BITS;
+		long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+		return lowerBound + (1L << shift) - 1;
+	}
+
+	void reset() {
+		callCount.set(0);
+		totalNanos.set(0);
+
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets.set(i, 0);
+		}
+	}
+
+	@Override
+	public Event<?> getEvent() {
+		return event;
+	}
+
+	@Override
+	public Class<?> getListenerType() {
+		return listenerType;
+	}
+
+	@Override
+	public String getListenerName() {
+		return listenerName;
+	}
+
+	@Override
+	public String getModId() {
+		return modId;
+	}
+
+	@Override
+	public long getCallCount() {
+		return callCount.get();
+	}
+
+	@Override
+	public long getTotalNanos() {
+		return totalNanos.get();
+	}
+
+	@Override
+	public long getPercentileNanos(double percentile) {
+		long[] counts = new long[BUCKETS];
+		long total = 0;
+
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = buckets.get(i);
+			total += counts[i];
+		}
+
+		if (total == 0) {
+			return 0;
+		}
+
+		long target = Math.max(1, (long) Math.ceil(total * Math.min(Math.max(percentile, 0), 100) / 100));
+		long seen = 0;
+
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+
+			if (seen >= target) {
+				return getBucketUpperBound(i);
+			}
+		}
+
+		return getBucketUpperBound(BUCKETS - 1);
+	}
+}
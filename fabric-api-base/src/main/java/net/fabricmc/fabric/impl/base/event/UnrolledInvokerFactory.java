@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.base.event;
+
+import java.util.function.Function;
+
+/**
+ * Invoker factory building its invokers with an {@link InvokerGenerator}.
+ */
+final class UnrolledInvokerFactory<T> implements Function<T[], T> {
+	private final InvokerGenerator generator;
+	private final Object emptyResult;
+
+	private UnrolledInvokerFactory(InvokerGenerator generator, Object emptyResult) {
+		this.generator = generator;
+		this.emptyResult = emptyResult;
+	}
+
+	/**
+	 * Create an invoker factory generating invokers equivalent to the ones of {@code invokerFactory}.
+	 * If no invoker can be generated for this listener type, {@code invokerFactory} is returned.
+	 */
+	static <T> Function<T[], T> create(Class<? super T> type, Function<T[], T> invokerFactory) {
+		InvokerGenerator generator = InvokerGenerator.get(type);
+
+		if (generator == null) {
+			return invokerFactory;
+		}
+
+		return new UnrolledInvokerFactory<>(generator, EventFactoryImpl.getEmptyResult(type, generator.getMethod(), invokerFactory));
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T apply(T[] listeners) {
+		return (T) generator.createInvoker(listeners, emptyResult);
+	}
+}
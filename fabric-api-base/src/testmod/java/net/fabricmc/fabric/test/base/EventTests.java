@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.test.base;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import net.minecraft.util.ActionResult;
+import net.minecraft.util.Identifier;
+
+import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.event.Event;
+import net.fabricmc.fabric.api.event.EventFactory;
+
+public class EventTests implements ModInitializer {
+	private static final Logger LOGGER = LogManager.getLogger("fabric-api-base-testmod");
+	private static final Identifier EARLY = new Identifier("fabric-api-base-testmod", "early");
+	private static final Identifier LATE = new Identifier("fabric-api-base-testmod", "late");
+
+	@Override
+	public void onInitialize() {
+		testUnrolledInvokers();
+		testPhases();
+		LOGGER.info("Event tests passed!");
+	}
+
+	private static void testUnrolledInvokers() {
+		Event<Test> event = EventFactory.createUnrolled(Test.class, listeners -> list -> {
+			for (Test listener : listeners) {
+				ActionResult result = listener.onTest(list);
+
+				if (result != ActionResult.PASS) {
+					return result;
+				}
+			}
+
+			return ActionResult.PASS;
+		});
+
+		List<String> list = new ArrayList<>();
+		assertEquals(ActionResult.PASS, event.invoker().onTest(list));
+
+		// Enough listeners to go past the unrolled invokers.
+		for (int i = 0; i < 40; i++) {
+			final String value = Integer.toString(i);
+			event.register(l -> {
+				l.add(value);
+				return ActionResult.PASS;
+			});
+		}
+
+		assertEquals(ActionResult.PASS, event.invoker().onTest(list));
+		assertEquals(40, list.size());
+
+		event.register(l -> ActionResult.SUCCESS);
+		event.register(l -> {
+			throw new AssertionError("Should not be called after a listener returned SUCCESS");
+		});
+
+		list.clear();
+		assertEquals(ActionResult.SUCCESS, event.invoker().onTest(list));
+		assertEquals(40, list.size());
+	}
+
+	private static void testPhases() {
+		Event<Test> event = EventFactory.createWithPhases(Test.class, listeners -> list -> {
+			for (Test listener : listeners) {
+				listener.onTest(list);
+			}
+
+			return ActionResult.PASS;
+		}, EARLY, Event.DEFAULT_PHASE, LATE);
+
+		event.register(LATE, addToList("late"));
+		event.register(addToList("default"));
+		event.register(EARLY, addToList("early"));
+
+		Identifier veryEarly = new Identifier("fabric-api-base-testmod", "very_early");
+		event.register(veryEarly, addToList("very_early"));
+		event.addPhaseOrdering(veryEarly, EARLY);
+
+		List<String> list = new ArrayList<>();
+		event.invoker().onTest(list);
+		assertEquals(Arrays.asList("very_early", "early", "default", "late"), list);
+	}
+
+	private static Test addToList(String value) {
+		return list -> {
+			list.add(value);
+			return ActionResult.PASS;
+		};
+	}
+
+	private static void assertEquals(Object expected, Object actual) {
+		if (!expected.equals(actual)) {
+			throw new AssertionError(String.format("Expected %s, got %s", expected, actual));
+		}
+	}
+
+	@FunctionalInterface
+	public interface Test {
+		ActionResult onTest(List<String> list);
+	}
+}
@@ -32,8 +32,14 @@ import net.fabricmc.fabric.impl.lookup.block.BlockApiLookupImpl;
  * A {@link BlockApiLookup} bound to a {@link ServerWorld} and a position, providing much faster API access.
  * Refer to {@link BlockApiLookup} for example code.
  *
- * <p>This object caches the block entity at the target position, and the last used API provider, removing those queries.
- * If a block entity is available or if the block state is passed as a parameter, the block state doesn't have to be looked up either.
+ * <p>This object caches the block entity and the block state at the target position, and the last used API provider, removing those queries.
+ * The cached data is invalidated when the block state at the target position changes, or when a block entity is loaded or unloaded there,
+ * so repeated queries of an unchanged block don't access the world at all.
+ * Blocks changed without going through {@link net.minecraft.world.chunk.WorldChunk#setBlockState}, for example by writing chunk sections directly,
+ * are not detected.
+ *
+ * <p>While it holds cached data, the cache is referenced by the world so that it can be invalidated when the block at its position changes.
+ * That reference is dropped at the next change of the block, when the chunk is unloaded, or when the cache is {@linkplain #release() released}.
  *
  * @param <A> The type of the API.
  * @param <C> The type of the additional context object.
@@ -64,6 +70,14 @@ public interface BlockApiCache<A, C> {
 	@Nullable
 	A find(@Nullable BlockState state, C context);
 
+	/**
+	 * Drop the cached data and stop tracking changes at the position of this cache, if it is not going to be used for a while.
+	 * Calling this is never required, since the world only references its caches weakly,
+	 * but it drops the cached block entity right away instead of at the next change at the position.
+	 * The cache can still be used afterwards.
+	 */
+	void release();
+
 	/**
 	 * Create a new instance bound to the passed {@link ServerWorld} and position, and querying the same API as the passed lookup.
 	 */
@@ -16,6 +16,8 @@
 
 package net.fabricmc.fabric.api.lookup.v1.block;
 
+import java.util.function.Function;
+
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
@@ -25,6 +27,7 @@ import net.minecraft.block.entity.BlockEntity;
 import net.minecraft.block.entity.BlockEntityType;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
 import net.minecraft.world.World;
 
 import net.fabricmc.fabric.impl.lookup.block.BlockApiLookupImpl;
@@ -118,8 +121,8 @@ import net.fabricmc.fabric.impl.lookup.block.BlockApiLookupImpl;
  *     // ...
  * }
  *
- * // 2bis) if the caller is able to cache the block state as well, for example by listening to neighbor updates,
- * //       that will further improve performance.
+ * // 2bis) the cache keeps the block state until it changes, but if the caller already knows it,
+ * //       for example by listening to neighbor updates, it can be passed as well.
  * FluidContainer container = cache.find(direction, cachedBlockState);
  * if (container != null) {
  *     // ...
@@ -127,6 +130,14 @@ import net.fabricmc.fabric.impl.lookup.block.BlockApiLookupImpl;
  *
  * // no need to destroy the cache, the garbage collector will take care of it}</pre>
  *
+ * <p>When scanning many positions at once, for example all the endpoints of a pipe network,
+ * the batch queries {@link #findAll} and {@link #findNeighbors} only fetch each chunk once for consecutive positions in the same chunk.
+ *
+ * <pre>{@code
+ * // query the containers around a block, using the side of each neighbor that faces the block as the context
+ * FluidContainer[] containers = new FluidContainer[6];
+ * MyApi.FLUID_CONTAINER.findNeighbors(world, pos, Direction.values(), Direction::getOpposite, containers);}</pre>
+ *
  * <p><h3>Generic context types</h3>
  * Note that {@code FluidContainer} and {@code Direction} were completely arbitrary in this example.
  * We can define any {@code BlockApiLookup&lt;A, C&gt;}, where {@code A} is the type of the queried API, and {@code C} is the type of the additional context
@@ -181,6 +192,33 @@ public interface BlockApiLookup<A, C> {
 	@Nullable
 	A find(World world, BlockPos pos, @Nullable BlockState state, @Nullable BlockEntity blockEntity, C context);
 
+	/**
+	 * Attempt to retrieve APIs from many blocks in the world, with the same context.
+	 * This is equivalent to calling {@link #find(World, BlockPos, Object)} for every position,
+	 * but the chunk is only fetched once for consecutive positions in the same chunk, so positions should be grouped by chunk when possible.
+	 *
+	 * @param world The world.
+	 * @param positions The positions of the blocks, {@linkplain BlockPos#asLong() packed into longs}.
+	 * @param context Additional context for the queries, defined by type parameter C.
+	 * @param results The array receiving the retrieved API for every position at the same index, or {@code null} if no API was found.
+	 * @throws IllegalArgumentException If the results array is shorter than the positions array.
+	 */
+	void findAll(World world, long[] positions, C context, A[] results);
+
+	/**
+	 * Attempt to retrieve APIs from the neighbors of a block in the world.
+	 * This is equivalent to calling {@link #find(World, BlockPos, Object)} for every neighbor,
+	 * but the chunk is only fetched once for neighbors in the same chunk.
+	 *
+	 * @param world The world.
+	 * @param pos The position of the block whose neighbors are queried.
+	 * @param directions The directions of the neighbors to query.
+	 * @param contextGetter The function returning the additional context of the query for the neighbor in a direction.
+	 * @param results The array receiving the retrieved API for every direction at the same index, or {@code null} if no API was found.
+	 * @throws IllegalArgumentException If the results array is shorter than the directions array.
+	 */
+	void findNeighbors(World world, BlockPos pos, Direction[] directions, Function<Direction, C> contextGetter, A[] results);
+
 	/**
 	 * Expose the API for the passed block entities directly implementing it.
 	 *
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.api.lookup.v1.entity;
+
+import java.util.Objects;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.entity.Entity;
+
+import net.fabricmc.fabric.impl.lookup.entity.EntityApiCacheImpl;
+import net.fabricmc.fabric.impl.lookup.entity.EntityApiLookupImpl;
+
+/**
+ * An {@link EntityApiLookup} bound to an entity, providing faster API access.
+ *
+ * <p>Since the type of an entity never changes, the provider of the entity is only looked up once.
+ * Queries return {@code null} once the entity was removed from its world.
+ *
+ * @param <A> The type of the API.
+ * @param <C> The type of the additional context object.
+ * @see EntityApiLookup
+ */
+@ApiStatus.NonExtendable
+public interface EntityApiCache<A, C> {
+	/**
+	 * Attempt to retrieve an API from the entity passed at creation time.
+	 *
+	 * @param context Additional context for the query, defined by type parameter C.
+	 * @return The retrieved API, or {@code null} if no API was found or if the entity was removed.
+	 */
+	@Nullable
+	A find(C context);
+
+	/**
+	 * @return The entity this cache is bound to.
+	 */
+	Entity getEntity();
+
+	/**
+	 * Create a new instance bound to the passed entity, and querying the same API as the passed lookup.
+	 */
+	static <A, C> EntityApiCache<A, C> create(EntityApiLookup<A, C> lookup, Entity entity) {
+		Objects.requireNonNull(entity, "Entity may not be null.");
+
+		if (!(lookup instanceof EntityApiLookupImpl)) {
+			throw new IllegalArgumentException("Cannot cache foreign implementation of EntityApiLookup. Use `EntityApiLookup#get(Identifier, Class<A>, Class<C>);` to get instances.");
+		}
+
+		return new EntityApiCacheImpl<>((EntityApiLookupImpl<A, C>) lookup, entity);
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.api.lookup.v1.entity;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.util.Identifier;
+
+import net.fabricmc.fabric.impl.lookup.entity.EntityApiLookupImpl;
+
+/**
+ * An object that allows retrieving APIs from entities.
+ * Instances of this interface can be obtained through {@link #get}.
+ *
+ * <p>When trying to {@link EntityApiLookup#find} an API, the provider registered for the type of the entity will be queried if it exists.
+ * If it doesn't exist, or if it returns {@code null}, the fallback providers will be queried in order.
+ *
+ * <p>Providers are stored in an array indexed by entity type, so finding the provider of an entity doesn't involve any hash lookup.
+ * When querying the same entity often, consider using {@link EntityApiCache}, which also skips that array access.
+ *
+ * <p><h3>Usage Example</h3>
+ * Let us pretend we have the following interface that we would like to attach to some entities.
+ *
+ * <pre>{@code
+ * public interface Leashable {
+ *     boolean canBeLeashedBy(PlayerEntity player);
+ * }}</pre>
+ * Let us first create a static {@code EntityApiLookup} instance that will manage the registration and the query.
+ *
+ * <pre>{@code
+ * public final class MyApi {
+ *     public static final EntityApiLookup<Leashable, Void> LEASHABLE = EntityApiLookup.get(new Identifier("mymod:leashable"), Leashable.class, Void.class);
+ * }}</pre>
+ * Using that, we can query instances of {@code Leashable}, and register providers:
+ *
+ * <pre>{@code
+ * Leashable leashable = MyApi.LEASHABLE.find(entity, null);
+ *
+ * // If the entity class directly implements the interface, registerSelf can be used.
+ * MyApi.LEASHABLE.registerSelf(MY_ENTITY_TYPE);
+ *
+ * // Otherwise, registerForTypes can be used.
+ * MyApi.LEASHABLE.registerForTypes((entity, context) -> {
+ *     // return a Leashable for the entity, or null if there is none
+ * }, EntityType.COW, EntityType.SHEEP);
+ *
+ * // General fallback, to interface with anything, for example another EntityApiLookup.
+ * MyApi.LEASHABLE.registerFallback((entity, context) -> {
+ *     // return something if available, or null
+ * });}</pre>
+ *
+ * @param <A> The type of the API.
+ * @param <C> The type of the additional context object.
+ */
+@ApiStatus.NonExtendable
+public interface EntityApiLookup<A, C> {
+	/**
+	 * Retrieve the {@link EntityApiLookup} associated with an identifier, or create it if it didn't exist yet.
+	 *
+	 * @param lookupId The unique identifier of the lookup.
+	 * @param apiClass The class of the API.
+	 * @param contextClass The class of the additional context.
+	 * @return The unique lookup with the passed lookupId.
+	 * @throws IllegalArgumentException If another {@code apiClass} or another {@code contextClass} was already registered with the same identifier.
+	 */
+	static <A, C> EntityApiLookup<A, C> get(Identifier lookupId, Class<A> apiClass, Class<C> contextClass) {
+		return EntityApiLookupImpl.get(lookupId, apiClass, contextClass);
+	}
+
+	/**
+	 * Attempt to retrieve an API from an entity.
+	 *
+	 * @param entity The entity.
+	 * @param context Additional context for the query, defined by type parameter C.
+	 * @return The retrieved API, or {@code null} if no API was found.
+	 */
+	@Nullable
+	A find(Entity entity, C context);
+
+	/**
+	 * Expose the API for the entities of the passed types directly implementing it.
+	 *
+	 * <p>Implementation note: since entity types don't expose the class of their entities,
+	 * this is checked when an entity is queried. If its class doesn't implement the API, an error is logged and no API is returned.
+	 *
+	 * @param entityTypes Entity types for which to expose the API.
+	 */
+	void registerSelf(EntityType<?>... entityTypes);
+
+	/**
+	 * Expose the API for the entities of the passed types.
+	 * The mapping from the parameters of the query to the API is handled by the passed {@link EntityApiProvider}.
+	 *
+	 * @param provider The provider.
+	 * @param entityTypes The entity types.
+	 */
+	void registerForTypes(EntityApiProvider<A, C> provider, EntityType<?>... entityTypes);
+
+	/**
+	 * Expose the API for all queries: the provider will be invoked if no object was found using the entity type providers.
+	 * This may have a big performance impact on all queries, use cautiously.
+	 *
+	 * @param fallbackProvider The fallback provider.
+	 */
+	void registerFallback(EntityApiProvider<A, C> fallbackProvider);
+
+	@FunctionalInterface
+	interface EntityApiProvider<A, C> {
+		/**
+		 * Return an API of type {@code A} if available in the given entity with the given context, or {@code null} otherwise.
+		 *
+		 * @param entity The entity.
+		 * @param context Additional context passed to the query.
+		 * @return An API of type {@code A}, or {@code null} if no API is available.
+		 */
+		@Nullable
+		A find(Entity entity, C context);
+	}
+}
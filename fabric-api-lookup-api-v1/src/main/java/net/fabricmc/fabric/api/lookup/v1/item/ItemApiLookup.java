@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.api.lookup.v1.item;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.item.ItemConvertible;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.Identifier;
+
+import net.fabricmc.fabric.impl.lookup.item.ItemApiLookupImpl;
+
+/**
+ * An object that allows retrieving APIs from item stacks.
+ * Instances of this interface can be obtained through {@link #get}.
+ *
+ * <p>When trying to {@link ItemApiLookup#find} an API, the provider registered for the item of the stack will be queried if it exists.
+ * If it doesn't exist, or if it returns {@code null}, the fallback providers will be queried in order.
+ *
+ * <p>Providers are stored in an array indexed by item, so finding the provider of an item stack doesn't involve any hash lookup.
+ *
+ * <p><h3>Usage Example</h3>
+ * Let us pretend we have the following interface that we would like to attach to some items.
+ *
+ * <pre>{@code
+ * public interface FluidContainer {
+ *     boolean containsFluids(); // return true if not empty
+ * }}</pre>
+ * Let us first create a static {@code ItemApiLookup} instance that will manage the registration and the query.
+ * Since no context is necessary, we use {@code Void} as the context type.
+ *
+ * <pre>{@code
+ * public final class MyApi {
+ *     public static final ItemApiLookup<FluidContainer, Void> FLUID_CONTAINER_ITEM = ItemApiLookup.get(new Identifier("mymod:fluid_container"), FluidContainer.class, Void.class);
+ * }}</pre>
+ * Using that, we can query instances of {@code FluidContainer}:
+ *
+ * <pre>{@code
+ * FluidContainer container = MyApi.FLUID_CONTAINER_ITEM.find(itemStack, null);
+ * if (container != null) {
+ *     // Do something with the container
+ * }}</pre>
+ * For the query to return a useful result, functions that provide an API for an item must be registered.
+ *
+ * <pre>{@code
+ * // If the item class directly implements the interface, registerSelf can be used.
+ * MyApi.FLUID_CONTAINER_ITEM.registerSelf(MY_CONTAINER_ITEM);
+ *
+ * // Otherwise, registerForItems can be used.
+ * MyApi.FLUID_CONTAINER_ITEM.registerForItems((itemStack, context) -> {
+ *     // return a FluidContainer for the item stack, or null if there is none
+ * }, ITEM_INSTANCE, ANOTHER_ITEM_INSTANCE); // register as many items as you want
+ *
+ * // General fallback, to interface with anything, for example another ItemApiLookup.
+ * MyApi.FLUID_CONTAINER_ITEM.registerFallback((itemStack, context) -> {
+ *     // return something if available, or null
+ * });}</pre>
+ *
+ * @param <A> The type of the API.
+ * @param <C> The type of the additional context object.
+ */
+@ApiStatus.NonExtendable
+public interface ItemApiLookup<A, C> {
+	/**
+	 * Retrieve the {@link ItemApiLookup} associated with an identifier, or create it if it didn't exist yet.
+	 *
+	 * @param lookupId The unique identifier of the lookup.
+	 * @param apiClass The class of the API.
+	 * @param contextClass The class of the additional context.
+	 * @return The unique lookup with the passed lookupId.
+	 * @throws IllegalArgumentException If another {@code apiClass} or another {@code contextClass} was already registered with the same identifier.
+	 */
+	static <A, C> ItemApiLookup<A, C> get(Identifier lookupId, Class<A> apiClass, Class<C> contextClass) {
+		return ItemApiLookupImpl.get(lookupId, apiClass, contextClass);
+	}
+
+	/**
+	 * Attempt to retrieve an API from an item stack.
+	 *
+	 * @param itemStack The item stack.
+	 * @param context Additional context for the query, defined by type parameter C.
+	 * @return The retrieved API, or {@code null} if no API was found.
+	 */
+	@Nullable
+	A find(ItemStack itemStack, C context);
+
+	/**
+	 * Expose the API for the passed items directly implementing it.
+	 *
+	 * @param items Items for which to expose the API.
+	 * @throws IllegalArgumentException If the API class is not assignable from the class of one of the passed items.
+	 */
+	void registerSelf(ItemConvertible... items);
+
+	/**
+	 * Expose the API for the passed items.
+	 * The mapping from the parameters of the query to the API is handled by the passed {@link ItemApiProvider}.
+	 *
+	 * @param provider The provider.
+	 * @param items The items.
+	 */
+	void registerForItems(ItemApiProvider<A, C> provider, ItemConvertible... items);
+
+	/**
+	 * Expose the API for all queries: the provider will be invoked if no object was found using the item providers.
+	 * This may have a big performance impact on all queries, use cautiously.
+	 *
+	 * @param fallbackProvider The fallback provider.
+	 */
+	void registerFallback(ItemApiProvider<A, C> fallbackProvider);
+
+	@FunctionalInterface
+	interface ItemApiProvider<A, C> {
+		/**
+		 * Return an API of type {@code A} if available in the given item stack with the given context, or {@code null} otherwise.
+		 *
+		 * @param itemStack The item stack.
+		 * @param context Additional context passed to the query.
+		 * @return An API of type {@code A}, or {@code null} if no API is available.
+		 */
+		@Nullable
+		A find(ItemStack itemStack, C context);
+	}
+}
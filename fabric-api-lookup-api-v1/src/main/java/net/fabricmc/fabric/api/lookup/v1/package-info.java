@@ -23,7 +23,7 @@
  * <p><h2>Definitions and purpose</h2>
  * <ul>
  *     <li>What we call an <i>API</i> is any object that can be offered or queried, possibly by different mods, to be used in an agreed-upon manner.</li>
- *     <li>This module allows flexible retrieving of such APIs from blocks in the world, represented by the generic type {@code A}.</li>
+ *     <li>This module allows flexible retrieving of such APIs from blocks in the world, entities and item stacks, represented by the generic type {@code A}.</li>
  *     <li>It also provides building blocks for defining custom ways of retrieving APIs from other game objects.</li>
  * </ul>
  * </p>
@@ -44,6 +44,16 @@
  * </ul>
  * </p>
  *
+ * <p><h2>Retrieving APIs from entities and items</h2>
+ * <ul>
+ *     <li>{@link net.fabricmc.fabric.api.lookup.v1.entity.EntityApiLookup EntityApiLookup&lt;A, C&gt;} and
+ *     {@link net.fabricmc.fabric.api.lookup.v1.item.ItemApiLookup ItemApiLookup&lt;A, C&gt;} work like {@code BlockApiLookup},
+ *     but query entities and item stacks, with APIs registered for entity types and items respectively.</li>
+ *     <li>{@link net.fabricmc.fabric.api.lookup.v1.entity.EntityApiCache EntityApiCache&lt;A, C&gt;} is an {@code EntityApiLookup} bound to an entity,
+ *     which only looks up the provider of the entity once.</li>
+ * </ul>
+ * </p>
+ *
  * <p><h2>Retrieving APIs from custom game objects</h2>
  * <ul>
  *     <li>The subpackage {@code custom} provides helper classes to accelerate implementations of {@code ApiLookup}s for custom objects,
@@ -24,19 +24,32 @@ import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
 
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerBlockEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
 import net.fabricmc.fabric.api.lookup.v1.block.BlockApiCache;
 import net.fabricmc.fabric.api.lookup.v1.block.BlockApiLookup;
 
 public final class BlockApiCacheImpl<A, C> implements BlockApiCache<A, C> {
 	private final BlockApiLookupImpl<A, C> lookup;
 	private final ServerWorld world;
-	private final BlockPos pos;
+	final BlockPos pos;
 	/**
-	 * We always cache the block entity, even if it's null. We rely on BE load and unload events to invalidate the cache when necessary.
+	 * Whether this cache is registered in the {@link BlockApiCacheStorage} of the world, to be invalidated when the position changes.
+	 * The storage references this cache weakly through storageEntry, which is created on the first registration and then reused.
+	 */
+	private boolean registered = false;
+	BlockApiCacheStorage.Entry storageEntry = null;
+	/**
+	 * We always cache the block entity, even if it's null.
+	 * We rely on block state changes and BE load and unload events to invalidate the cache when necessary.
 	 * blockEntityCacheValid maintains whether the cache is valid or not.
 	 */
 	private boolean blockEntityCacheValid = false;
 	private BlockEntity cachedBlockEntity = null;
+	/**
+	 * We also cache the block state, since the cache is invalidated when the block state at the target position changes.
+	 * It is null if it wasn't queried since the last invalidation.
+	 */
+	private BlockState cachedState = null;
 	/**
 	 * We also cache the BlockApiProvider at the target position. We check if the block state has changed to invalidate the cache.
 	 * lastState maintains for which block state the cachedProvider is valid.
@@ -45,22 +58,40 @@ public final class BlockApiCacheImpl<A, C> implements BlockApiCache<A, C> {
 	private BlockApiLookup.BlockApiProvider<A, C> cachedProvider = null;
 
 	public BlockApiCacheImpl(BlockApiLookupImpl<A, C> lookup, ServerWorld world, BlockPos pos) {
-		((ServerWorldCache) world).fabric_registerCache(pos, this);
 		this.lookup = lookup;
 		this.world = world;
 		this.pos = pos.toImmutable();
 	}
 
-	public void invalidate() {
+	/**
+	 * Called by the {@link BlockApiCacheStorage} after this cache was unregistered.
+	 */
+	void invalidate() {
+		registered = false;
 		blockEntityCacheValid = false;
 		cachedBlockEntity = null;
+		cachedState = null;
 		lastState = null;
 		cachedProvider = null;
 	}
 
+	@Override
+	public void release() {
+		if (registered) {
+			((ServerWorldCache) world).fabric_getApiCacheStorage().unregister(this);
+			invalidate();
+		}
+	}
+
 	@Nullable
 	@Override
 	public A find(@Nullable BlockState state, C context) {
+		// Register before caching anything, so that no change is missed.
+		if (!registered) {
+			((ServerWorldCache) world).fabric_getApiCacheStorage().register(this);
+			registered = true;
+		}
+
 		// Get block entity
 		if (!blockEntityCacheValid) {
 			cachedBlockEntity = world.getBlockEntity(pos);
@@ -69,11 +100,15 @@ public final class BlockApiCacheImpl<A, C> implements BlockApiCache<A, C> {
 
 		// Get block state
 		if (state == null) {
-			if (cachedBlockEntity != null) {
-				state = cachedBlockEntity.getCachedState();
-			} else {
-				state = world.getBlockState(pos);
+			if (cachedState == null) {
+				if (cachedBlockEntity != null) {
+					cachedState = cachedBlockEntity.getCachedState();
+				} else {
+					cachedState = world.getBlockState(pos);
+				}
 			}
+
+			state = cachedState;
 		}
 
 		// Get provider
@@ -107,11 +142,15 @@ public final class BlockApiCacheImpl<A, C> implements BlockApiCache<A, C> {
 
 	static {
 		ServerBlockEntityEvents.BLOCK_ENTITY_LOAD.register((blockEntity, world) -> {
-			((ServerWorldCache) world).fabric_invalidateCache(blockEntity.getPos());
+			((ServerWorldCache) world).fabric_getApiCacheStorage().invalidate(blockEntity.getPos());
 		});
 
 		ServerBlockEntityEvents.BLOCK_ENTITY_UNLOAD.register((blockEntity, world) -> {
-			((ServerWorldCache) world).fabric_invalidateCache(blockEntity.getPos());
+			((ServerWorldCache) world).fabric_getApiCacheStorage().invalidate(blockEntity.getPos());
+		});
+
+		ServerChunkEvents.CHUNK_UNLOAD.register((world, chunk) -> {
+			((ServerWorldCache) world).fabric_getApiCacheStorage().invalidateChunk(chunk.getPos().x, chunk.getPos().z);
 		});
 	}
 }
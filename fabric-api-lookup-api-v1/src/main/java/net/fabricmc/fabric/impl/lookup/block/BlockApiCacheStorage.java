@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.lookup.block;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.World;
+
+/**
+ * The {@link BlockApiCacheImpl}s of a server world that must be invalidated when their position changes, grouped by chunk section.
+ * Every section maps the index of a position inside the section to a linked list of the {@link Entry entries} of the caches at that position.
+ * Each cache creates its entry once and reuses it, so registering and invalidating caches doesn't allocate.
+ *
+ * <p>Caches are only registered while they hold cached data: invalidating a position also removes its caches from the storage,
+ * and they register again the next time they are queried.
+ * The entries only reference their cache weakly, so that caches which are discarded without being {@linkplain BlockApiCacheImpl#release() released}
+ * can still be garbage collected. The entries of collected caches are removed when the next cache is registered.
+ *
+ * <p>Caches outside of the build limit are never registered, since nothing can change there.
+ */
+public final class BlockApiCacheStorage {
+	private final Long2ObjectOpenHashMap<Int2ObjectOpenHashMap<Entry>> sections = new Long2ObjectOpenHashMap<>();
+	// Receives the entries of the caches that were garbage collected.
+	private final ReferenceQueue<BlockApiCacheImpl<?, ?>> collectedCaches = new ReferenceQueue<>();
+
+	void register(BlockApiCacheImpl<?, ?> cache) {
+		removeCollectedCaches();
+		BlockPos pos = cache.pos;
+
+		if (World.isOutOfBuildLimitVertically(pos)) {
+			return;
+		}
+
+		Entry entry = cache.storageEntry;
+
+		if (entry == null) {
+			entry = new Entry(cache, collectedCaches, getSectionKey(pos), getIndexInSection(pos));
+			cache.storageEntry = entry;
+		}
+
+		Int2ObjectOpenHashMap<Entry> section = sections.get(entry.sectionKey);
+
+		if (section == null) {
+			section = new Int2ObjectOpenHashMap<>();
+			sections.put(entry.sectionKey, section);
+		}
+
+		entry.next = section.put(entry.index, entry);
+		entry.linked = true;
+	}
+
+	void unregister(BlockApiCacheImpl<?, ?> cache) {
+		if (cache.storageEntry != null) {
+			unlink(cache.storageEntry);
+		}
+	}
+
+	private void unlink(Entry entry) {
+		if (!entry.linked) {
+			return;
+		}
+
+		Int2ObjectOpenHashMap<Entry> section = sections.get(entry.sectionKey);
+		Entry head = section.get(entry.index);
+
+		if (head == entry) {
+			if (entry.next == null) {
+				section.remove(entry.index);
+
+				if (section.isEmpty()) {
+					sections.remove(entry.sectionKey);
+				}
+			} else {
+				section.put(entry.index, entry.next);
+			}
+		} else {
+			for (Entry previous = head; previous.next != null; previous = previous.next) {
+				if (previous.next == entry) {
+					previous.next = entry.next;
+					break;
+				}
+			}
+		}
+
+		entry.next = null;
+		entry.linked = false;
+	}
+
+	private void removeCollectedCaches() {
+		Reference<? extends BlockApiCacheImpl<?, ?>> collected;
+
+		while ((collected = collectedCaches.poll()) != null) {
+			unlink((Entry) collected);
+		}
+	}
+
+	/**
+	 * Invalidate and unregister the caches at a position.
+	 */
+	public void invalidate(BlockPos pos) {
+		long sectionKey = getSectionKey(pos);
+		Int2ObjectOpenHashMap<Entry> section = sections.get(sectionKey);
+
+		if (section == null) {
+			return;
+		}
+
+		Entry entries = section.remove(getIndexInSection(pos));
+
+		if (section.isEmpty()) {
+			sections.remove(sectionKey);
+		}
+
+		invalidateAll(entries);
+	}
+
+	/**
+	 * Invalidate and unregister the caches in a chunk.
+	 */
+	public void invalidateChunk(int chunkX, int chunkZ) {
+		for (int sectionY = 0; sectionY < 16; ++sectionY) {
+			Int2ObjectOpenHashMap<Entry> section = sections.remove(ChunkSectionPos.asLong(chunkX, sectionY, chunkZ));
+
+			if (section != null) {
+				for (Entry entries : section.values()) {
+					invalidateAll(entries);
+				}
+			}
+		}
+	}
+
+	private static void invalidateAll(Entry entry) {
+		while (entry != null) {
+			Entry next = entry.next;
+			entry.next = null;
+			entry.linked = false;
+			BlockApiCacheImpl<?, ?> cache = entry.get();
+
+			if (cache != null) {
+				cache.invalidate();
+			}
+
+			entry = next;
+		}
+	}
+
+	private static long getSectionKey(BlockPos pos) {
+		return ChunkSectionPos.asLong(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4);
+	}
+
+	private static int getIndexInSection(BlockPos pos) {
+		return (pos.getX() & 15) << 8 | (pos.getY() & 15) << 4 | (pos.getZ() & 15);
+	}
+
+	/**
+	 * A weak reference to a cache, linked to the other entries at the same position.
+	 * The position is kept in the entry since the cache may be gone when the entry is removed.
+	 */
+	static final class Entry extends WeakReference<BlockApiCacheImpl<?, ?>> {
+		final long sectionKey;
+		final int index;
+		Entry next = null;
+		// Whether this entry is in its section, which collected entries may no longer be.
+		boolean linked = false;
+
+		Entry(BlockApiCacheImpl<?, ?> cache, ReferenceQueue<BlockApiCacheImpl<?, ?>> queue, long sectionKey, int index) {
+			super(cache, queue);
+			this.sectionKey = sectionKey;
+			this.index = index;
+		}
+	}
+}
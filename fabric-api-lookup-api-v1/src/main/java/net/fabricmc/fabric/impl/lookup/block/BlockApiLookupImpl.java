@@ -19,6 +19,7 @@ package net.fabricmc.fabric.impl.lookup.block;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -26,20 +27,25 @@ import org.jetbrains.annotations.Nullable;
 
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
 import net.minecraft.block.entity.BlockEntity;
 import net.minecraft.block.entity.BlockEntityType;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
 import net.minecraft.util.registry.Registry;
 import net.minecraft.world.World;
+import net.minecraft.world.chunk.WorldChunk;
 
 import net.fabricmc.fabric.api.lookup.v1.custom.ApiLookupMap;
 import net.fabricmc.fabric.api.lookup.v1.custom.ApiProviderMap;
 import net.fabricmc.fabric.api.lookup.v1.block.BlockApiLookup;
+import net.fabricmc.fabric.impl.lookup.custom.ApiProviderArrayMap;
 import net.fabricmc.fabric.mixin.lookup.BlockEntityTypeAccessor;
 
 public final class BlockApiLookupImpl<A, C> implements BlockApiLookup<A, C> {
 	private static final Logger LOGGER = LogManager.getLogger("fabric-api-lookup-api-v1/block");
+	private static final ApiProviderArrayMap.KeyIndices BLOCK_INDICES = new ApiProviderArrayMap.KeyIndices();
 	private static final ApiLookupMap<BlockApiLookup<?, ?>> LOOKUPS = ApiLookupMap.create(BlockApiLookupImpl::new);
 
 	@SuppressWarnings("unchecked")
@@ -48,7 +54,7 @@ public final class BlockApiLookupImpl<A, C> implements BlockApiLookup<A, C> {
 	}
 
 	private final Class<A> apiClass;
-	private final ApiProviderMap<Block, BlockApiProvider<A, C>> providerMap = ApiProviderMap.create();
+	private final ApiProviderMap<Block, BlockApiProvider<A, C>> providerMap = new ApiProviderArrayMap<>(BLOCK_INDICES);
 	private final List<BlockApiProvider<A, C>> fallbackProviders = new CopyOnWriteArrayList<>();
 
 	@SuppressWarnings("unchecked")
@@ -78,8 +84,41 @@ public final class BlockApiLookupImpl<A, C> implements BlockApiLookup<A, C> {
 			}
 		}
 
-		@Nullable
-		BlockApiProvider<A, C> provider = getProvider(state.getBlock());
+		return find(world, pos, state, blockEntity, context, getProvider(state.getBlock()));
+	}
+
+	@Override
+	public void findAll(World world, long[] positions, C context, A[] results) {
+		Objects.requireNonNull(world, "World may not be null.");
+		checkResultsLength(positions.length, results);
+		ChunkFetcher fetcher = new ChunkFetcher(world);
+
+		for (int i = 0; i < positions.length; i++) {
+			results[i] = fetcher.find(BlockPos.fromLong(positions[i]), context);
+		}
+	}
+
+	@Override
+	public void findNeighbors(World world, BlockPos pos, Direction[] directions, Function<Direction, C> contextGetter, A[] results) {
+		Objects.requireNonNull(world, "World may not be null.");
+		Objects.requireNonNull(pos, "BlockPos may not be null.");
+		Objects.requireNonNull(contextGetter, "Context getter may not be null.");
+		checkResultsLength(directions.length, results);
+		ChunkFetcher fetcher = new ChunkFetcher(world);
+
+		for (int i = 0; i < directions.length; i++) {
+			results[i] = fetcher.find(pos.offset(directions[i]), contextGetter.apply(directions[i]));
+		}
+	}
+
+	private static void checkResultsLength(int queryCount, Object[] results) {
+		if (results.length < queryCount) {
+			throw new IllegalArgumentException(String.format("Results array of length %d cannot hold the results of %d queries.", results.length, queryCount));
+		}
+	}
+
+	@Nullable
+	private A find(World world, BlockPos pos, BlockState state, @Nullable BlockEntity blockEntity, C context, @Nullable BlockApiProvider<A, C> provider) {
 		A instance = null;
 
 		if (provider != null) {
@@ -178,4 +217,41 @@ public final class BlockApiLookupImpl<A, C> implements BlockApiLookup<A, C> {
 	public List<BlockApiProvider<A, C>> getFallbackProviders() {
 		return fallbackProviders;
 	}
+
+	/**
+	 * Queries blocks like {@link World#getBlockState} does, but reuses the chunk of the previous query if it contained the position.
+	 */
+	private final class ChunkFetcher {
+		private final World world;
+		private WorldChunk chunk = null;
+		private int chunkX;
+		private int chunkZ;
+
+		ChunkFetcher(World world) {
+			this.world = world;
+		}
+
+		@Nullable
+		A find(BlockPos pos, C context) {
+			BlockState state;
+
+			if (World.isOutOfBuildLimitVertically(pos)) {
+				state = Blocks.VOID_AIR.getDefaultState();
+			} else {
+				int x = pos.getX() >> 4;
+				int z = pos.getZ() >> 4;
+
+				if (chunk == null || chunkX != x || chunkZ != z) {
+					chunk = world.getChunk(x, z);
+					chunkX = x;
+					chunkZ = z;
+				}
+
+				state = chunk.getBlockState(pos);
+			}
+
+			BlockEntity blockEntity = state.getBlock().hasBlockEntity() ? world.getBlockEntity(pos) : null;
+			return BlockApiLookupImpl.this.find(world, pos, state, blockEntity, context, getProvider(state.getBlock()));
+		}
+	}
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.lookup.custom;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.fabricmc.fabric.api.lookup.v1.custom.ApiProviderMap;
+
+/**
+ * A provider map whose keys store a dense index, shared by all the maps, at which their provider is found in the array of every map.
+ * Reading a provider is a field read and an array load, and registering a provider only copies the array when it must grow.
+ *
+ * <p>Indices are assigned the first time a key is used in any map, so they don't depend on raw ids and remain valid across registry remaps.
+ * Each type of key is indexed by its own {@link KeyIndices}, so that the arrays of the maps are only as large as the number of keys of their type.
+ *
+ * @param <K> The key type of the map, which must implement {@link ApiProviderKey}.
+ * @param <V> The value type of the map.
+ */
+public final class ApiProviderArrayMap<K, V> implements ApiProviderMap<K, V> {
+	private final KeyIndices keyIndices;
+	private volatile Object[] providers = new Object[0];
+
+	/**
+	 * @param keyIndices The indices of the keys of this map, which must be the same for all the maps of the same key type.
+	 */
+	public ApiProviderArrayMap(KeyIndices keyIndices) {
+		this.keyIndices = Objects.requireNonNull(keyIndices, "Key indices may not be null.");
+	}
+
+	@Nullable
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(K key) {
+		Objects.requireNonNull(key, "Key may not be null.");
+
+		int index = ((ApiProviderKey) key).fabric_getApiProviderIndex();
+		Object[] providers = this.providers;
+
+		if (index >= 0 && index < providers.length) {
+			return (V) providers[index];
+		} else {
+			return null;
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public synchronized V putIfAbsent(K key, V provider) {
+		Objects.requireNonNull(key, "Key may not be null.");
+		Objects.requireNonNull(provider, "Provider may not be null.");
+
+		int index = keyIndices.getOrAssignIndex((ApiProviderKey) key);
+		Object[] providers = this.providers;
+
+		if (index >= providers.length) {
+			providers = Arrays.copyOf(providers, Math.max(index + 1, 2 * providers.length));
+		}
+
+		V result = (V) providers[index];
+
+		if (result == null) {
+			// Writing a single reference is atomic, and the volatile write below publishes it to readers.
+			providers[index] = provider;
+		}
+
+		this.providers = providers;
+
+		return result;
+	}
+
+	/**
+	 * The counter assigning the indices of one type of key.
+	 */
+	public static final class KeyIndices {
+		private int nextIndex = 0;
+
+		synchronized int getOrAssignIndex(ApiProviderKey key) {
+			int index = key.fabric_getApiProviderIndex();
+
+			if (index < 0) {
+				index = nextIndex++;
+				// The index is stored in a volatile field, which publishes it to lookups running on other threads.
+				key.fabric_setApiProviderIndex(index);
+			}
+
+			return index;
+		}
+	}
+}
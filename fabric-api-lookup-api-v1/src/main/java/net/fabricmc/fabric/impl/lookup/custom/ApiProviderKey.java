@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.lookup.custom;
+
+/**
+ * Implemented by objects that can be the key of an {@link ApiProviderArrayMap}, to store their index in the arrays of the maps.
+ */
+public interface ApiProviderKey {
+	/**
+	 * @return The index of this key, or -1 if no index was assigned yet.
+	 */
+	int fabric_getApiProviderIndex();
+
+	/**
+	 * Set the index of this key. Implementations must store it in a volatile field, since lookups may read it from any thread.
+	 */
+	void fabric_setApiProviderIndex(int index);
+}
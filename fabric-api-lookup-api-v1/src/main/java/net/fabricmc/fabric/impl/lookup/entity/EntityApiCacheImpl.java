@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.lookup.entity;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.entity.Entity;
+
+import net.fabricmc.fabric.api.lookup.v1.entity.EntityApiCache;
+import net.fabricmc.fabric.api.lookup.v1.entity.EntityApiLookup;
+
+public final class EntityApiCacheImpl<A, C> implements EntityApiCache<A, C> {
+	private final EntityApiLookupImpl<A, C> lookup;
+	private final Entity entity;
+	/**
+	 * The type of an entity never changes, so the provider can be cached forever.
+	 */
+	@Nullable
+	private final EntityApiLookup.EntityApiProvider<A, C> cachedProvider;
+
+	public EntityApiCacheImpl(EntityApiLookupImpl<A, C> lookup, Entity entity) {
+		this.lookup = lookup;
+		this.entity = entity;
+		this.cachedProvider = lookup.getProvider(entity.getType());
+	}
+
+	@Nullable
+	@Override
+	public A find(C context) {
+		if (entity.removed) {
+			return null;
+		}
+
+		return lookup.find(entity, context, cachedProvider);
+	}
+
+	@Override
+	public Entity getEntity() {
+		return entity;
+	}
+}
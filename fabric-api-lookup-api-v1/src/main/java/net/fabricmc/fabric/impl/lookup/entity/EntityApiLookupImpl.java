@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.lookup.entity;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.registry.Registry;
+
+import net.fabricmc.fabric.api.lookup.v1.custom.ApiLookupMap;
+import net.fabricmc.fabric.api.lookup.v1.custom.ApiProviderMap;
+import net.fabricmc.fabric.api.lookup.v1.entity.EntityApiLookup;
+import net.fabricmc.fabric.impl.lookup.custom.ApiProviderArrayMap;
+
+public final class EntityApiLookupImpl<A, C> implements EntityApiLookup<A, C> {
+	private static final Logger LOGGER = LogManager.getLogger("fabric-api-lookup-api-v1/entity");
+	private static final ApiProviderArrayMap.KeyIndices ENTITY_TYPE_INDICES = new ApiProviderArrayMap.KeyIndices();
+	private static final ApiLookupMap<EntityApiLookup<?, ?>> LOOKUPS = ApiLookupMap.create(EntityApiLookupImpl::new);
+
+	@SuppressWarnings("unchecked")
+	public static <A, C> EntityApiLookup<A, C> get(Identifier lookupId, Class<A> apiClass, Class<C> contextClass) {
+		return (EntityApiLookup<A, C>) LOOKUPS.getLookup(lookupId, apiClass, contextClass);
+	}
+
+	private final Class<A> apiClass;
+	private final ApiProviderMap<EntityType<?>, EntityApiProvider<A, C>> providerMap = new ApiProviderArrayMap<>(ENTITY_TYPE_INDICES);
+	private final List<EntityApiProvider<A, C>> fallbackProviders = new CopyOnWriteArrayList<>();
+
+	@SuppressWarnings("unchecked")
+	private EntityApiLookupImpl(Class<?> apiClass, Class<?> contextClass) {
+		this.apiClass = (Class<A>) apiClass;
+	}
+
+	@Nullable
+	@Override
+	public A find(Entity entity, C context) {
+		Objects.requireNonNull(entity, "Entity may not be null.");
+
+		return find(entity, context, getProvider(entity.getType()));
+	}
+
+	@Nullable
+	A find(Entity entity, C context, @Nullable EntityApiProvider<A, C> provider) {
+		A instance = null;
+
+		if (provider != null) {
+			instance = provider.find(entity, context);
+		}
+
+		if (instance != null) {
+			return instance;
+		}
+
+		// Query the fallback providers
+		for (EntityApiProvider<A, C> fallbackProvider : fallbackProviders) {
+			instance = fallbackProvider.find(entity, context);
+
+			if (instance != null) {
+				return instance;
+			}
+		}
+
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public void registerSelf(EntityType<?>... entityTypes) {
+		// Entity types don't expose the class of their entities, so instances are checked when they are queried.
+		AtomicBoolean reported = new AtomicBoolean();
+
+		registerForTypes((entity, context) -> {
+			if (apiClass.isInstance(entity)) {
+				return (A) entity;
+			}
+
+			if (reported.compareAndSet(false, true)) {
+				LOGGER.error("Entity type {} was registered as self-implementing API class {}, but its entity class {} does not implement it.",
+						Registry.ENTITY_TYPE.getId(entity.getType()), apiClass.getCanonicalName(), entity.getClass().getCanonicalName());
+			}
+
+			return null;
+		}, entityTypes);
+	}
+
+	@Override
+	public void registerForTypes(EntityApiProvider<A, C> provider, EntityType<?>... entityTypes) {
+		Objects.requireNonNull(provider, "EntityApiProvider may not be null.");
+
+		if (entityTypes.length == 0) {
+			throw new IllegalArgumentException("Must register at least one EntityType instance with an EntityApiProvider.");
+		}
+
+		for (EntityType<?> entityType : entityTypes) {
+			Objects.requireNonNull(entityType, "Encountered null entity type while registering an entity API provider mapping.");
+
+			if (providerMap.putIfAbsent(entityType, provider) != null) {
+				LOGGER.warn("Encountered duplicate API provider registration for entity type: " + Registry.ENTITY_TYPE.getId(entityType));
+			}
+		}
+	}
+
+	@Override
+	public void registerFallback(EntityApiProvider<A, C> fallbackProvider) {
+		Objects.requireNonNull(fallbackProvider, "EntityApiProvider may not be null.");
+
+		fallbackProviders.add(fallbackProvider);
+	}
+
+	@Nullable
+	public EntityApiProvider<A, C> getProvider(EntityType<?> entityType) {
+		return providerMap.get(entityType);
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.lookup.item;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemConvertible;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.registry.Registry;
+
+import net.fabricmc.fabric.api.lookup.v1.custom.ApiLookupMap;
+import net.fabricmc.fabric.api.lookup.v1.custom.ApiProviderMap;
+import net.fabricmc.fabric.api.lookup.v1.item.ItemApiLookup;
+import net.fabricmc.fabric.impl.lookup.custom.ApiProviderArrayMap;
+
+public final class ItemApiLookupImpl<A, C> implements ItemApiLookup<A, C> {
+	private static final Logger LOGGER = LogManager.getLogger("fabric-api-lookup-api-v1/item");
+	private static final ApiProviderArrayMap.KeyIndices ITEM_INDICES = new ApiProviderArrayMap.KeyIndices();
+	private static final ApiLookupMap<ItemApiLookup<?, ?>> LOOKUPS = ApiLookupMap.create(ItemApiLookupImpl::new);
+
+	@SuppressWarnings("unchecked")
+	public static <A, C> ItemApiLookup<A, C> get(Identifier lookupId, Class<A> apiClass, Class<C> contextClass) {
+		return (ItemApiLookup<A, C>) LOOKUPS.getLookup(lookupId, apiClass, contextClass);
+	}
+
+	private final Class<A> apiClass;
+	private final ApiProviderMap<Item, ItemApiProvider<A, C>> providerMap = new ApiProviderArrayMap<>(ITEM_INDICES);
+	private final List<ItemApiProvider<A, C>> fallbackProviders = new CopyOnWriteArrayList<>();
+
+	@SuppressWarnings("unchecked")
+	private ItemApiLookupImpl(Class<?> apiClass, Class<?> contextClass) {
+		this.apiClass = (Class<A>) apiClass;
+	}
+
+	@Nullable
+	@Override
+	public A find(ItemStack itemStack, C context) {
+		Objects.requireNonNull(itemStack, "ItemStack may not be null.");
+
+		@Nullable
+		ItemApiProvider<A, C> provider = providerMap.get(itemStack.getItem());
+		A instance = null;
+
+		if (provider != null) {
+			instance = provider.find(itemStack, context);
+		}
+
+		if (instance != null) {
+			return instance;
+		}
+
+		// Query the fallback providers
+		for (ItemApiProvider<A, C> fallbackProvider : fallbackProviders) {
+			instance = fallbackProvider.find(itemStack, context);
+
+			if (instance != null) {
+				return instance;
+			}
+		}
+
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public void registerSelf(ItemConvertible... items) {
+		for (ItemConvertible itemConvertible : items) {
+			Objects.requireNonNull(itemConvertible, "Item may not be null.");
+			Item item = itemConvertible.asItem();
+
+			if (!apiClass.isAssignableFrom(item.getClass())) {
+				String errorMessage = String.format(
+						"Failed to register self-implementing items. API class %s is not assignable from item class %s.",
+						apiClass.getCanonicalName(),
+						item.getClass().getCanonicalName()
+				);
+				throw new IllegalArgumentException(errorMessage);
+			}
+		}
+
+		registerForItems((itemStack, context) -> (A) itemStack.getItem(), items);
+	}
+
+	@Override
+	public void registerForItems(ItemApiProvider<A, C> provider, ItemConvertible... items) {
+		Objects.requireNonNull(provider, "ItemApiProvider may not be null.");
+
+		if (items.length == 0) {
+			throw new IllegalArgumentException("Must register at least one ItemConvertible instance with an ItemApiProvider.");
+		}
+
+		for (ItemConvertible itemConvertible : items) {
+			Objects.requireNonNull(itemConvertible, "Encountered null item while registering an item API provider mapping.");
+			Item item = itemConvertible.asItem();
+
+			if (providerMap.putIfAbsent(item, provider) != null) {
+				LOGGER.warn("Encountered duplicate API provider registration for item: " + Registry.ITEM.getId(item));
+			}
+		}
+	}
+
+	@Override
+	public void registerFallback(ItemApiProvider<A, C> fallbackProvider) {
+		Objects.requireNonNull(fallbackProvider, "ItemApiProvider may not be null.");
+
+		fallbackProviders.add(fallbackProvider);
+	}
+}
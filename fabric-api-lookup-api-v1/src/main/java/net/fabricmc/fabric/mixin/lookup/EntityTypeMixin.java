@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.mixin.lookup;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+
+import net.minecraft.entity.EntityType;
+
+import net.fabricmc.fabric.impl.lookup.custom.ApiProviderKey;
+
+@Mixin(EntityType.class)
+abstract class EntityTypeMixin implements ApiProviderKey {
+	@Unique
+	private volatile int apiProviderIndex = -1;
+
+	@Override
+	public int fabric_getApiProviderIndex() {
+		return apiProviderIndex;
+	}
+
+	@Override
+	public void fabric_setApiProviderIndex(int index) {
+		apiProviderIndex = index;
+	}
+}
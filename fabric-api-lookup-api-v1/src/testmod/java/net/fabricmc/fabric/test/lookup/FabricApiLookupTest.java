@@ -16,21 +16,40 @@
 
 package net.fabricmc.fabric.test.lookup;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.jetbrains.annotations.NotNull;
 
+import net.minecraft.block.Blocks;
 import net.minecraft.block.Material;
+import net.minecraft.block.entity.BlockEntity;
 import net.minecraft.block.entity.BlockEntityType;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.passive.PigEntity;
+import net.minecraft.entity.vehicle.ChestMinecartEntity;
+import net.minecraft.inventory.Inventory;
 import net.minecraft.item.BlockItem;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemGroup;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.registry.Registry;
 
 import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.lookup.v1.block.BlockApiCache;
 import net.fabricmc.fabric.api.lookup.v1.block.BlockApiLookup;
+import net.fabricmc.fabric.api.lookup.v1.entity.EntityApiCache;
+import net.fabricmc.fabric.api.lookup.v1.entity.EntityApiLookup;
+import net.fabricmc.fabric.api.lookup.v1.item.ItemApiLookup;
 import net.fabricmc.fabric.api.object.builder.v1.block.FabricBlockSettings;
 import net.fabricmc.fabric.test.lookup.api.ItemApis;
+import net.fabricmc.fabric.test.lookup.api.ItemExtractable;
 import net.fabricmc.fabric.test.lookup.api.ItemInsertable;
 import net.fabricmc.fabric.test.lookup.compat.InventoryExtractableProvider;
 import net.fabricmc.fabric.test.lookup.compat.InventoryInsertableProvider;
@@ -47,6 +66,8 @@ public class FabricApiLookupTest implements ModInitializer {
 	public static final CobbleGenBlock COBBLE_GEN_BLOCK = new CobbleGenBlock(FabricBlockSettings.of(Material.METAL));
 	public static final BlockItem COBBLE_GEN_ITEM = new BlockItem(COBBLE_GEN_BLOCK, new Item.Settings().group(ItemGroup.MISC));
 	public static BlockEntityType<CobbleGenBlockEntity> COBBLE_GEN_BLOCK_ENTITY_TYPE;
+	// Inventory entity lookup - chest minecarts are inventories, pigs are self-registered by mistake to test the checks of registerSelf.
+	public static final EntityApiLookup<Inventory, Void> ENTITY_INVENTORY = EntityApiLookup.get(new Identifier(MOD_ID, "entity_inventory"), Inventory.class, Void.class);
 
 	@Override
 	public void onInitialize() {
@@ -66,9 +87,21 @@ public class FabricApiLookupTest implements ModInitializer {
 		ItemApis.INSERTABLE.registerForBlockEntities(insertableProvider, BlockEntityType.CHEST, BlockEntityType.DISPENSER, BlockEntityType.DROPPER, BlockEntityType.HOPPER);
 		ItemApis.EXTRACTABLE.registerForBlockEntities(extractableProvider, BlockEntityType.CHEST, BlockEntityType.DISPENSER, BlockEntityType.DROPPER, BlockEntityType.HOPPER);
 		ItemApis.EXTRACTABLE.registerSelf(COBBLE_GEN_BLOCK_ENTITY_TYPE);
+		ENTITY_INVENTORY.registerSelf(EntityType.CHEST_MINECART, EntityType.PIG);
 
 		testLookupRegistry();
 		testSelfRegistration();
+		testItemApiLookup();
+
+		// The queries in a world are checked in the overworld, high above the spawn where the chunks are always loaded.
+		ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+			ServerWorld world = server.getOverworld();
+			BlockPos pos = new BlockPos(world.getSpawnPos().getX(), 200, world.getSpawnPos().getZ());
+
+			testBlockApiCache(world, pos);
+			testBatchQueries(world, pos);
+			testEntityApiLookup(world, pos);
+		});
 	}
 
 	private static void testLookupRegistry() {
@@ -90,6 +123,146 @@ public class FabricApiLookupTest implements ModInitializer {
 		}, "The BlockApiLookup should have prevented self-registration of incompatible block entity types.");
 	}
 
+	private static void testItemApiLookup() {
+		ItemApiLookup<Item, Void> itemLookup = ItemApiLookup.get(new Identifier(MOD_ID, "item"), Item.class, Void.class);
+		itemLookup.registerSelf(Items.DIAMOND);
+
+		if (itemLookup.find(new ItemStack(Items.DIAMOND), null) != Items.DIAMOND) {
+			throw new AssertionError("The ItemApiLookup should have returned the self-registered item.");
+		}
+
+		if (itemLookup.find(new ItemStack(Items.STICK), null) != null) {
+			throw new AssertionError("The ItemApiLookup should not have returned an API for an unregistered item.");
+		}
+
+		ensureException(() -> {
+			ItemApiLookup.get(new Identifier(MOD_ID, "item_insertable"), ItemInsertable.class, Void.class).registerSelf(Items.DIAMOND);
+		}, "The ItemApiLookup should have prevented self-registration of incompatible items.");
+	}
+
+	private static void testBlockApiCache(ServerWorld world, BlockPos pos) {
+		BlockApiCache<ItemExtractable, @NotNull Direction> cache = BlockApiCache.create(ItemApis.EXTRACTABLE, world, pos);
+
+		world.setBlockState(pos, Blocks.AIR.getDefaultState());
+
+		if (cache.find(Direction.UP) != null) {
+			throw new AssertionError("The BlockApiCache should not have returned an API for air.");
+		}
+
+		// The cache now holds the air block state, it must notice the new block.
+		world.setBlockState(pos, COBBLE_GEN_BLOCK.getDefaultState());
+		BlockEntity cobbleGen = world.getBlockEntity(pos);
+
+		if (!(cobbleGen instanceof CobbleGenBlockEntity) || cache.find(Direction.UP) != cobbleGen) {
+			throw new AssertionError("The BlockApiCache should have returned the cobble gen placed after the previous query.");
+		}
+
+		// The block state doesn't change, but the cached block entity must not be returned once it is removed.
+		world.removeBlockEntity(pos);
+
+		if (cache.find(Direction.UP) == cobbleGen) {
+			throw new AssertionError("The BlockApiCache should not have returned a removed block entity.");
+		}
+
+		// The chest is not self-registered, so the provider must change too.
+		world.setBlockState(pos, Blocks.CHEST.getDefaultState());
+		ItemExtractable chest = cache.find(Direction.UP);
+
+		if (chest == null || chest instanceof CobbleGenBlockEntity) {
+			throw new AssertionError("The BlockApiCache should have returned the API of the chest placed after the previous query.");
+		}
+
+		world.setBlockState(pos, Blocks.AIR.getDefaultState());
+
+		if (cache.find(Direction.UP) != null) {
+			throw new AssertionError("The BlockApiCache should not have returned an API once the block was removed.");
+		}
+
+		cache.release();
+	}
+
+	private static void testBatchQueries(ServerWorld world, BlockPos pos) {
+		// Queries around the corner of a chunk, so that consecutive positions are in different chunks.
+		BlockPos corner = new BlockPos(pos.getX() >> 4 << 4, pos.getY(), pos.getZ() >> 4 << 4);
+		List<BlockPos> positions = new ArrayList<>();
+
+		for (int dz = -1; dz <= 1; dz++) {
+			for (int dx = -1; dx <= 1; dx++) {
+				positions.add(corner.add(dx, 0, dz));
+			}
+		}
+
+		// Back to the first chunk, then out of the build limit.
+		positions.add(corner.add(-1, 1, -1));
+		positions.add(corner.up());
+		positions.add(new BlockPos(corner.getX(), 256, corner.getZ()));
+
+		// Cobble gens in a cross and above the corner, the other positions are stone or air.
+		for (BlockPos position : positions) {
+			boolean cross = position.getX() == corner.getX() || position.getZ() == corner.getZ();
+			world.setBlockState(position, cross ? COBBLE_GEN_BLOCK.getDefaultState() : Blocks.STONE.getDefaultState());
+		}
+
+		long[] packedPositions = new long[positions.size()];
+		ItemExtractable[] results = new ItemExtractable[positions.size()];
+
+		for (int i = 0; i < positions.size(); i++) {
+			packedPositions[i] = positions.get(i).asLong();
+		}
+
+		ItemApis.EXTRACTABLE.findAll(world, packedPositions, Direction.UP, results);
+
+		if (!(results[positions.indexOf(corner)] instanceof CobbleGenBlockEntity)) {
+			throw new AssertionError("BlockApiLookup#findAll should have returned the cobble gen at the corner.");
+		}
+
+		for (int i = 0; i < positions.size(); i++) {
+			if (results[i] != ItemApis.EXTRACTABLE.find(world, positions.get(i), Direction.UP)) {
+				throw new AssertionError("BlockApiLookup#findAll should have returned the same API as BlockApiLookup#find at " + positions.get(i));
+			}
+		}
+
+		Direction[] directions = Direction.values();
+		results = new ItemExtractable[directions.length];
+		ItemApis.EXTRACTABLE.findNeighbors(world, corner, directions, Direction::getOpposite, results);
+
+		for (int i = 0; i < directions.length; i++) {
+			if (results[i] != ItemApis.EXTRACTABLE.find(world, corner.offset(directions[i]), directions[i].getOpposite())) {
+				throw new AssertionError("BlockApiLookup#findNeighbors should have returned the same API as BlockApiLookup#find in direction " + directions[i]);
+			}
+		}
+
+		for (BlockPos position : positions) {
+			world.setBlockState(position, Blocks.AIR.getDefaultState());
+		}
+	}
+
+	private static void testEntityApiLookup(ServerWorld world, BlockPos pos) {
+		PigEntity pig = EntityType.PIG.create(world);
+
+		// The mismatch is only reported in the log, queried twice since it is only logged the first time.
+		for (int i = 0; i < 2; i++) {
+			if (ENTITY_INVENTORY.find(pig, null) != null) {
+				throw new AssertionError("The EntityApiLookup should not have returned an API for a self-registered entity that doesn't implement it.");
+			}
+		}
+
+		ChestMinecartEntity minecart = EntityType.CHEST_MINECART.create(world);
+		minecart.refreshPositionAndAngles(pos, 0, 0);
+		world.spawnEntity(minecart);
+		EntityApiCache<Inventory, Void> cache = EntityApiCache.create(ENTITY_INVENTORY, minecart);
+
+		if (ENTITY_INVENTORY.find(minecart, null) != minecart || cache.find(null) != minecart) {
+			throw new AssertionError("The EntityApiLookup should have returned the self-registered minecart.");
+		}
+
+		minecart.remove();
+
+		if (cache.find(null) != null) {
+			throw new AssertionError("The EntityApiCache should not have returned an API once the entity was removed.");
+		}
+	}
+
 	private static void ensureException(Runnable runnable, String message) {
 		boolean failed = false;
 
@@ -35,7 +35,7 @@ import net.fabricmc.fabric.api.event.EventFactory;
  * <li>FAIL cancels further processing and does not send a packet to the server.</ul>
  */
 public interface UseBlockCallback {
-	Event<UseBlockCallback> EVENT = EventFactory.createArrayBacked(UseBlockCallback.class,
+	Event<UseBlockCallback> EVENT = EventFactory.createUnrolled(UseBlockCallback.class,
 			(listeners) -> (player, world, hand, hitResult) -> {
 				for (UseBlockCallback event : listeners) {
 					ActionResult result = event.interact(player, world, hand, hitResult);
@@ -31,8 +31,10 @@ public final class ServerChunkEvents {
 	 * Called when an chunk is loaded into a ServerWorld.
 	 *
 	 * <p>When this event is called, the chunk is already in the world.
+	 *
+	 * <p>Listeners that only observe loaded chunks may be {@linkplain Event#registerAsync registered asynchronously}.
 	 */
-	public static final Event<ServerChunkEvents.Load> CHUNK_LOAD = EventFactory.createArrayBacked(ServerChunkEvents.Load.class, callbacks -> (serverWorld, chunk) -> {
+	public static final Event<ServerChunkEvents.Load> CHUNK_LOAD = EventFactory.createAsyncCapable(ServerChunkEvents.Load.class, callbacks -> (serverWorld, chunk) -> {
 		if (EventFactory.isProfilingEnabled()) {
 			final Profiler profiler = serverWorld.getProfiler();
 			profiler.push("fabricServerChunkLoad");
@@ -33,8 +33,10 @@ public final class ServerEntityEvents {
 	 * <p>When this event is called, the entity is already in the world.
 	 *
 	 * <p>Note there is no corresponding unload event because entity unloads cannot be reliably tracked.
+	 *
+	 * <p>Listeners that only observe loaded entities may be {@linkplain Event#registerAsync registered asynchronously}.
 	 */
-	public static final Event<ServerEntityEvents.Load> ENTITY_LOAD = EventFactory.createArrayBacked(ServerEntityEvents.Load.class, callbacks -> (entity, world) -> {
+	public static final Event<ServerEntityEvents.Load> ENTITY_LOAD = EventFactory.createAsyncCapable(ServerEntityEvents.Load.class, callbacks -> (entity, world) -> {
 		if (EventFactory.isProfilingEnabled()) {
 			final Profiler profiler = world.getProfiler();
 			profiler.push("fabricServerEntityLoad");
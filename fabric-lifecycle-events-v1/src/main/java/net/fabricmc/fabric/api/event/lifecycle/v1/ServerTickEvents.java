@@ -30,67 +30,76 @@ public final class ServerTickEvents {
 	/**
 	 * Called at the start of the server tick.
 	 */
-	public static final Event<StartTick> START_SERVER_TICK = EventFactory.createArrayBacked(StartTick.class, callbacks -> server -> {
-		if (EventFactory.isProfilingEnabled()) {
-			final Profiler profiler = server.getProfiler();
-			profiler.push("fabricStartServerTick");
-
-			for (StartTick event : callbacks) {
-				profiler.push(EventFactory.getHandlerName(event));
-				event.onStartTick(server);
-				profiler.pop();
-			}
-
+	public static final Event<StartTick> START_SERVER_TICK = EventFactory.createUnrolled(StartTick.class, callbacks -> server -> {
+		for (StartTick event : callbacks) {
+			event.onStartTick(server);
+		}
+	}, invoker -> server -> {
+		final Profiler profiler = server.getProfiler();
+		profiler.push("fabricStartServerTick");
+		invoker.onStartTick(server);
+		profiler.pop();
+	}, callbacks -> server -> {
+		final Profiler profiler = server.getProfiler();
+		profiler.push("fabricStartServerTick");
+
+		for (StartTick event : callbacks) {
+			profiler.push(EventFactory.getHandlerName(event));
+			event.onStartTick(server);
 			profiler.pop();
-		} else {
-			for (StartTick event : callbacks) {
-				event.onStartTick(server);
-			}
 		}
+
+		profiler.pop();
 	});
 
 	/**
 	 * Called at the end of the server tick.
 	 */
-	public static final Event<EndTick> END_SERVER_TICK = EventFactory.createArrayBacked(EndTick.class, callbacks -> server -> {
-		if (EventFactory.isProfilingEnabled()) {
-			final Profiler profiler = server.getProfiler();
-			profiler.push("fabricEndServerTick");
-
-			for (EndTick event : callbacks) {
-				profiler.push(EventFactory.getHandlerName(event));
-				event.onEndTick(server);
-				profiler.pop();
-			}
-
+	public static final Event<EndTick> END_SERVER_TICK = EventFactory.createUnrolled(EndTick.class, callbacks -> server -> {
+		for (EndTick event : callbacks) {
+			event.onEndTick(server);
+		}
+	}, invoker -> server -> {
+		final Profiler profiler = server.getProfiler();
+		profiler.push("fabricEndServerTick");
+		invoker.onEndTick(server);
+		profiler.pop();
+	}, callbacks -> server -> {
+		final Profiler profiler = server.getProfiler();
+		profiler.push("fabricEndServerTick");
+
+		for (EndTick event : callbacks) {
+			profiler.push(EventFactory.getHandlerName(event));
+			event.onEndTick(server);
 			profiler.pop();
-		} else {
-			for (EndTick event : callbacks) {
-				event.onEndTick(server);
-			}
 		}
+
+		profiler.pop();
 	});
 
 	/**
 	 * Called at the start of a ServerWorld's tick.
 	 */
-	public static final Event<StartWorldTick> START_WORLD_TICK = EventFactory.createArrayBacked(StartWorldTick.class, callbacks -> world -> {
-		if (EventFactory.isProfilingEnabled()) {
-			final Profiler profiler = world.getProfiler();
-			profiler.push("fabricStartServerWorldTick_" + world.getRegistryKey().getValue());
-
-			for (StartWorldTick callback : callbacks) {
-				profiler.push(EventFactory.getHandlerName(callback));
-				callback.onStartTick(world);
-				profiler.pop();
-			}
-
+	public static final Event<StartWorldTick> START_WORLD_TICK = EventFactory.createUnrolled(StartWorldTick.class, callbacks -> world -> {
+		for (StartWorldTick callback : callbacks) {
+			callback.onStartTick(world);
+		}
+	}, invoker -> world -> {
+		final Profiler profiler = world.getProfiler();
+		profiler.push("fabricStartServerWorldTick_" + world.getRegistryKey().getValue());
+		invoker.onStartTick(world);
+		profiler.pop();
+	}, callbacks -> world -> {
+		final Profiler profiler = world.getProfiler();
+		profiler.push("fabricStartServerWorldTick_" + world.getRegistryKey().getValue());
+
+		for (StartWorldTick callback : callbacks) {
+			profiler.push(EventFactory.getHandlerName(callback));
+			callback.onStartTick(world);
 			profiler.pop();
-		} else {
-			for (StartWorldTick callback : callbacks) {
-				callback.onStartTick(world);
-			}
 		}
+
+		profiler.pop();
 	});
 
 	/**
@@ -98,23 +107,26 @@ public final class ServerTickEvents {
 	 *
 	 * <p>End of world tick may be used to start async computations for the next tick.
 	 */
-	public static final Event<EndWorldTick> END_WORLD_TICK = EventFactory.createArrayBacked(EndWorldTick.class, callbacks -> world -> {
-		if (EventFactory.isProfilingEnabled()) {
-			final Profiler profiler = world.getProfiler();
-			profiler.push("fabricEndServerWorldTick_" + world.getRegistryKey().getValue());
-
-			for (EndWorldTick callback : callbacks) {
-				profiler.push(EventFactory.getHandlerName(callback));
-				callback.onEndTick(world);
-				profiler.pop();
-			}
-
+	public static final Event<EndWorldTick> END_WORLD_TICK = EventFactory.createUnrolled(EndWorldTick.class, callbacks -> world -> {
+		for (EndWorldTick callback : callbacks) {
+			callback.onEndTick(world);
+		}
+	}, invoker -> world -> {
+		final Profiler profiler = world.getProfiler();
+		profiler.push("fabricEndServerWorldTick_" + world.getRegistryKey().getValue());
+		invoker.onEndTick(world);
+		profiler.pop();
+	}, callbacks -> world -> {
+		final Profiler profiler = world.getProfiler();
+		profiler.push("fabricEndServerWorldTick_" + world.getRegistryKey().getValue());
+
+		for (EndWorldTick callback : callbacks) {
+			profiler.push(EventFactory.getHandlerName(callback));
+			callback.onEndTick(world);
 			profiler.pop();
-		} else {
-			for (EndWorldTick callback : callbacks) {
-				callback.onEndTick(world);
-			}
 		}
+
+		profiler.pop();
 	});
 
 	@FunctionalInterface
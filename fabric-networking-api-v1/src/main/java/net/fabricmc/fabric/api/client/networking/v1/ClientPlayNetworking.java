@@ -221,7 +221,8 @@ public final class ClientPlayNetworking {
 	public static void send(Identifier channelName, PacketByteBuf buf) throws IllegalStateException {
 		// You cant send without a client player, so this is fine
 		if (MinecraftClient.getInstance().getNetworkHandler() != null) {
-			MinecraftClient.getInstance().getNetworkHandler().sendPacket(createC2SPacket(channelName, buf));
+			ClientPlayNetworkHandler handler = MinecraftClient.getInstance().getNetworkHandler();
+			handler.sendPacket(ClientNetworkingImpl.getAddon(handler).createPacket(channelName, buf));
 			return;
 		}
 
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.api.networking.v1;
+
+import java.util.Map;
+import java.util.Objects;
+
+import net.minecraft.server.network.ServerPlayNetworkHandler;
+import net.minecraft.util.Identifier;
+
+import net.fabricmc.fabric.impl.networking.ChannelTraffic;
+import net.fabricmc.fabric.impl.networking.server.ServerNetworkingImpl;
+
+/**
+ * Traffic statistics of the play channels, to find out which channels use the most bandwidth.
+ *
+ * <p>The packets of every channel received and sent through this API are counted, both per connection and in total.
+ * Sizes are those of the payloads, before {@linkplain PayloadCompression compression} and without the packet headers.
+ * Payloads sent with {@link PacketSender#createPacket(Identifier, net.minecraft.network.PacketByteBuf)} are counted when the packet is created.
+ *
+ * @see ServerPlayNetworking#setRateLimit(Identifier, double, int, ServerPlayNetworking.RateLimitAction)
+ */
+public final class NetworkTraffic {
+	/**
+	 * Gets the statistics of all channels, summed over all connections since the start of the game.
+	 *
+	 * <p>The returned map is an unmodifiable live view, whose statistics keep changing.
+	 *
+	 * @return the statistics of every channel that had traffic
+	 */
+	public static Map<Identifier, ChannelStatistics> getTotal() {
+		return ChannelTraffic.getTotal();
+	}
+
+	/**
+	 * Gets the statistics of all channels of the connection to a player.
+	 *
+	 * <p>The returned map is an unmodifiable live view, whose statistics keep changing.
+	 *
+	 * @param handler the network handler of the player
+	 * @return the statistics of every channel that had traffic on the connection
+	 */
+	public static Map<Identifier, ChannelStatistics> get(ServerPlayNetworkHandler handler) {
+		Objects.requireNonNull(handler, "Server play network handler cannot be null");
+
+		return ServerNetworkingImpl.getAddon(handler).getTraffic();
+	}
+
+	private NetworkTraffic() {
+	}
+
+	/**
+	 * The traffic counters of a channel.
+	 */
+	public interface ChannelStatistics {
+		/**
+		 * @return the number of packets received
+		 */
+		long getPacketsReceived();
+
+		/**
+		 * @return the size of the payloads received
+		 */
+		long getBytesReceived();
+
+		/**
+		 * @return the number of packets sent
+		 */
+		long getPacketsSent();
+
+		/**
+		 * @return the size of the payloads sent
+		 */
+		long getBytesSent();
+
+		/**
+		 * @return the number of received packets which were dropped by the rate limit of the channel
+		 */
+		long getPacketsDropped();
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.api.networking.v1;
+
+import java.util.Objects;
+
+import net.minecraft.util.Identifier;
+
+import net.fabricmc.fabric.impl.networking.PayloadCompressionImpl;
+
+/**
+ * Opt-in compression of the play packets of a channel with a pre-shared dictionary.
+ *
+ * <p>Vanilla compresses every packet on its own, so the payloads of a channel sending a lot of similar data, such as map or machine state updates,
+ * compress poorly since the compressor has to learn their structure again in every packet. Instead, a channel may be given a dictionary
+ * containing byte sequences that are common in its payloads, which the payloads are compressed against.
+ *
+ * <p>The dictionary must be registered with the same content on both sides, usually in a mod initializer.
+ * Both sides declare their dictionaries when they register their channels, and a payload is only sent compressed
+ * if the other side declared the same dictionary for the channel and if compressing it makes it smaller.
+ * Compression is transparent for the channel handlers.
+ *
+ * <p>Decompressed payloads are limited to the same size as payloads sent uncompressed:
+ * 32767 bytes when sent by the client, and 1 MiB when sent by the server. Larger compressed payloads are ignored.
+ */
+public final class PayloadCompression {
+	/**
+	 * Registers the compression dictionary of a channel.
+	 *
+	 * <p>Dictionaries should be registered before connections are established, as they are only declared to the other side once per connection.
+	 *
+	 * @param channelName the channel name
+	 * @param dictionary the dictionary, at most 32 KiB of the byte sequences most likely to appear in payloads, most frequent last
+	 * @throws IllegalArgumentException if the channel already has a dictionary
+	 */
+	public static void registerDictionary(Identifier channelName, byte[] dictionary) {
+		Objects.requireNonNull(channelName, "Channel name cannot be null");
+		Objects.requireNonNull(dictionary, "Dictionary cannot be null");
+
+		PayloadCompressionImpl.registerDictionary(channelName, dictionary);
+	}
+
+	/**
+	 * Gets the compression statistics of a channel, summed over all connections since the start of the game.
+	 *
+	 * @param channelName the channel name
+	 * @return the compression statistics of the channel, with all counters at zero if it has no dictionary
+	 */
+	public static Statistics getStatistics(Identifier channelName) {
+		Objects.requireNonNull(channelName, "Channel name cannot be null");
+
+		return PayloadCompressionImpl.getStatistics(channelName);
+	}
+
+	private PayloadCompression() {
+	}
+
+	/**
+	 * A snapshot of the byte counters of the payloads of a channel which were sent compressed.
+	 */
+	public interface Statistics {
+		/**
+		 * @return the number of payloads sent compressed
+		 */
+		long getCompressedPayloads();
+
+		/**
+		 * @return the size of the payloads sent compressed, before compression
+		 */
+		long getRawBytes();
+
+		/**
+		 * @return the size of the payloads sent compressed, after compression
+		 */
+		long getCompressedBytes();
+	}
+}
@@ -16,10 +16,12 @@
 
 package net.fabricmc.fabric.api.networking.v1;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 import net.minecraft.block.entity.BlockEntity;
 import net.minecraft.entity.Entity;
@@ -42,6 +44,12 @@ import net.fabricmc.fabric.impl.networking.ThreadedAnvilChunkStorageTrackingExte
  * <p>The word "tracking" means that an entity/chunk on the server is known to a player's client (within in view distance) and the (block) entity should notify tracking clients of changes.
  *
  * <p>These methods should only be called on the server thread and only be used on logical a server.
+ *
+ * <p>The {@code forEach} variants of the methods call an action for every player instead of collecting the players,
+ * which avoids allocating a collection when they are called many times per tick, for example to send particles or sounds.
+ * Players are looked up in an index of the players of each world by chunk, so that only players near the position are considered.
+ * The action may move players, or add players to the world and remove players from it:
+ * the index is only updated once all players were visited, so players are visited where they were before the action ran.
  */
 public final class PlayerLookup {
 	/**
@@ -86,10 +94,24 @@ public final class PlayerLookup {
 	 * @return the players tracking the chunk
 	 */
 	public static Collection<ServerPlayerEntity> tracking(ServerWorld world, ChunkPos pos) {
+		List<ServerPlayerEntity> players = new ArrayList<>();
+		forEachTracking(world, pos, players::add);
+		return players;
+	}
+
+	/**
+	 * Calls an action for all players tracking a chunk in a server world.
+	 *
+	 * @param world  the server world
+	 * @param pos    the chunk in question
+	 * @param action the action to call for every player tracking the chunk
+	 */
+	public static void forEachTracking(ServerWorld world, ChunkPos pos, Consumer<ServerPlayerEntity> action) {
 		Objects.requireNonNull(world, "The world cannot be null");
 		Objects.requireNonNull(pos, "The chunk pos cannot be null");
+		Objects.requireNonNull(action, "The action cannot be null");
 
-		return world.getChunkManager().threadedAnvilChunkStorage.getPlayersWatchingChunk(pos, false).collect(Collectors.toList());
+		getStorage(world).fabric_forEachTrackingPlayer(pos, action);
 	}
 
 	/**
@@ -119,6 +141,30 @@ public final class PlayerLookup {
 		throw new IllegalArgumentException("Only supported on server worlds!");
 	}
 
+	/**
+	 * Calls an action for all players tracking an entity in a server world.
+	 *
+	 * <p><b>Warning</b>: If the provided entity is a player, it is not
+	 * guaranteed by the contract that said player is included.
+	 *
+	 * @param entity the entity being tracked
+	 * @param action the action to call for every player tracking the entity
+	 * @throws IllegalArgumentException if the entity is not in a server world
+	 */
+	public static void forEachTracking(Entity entity, Consumer<ServerPlayerEntity> action) {
+		Objects.requireNonNull(entity, "Entity cannot be null");
+		Objects.requireNonNull(action, "The action cannot be null");
+		ChunkManager manager = entity.world.getChunkManager();
+
+		if (manager instanceof ServerChunkManager) {
+			ThreadedAnvilChunkStorage storage = ((ServerChunkManager) manager).threadedAnvilChunkStorage;
+			((ThreadedAnvilChunkStorageTrackingExtensions) storage).fabric_getTrackingPlayers(entity).forEach(action);
+			return;
+		}
+
+		throw new IllegalArgumentException("Only supported on server worlds!");
+	}
+
 	/**
 	 * Gets all players tracking a block entity in a server world.
 	 *
@@ -137,6 +183,24 @@ public final class PlayerLookup {
 		return tracking((ServerWorld) blockEntity.getWorld(), blockEntity.getPos());
 	}
 
+	/**
+	 * Calls an action for all players tracking a block entity in a server world.
+	 *
+	 * @param blockEntity the block entity
+	 * @param action      the action to call for every player tracking the block entity
+	 * @throws IllegalArgumentException if the block entity is not in a server world
+	 */
+	public static void forEachTracking(BlockEntity blockEntity, Consumer<ServerPlayerEntity> action) {
+		Objects.requireNonNull(blockEntity, "BlockEntity cannot be null");
+
+		//noinspection ConstantConditions - IJ intrinsics don't know hasWorld == true will result in no null
+		if (!blockEntity.hasWorld() || blockEntity.getWorld().isClient()) {
+			throw new IllegalArgumentException("Only supported on server worlds!");
+		}
+
+		forEachTracking((ServerWorld) blockEntity.getWorld(), blockEntity.getPos(), action);
+	}
+
 	/**
 	 * Gets all players tracking a block position in a server world.
 	 *
@@ -150,6 +214,19 @@ public final class PlayerLookup {
 		return tracking(world, new ChunkPos(pos));
 	}
 
+	/**
+	 * Calls an action for all players tracking a block position in a server world.
+	 *
+	 * @param world  the server world
+	 * @param pos    the block position
+	 * @param action the action to call for every player tracking the block position
+	 */
+	public static void forEachTracking(ServerWorld world, BlockPos pos, Consumer<ServerPlayerEntity> action) {
+		Objects.requireNonNull(pos, "BlockPos cannot be null");
+
+		forEachTracking(world, new ChunkPos(pos), action);
+	}
+
 	/**
 	 * Gets all players around a position in a world.
 	 *
@@ -161,12 +238,27 @@ public final class PlayerLookup {
 	 * @return the players around the position
 	 */
 	public static Collection<ServerPlayerEntity> around(ServerWorld world, Vec3d pos, double radius) {
-		double radiusSq = radius * radius;
+		List<ServerPlayerEntity> players = new ArrayList<>();
+		forEachAround(world, pos, radius, players::add);
+		return players;
+	}
 
-		return world(world)
-				.stream()
-				.filter((p) -> p.squaredDistanceTo(pos) <= radiusSq)
-				.collect(Collectors.toList());
+	/**
+	 * Calls an action for all players around a position in a world.
+	 *
+	 * <p>The distance check is done in the three-dimensional space instead of in the horizontal plane.
+	 *
+	 * @param world  the world
+	 * @param pos    the position
+	 * @param radius the maximum distance from the position in blocks
+	 * @param action the action to call for every player around the position
+	 */
+	public static void forEachAround(ServerWorld world, Vec3d pos, double radius, Consumer<ServerPlayerEntity> action) {
+		Objects.requireNonNull(world, "The world cannot be null");
+		Objects.requireNonNull(pos, "The position cannot be null");
+		Objects.requireNonNull(action, "The action cannot be null");
+
+		getStorage(world).fabric_forEachPlayerAround(pos.x, pos.y, pos.z, radius, action);
 	}
 
 	/**
@@ -180,12 +272,31 @@ public final class PlayerLookup {
 	 * @return the players around the position
 	 */
 	public static Collection<ServerPlayerEntity> around(ServerWorld world, Vec3i pos, double radius) {
-		double radiusSq = radius * radius;
+		List<ServerPlayerEntity> players = new ArrayList<>();
+		forEachAround(world, pos, radius, players::add);
+		return players;
+	}
+
+	/**
+	 * Calls an action for all players around a position in a world.
+	 *
+	 * <p>The distance check is done in the three-dimensional space instead of in the horizontal plane.
+	 *
+	 * @param world  the world
+	 * @param pos    the position (can be a block pos)
+	 * @param radius the maximum distance from the position in blocks
+	 * @param action the action to call for every player around the position
+	 */
+	public static void forEachAround(ServerWorld world, Vec3i pos, double radius, Consumer<ServerPlayerEntity> action) {
+		Objects.requireNonNull(world, "The world cannot be null");
+		Objects.requireNonNull(pos, "The position cannot be null");
+		Objects.requireNonNull(action, "The action cannot be null");
+
+		getStorage(world).fabric_forEachPlayerAround(pos.getX(), pos.getY(), pos.getZ(), radius, action);
+	}
 
-		return world(world)
-				.stream()
-				.filter((p) -> p.squaredDistanceTo(pos.getX(), pos.getY(), pos.getZ()) <= radiusSq)
-				.collect(Collectors.toList());
+	private static ThreadedAnvilChunkStorageTrackingExtensions getStorage(ServerWorld world) {
+		return (ThreadedAnvilChunkStorageTrackingExtensions) world.getChunkManager().threadedAnvilChunkStorage;
 	}
 
 	private PlayerLookup() {
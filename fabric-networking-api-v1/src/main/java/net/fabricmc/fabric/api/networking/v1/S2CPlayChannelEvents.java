@@ -32,8 +32,10 @@ public final class S2CPlayChannelEvents {
 	/**
 	 * An event for the server play network handler receiving an update indicating the connected client's ability to receive packets in certain channels.
 	 * This event may be invoked at any time after login and up to disconnection.
+	 *
+	 * <p>Listeners that only observe channel registrations may be {@linkplain Event#registerAsync registered asynchronously}.
 	 */
-	public static final Event<Register> REGISTER = EventFactory.createArrayBacked(Register.class, callbacks -> (handler, sender, server, channels) -> {
+	public static final Event<Register> REGISTER = EventFactory.createAsyncCapable(Register.class, callbacks -> (handler, sender, server, channels) -> {
 		for (Register callback : callbacks) {
 			callback.onChannelRegister(handler, sender, server, channels);
 		}
@@ -42,8 +44,10 @@ public final class S2CPlayChannelEvents {
 	/**
 	 * An event for the server play network handler receiving an update indicating the connected client's lack of ability to receive packets in certain channels.
 	 * This event may be invoked at any time after login and up to disconnection.
+	 *
+	 * <p>Listeners that only observe channel unregistrations may be {@linkplain Event#registerAsync registered asynchronously}.
 	 */
-	public static final Event<Unregister> UNREGISTER = EventFactory.createArrayBacked(Unregister.class, callbacks -> (handler, sender, server, channels) -> {
+	public static final Event<Unregister> UNREGISTER = EventFactory.createAsyncCapable(Unregister.class, callbacks -> (handler, sender, server, channels) -> {
 		for (Unregister callback : callbacks) {
 			callback.onChannelUnregister(handler, sender, server, channels);
 		}
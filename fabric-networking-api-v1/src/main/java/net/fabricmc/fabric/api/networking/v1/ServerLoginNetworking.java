@@ -28,6 +28,8 @@ import net.minecraft.server.network.ServerLoginNetworkHandler;
 import net.minecraft.util.Identifier;
 
 import net.fabricmc.fabric.api.client.networking.v1.ClientLoginNetworking;
+import net.fabricmc.fabric.impl.networking.server.LoginLatencyImpl;
+import net.fabricmc.fabric.impl.networking.server.LoginTaskExecutor;
 import net.fabricmc.fabric.impl.networking.server.ServerNetworkingImpl;
 import net.fabricmc.fabric.mixin.networking.accessor.ServerLoginNetworkHandlerAccessor;
 
@@ -128,6 +130,15 @@ public final class ServerLoginNetworking {
 		return ((ServerLoginNetworkHandlerAccessor) handler).getServer();
 	}
 
+	/**
+	 * Returns the duration of the phases of every login that completed on this server, aggregated since the game started.
+	 *
+	 * @return the login latency
+	 */
+	public static LoginLatency getLoginLatency() {
+		return LoginLatencyImpl.INSTANCE;
+	}
+
 	private ServerLoginNetworking() {
 	}
 
@@ -194,5 +205,69 @@ public final class ServerLoginNetworking {
 		 * @param future the future that must be done before the player can log in
 		 */
 		void waitFor(Future<?> future);
+
+		/**
+		 * Runs a task on a bounded pool of login worker threads, and blocks client log-in until it completes.
+		 *
+		 * <p>This should be preferred over running expensive login-time work, such as hashing or validating data sent by the client,
+		 * directly in a query response handler, since that would block the netty event loop shared with other connections.
+		 * Tasks of different connections run in parallel; tasks which are still pending when the connection is closed
+		 * or times out are {@linkplain Future#cancel(boolean) cancelled}.
+		 *
+		 * <p>If too many tasks are queued, the task is not run and its future fails with a
+		 * {@link java.util.concurrent.RejectedExecutionException}. The login is then aborted and the player is disconnected
+		 * with a "server busy" message, so that a player is never let in without the task having run.
+		 *
+		 * @param task the task to run
+		 * @return the future of the task, which is already being waited for
+		 */
+		default Future<?> submit(Runnable task) {
+			Objects.requireNonNull(task, "Task cannot be null");
+
+			Future<?> future = LoginTaskExecutor.submit(task);
+			this.waitFor(future);
+			return future;
+		}
+	}
+
+	/**
+	 * The phases of the login of a player, in order.
+	 */
+	public enum LoginPhase {
+		/**
+		 * From the connection entering the login stage to the start of the queries, including the authentication of the player.
+		 */
+		AUTHENTICATION,
+		/**
+		 * From the start of the queries to the last query response.
+		 */
+		QUERIES,
+		/**
+		 * From the last query response to the completion of the last future that log-in was waiting for.
+		 */
+		SYNCHRONIZATION
+	}
+
+	/**
+	 * Aggregated duration of the phases of the logins that completed.
+	 * Logins that were disconnected before completion are not included.
+	 */
+	public interface LoginLatency {
+		/**
+		 * @return the number of logins that completed
+		 */
+		long getLogins();
+
+		/**
+		 * @param phase the phase
+		 * @return the average duration of the phase, in nanoseconds
+		 */
+		long getAverageNanos(LoginPhase phase);
+
+		/**
+		 * @param phase the phase
+		 * @return the longest duration of the phase, in nanoseconds
+		 */
+		long getMaxNanos(LoginPhase phase);
 	}
 }
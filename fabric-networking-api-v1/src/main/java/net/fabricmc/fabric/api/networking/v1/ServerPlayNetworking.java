@@ -16,6 +16,7 @@
 
 package net.fabricmc.fabric.api.networking.v1;
 
+import java.util.Collection;
 import java.util.Objects;
 import java.util.Set;
 
@@ -29,7 +30,10 @@ import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.util.Identifier;
 
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.fabricmc.fabric.impl.networking.server.ChannelRateLimit;
 import net.fabricmc.fabric.impl.networking.server.ServerNetworkingImpl;
+import net.fabricmc.fabric.impl.networking.server.ServerPlayNetworkAddon;
+import net.fabricmc.fabric.impl.networking.server.TypedPlayChannelHandler;
 
 /**
  * Offers access to play stage server-side networking functionalities.
@@ -59,6 +63,31 @@ public final class ServerPlayNetworking {
 		return ServerNetworkingImpl.PLAY.registerGlobalReceiver(channelName, channelHandler);
 	}
 
+	/**
+	 * Registers a typed handler to a channel.
+	 * A global receiver is registered to all connections, in the present and future.
+	 *
+	 * <p>Unlike a {@link PlayChannelHandler}, the payload of every packet is decoded on {@linkplain io.netty.channel.EventLoop netty's event loops},
+	 * and the decoded payload is handled on the server thread. The payloads received by a connection are queued and handled together
+	 * when the connection is ticked, once per server tick, in the order they were received, without scheduling a task for every packet.
+	 * Payloads handled this way may be handled after packets of other channels that were received later.
+	 *
+	 * <p>If a handler is already registered to the {@code channel}, this method will return {@code false}, and no change will be made.
+	 *
+	 * @param channelName the id of the channel
+	 * @param decoder the decoder of the payloads, called on netty's event loops
+	 * @param payloadHandler the handler of the decoded payloads, called on the server thread
+	 * @param <T> the type of the payloads
+	 * @return false if a handler is already registered to the channel
+	 * @see ServerPlayNetworking#unregisterGlobalReceiver(Identifier)
+	 */
+	public static <T> boolean registerGlobalReceiver(Identifier channelName, PayloadDecoder<T> decoder, PlayPayloadHandler<T> payloadHandler) {
+		Objects.requireNonNull(decoder, "Payload decoder cannot be null");
+		Objects.requireNonNull(payloadHandler, "Payload handler cannot be null");
+
+		return ServerNetworkingImpl.PLAY.registerGlobalReceiver(channelName, new TypedPlayChannelHandler<>(decoder, payloadHandler));
+	}
+
 	/**
 	 * Removes the handler of a channel.
 	 * A global receiver is registered to all connections, in the present and future.
@@ -108,6 +137,29 @@ public final class ServerPlayNetworking {
 		return ServerNetworkingImpl.getAddon(networkHandler).registerChannel(channelName, channelHandler);
 	}
 
+	/**
+	 * Registers a typed handler to a channel.
+	 * This method differs from {@link ServerPlayNetworking#registerGlobalReceiver(Identifier, PayloadDecoder, PlayPayloadHandler)} since
+	 * the channel handler will only be applied to the player represented by the {@link ServerPlayNetworkHandler}.
+	 *
+	 * <p>If a handler is already registered to the {@code channelName}, this method will return {@code false}, and no change will be made.
+	 *
+	 * @param networkHandler the handler
+	 * @param channelName the id of the channel
+	 * @param decoder the decoder of the payloads, called on netty's event loops
+	 * @param payloadHandler the handler of the decoded payloads, called on the server thread
+	 * @param <T> the type of the payloads
+	 * @return false if a handler is already registered to the channel name
+	 * @see ServerPlayNetworking#registerGlobalReceiver(Identifier, PayloadDecoder, PlayPayloadHandler)
+	 */
+	public static <T> boolean registerReceiver(ServerPlayNetworkHandler networkHandler, Identifier channelName, PayloadDecoder<T> decoder, PlayPayloadHandler<T> payloadHandler) {
+		Objects.requireNonNull(networkHandler, "Network handler cannot be null");
+		Objects.requireNonNull(decoder, "Payload decoder cannot be null");
+		Objects.requireNonNull(payloadHandler, "Payload handler cannot be null");
+
+		return ServerNetworkingImpl.getAddon(networkHandler).registerChannel(channelName, new TypedPlayChannelHandler<>(decoder, payloadHandler));
+	}
+
 	/**
 	 * Removes the handler of a channel.
 	 *
@@ -248,7 +300,97 @@ public final class ServerPlayNetworking {
 		Objects.requireNonNull(channelName, "Channel name cannot be null");
 		Objects.requireNonNull(buf, "Packet byte buf cannot be null");
 
-		player.networkHandler.sendPacket(createS2CPacket(channelName, buf));
+		ServerPlayNetworkAddon addon = ServerNetworkingImpl.getAddon(player.networkHandler);
+
+		if (ServerNetworkingImpl.BUNDLED_CHANNELS.contains(channelName)) {
+			addon.sendPacket(channelName, buf);
+		} else {
+			player.networkHandler.sendPacket(addon.createPacket(channelName, buf));
+		}
+	}
+
+	/**
+	 * Enables bundling of the packets sent on a channel.
+	 *
+	 * <p>Packets sent on a bundled channel through {@link #send(ServerPlayerEntity, Identifier, PacketByteBuf)} or a {@link PacketSender}
+	 * are not sent right away, but queued per connection and sent as a single packet when the connection is ticked,
+	 * once per server tick, which greatly reduces the overhead of sending many small packets.
+	 * Packets are only bundled if the client declared that it can receive bundles, which clients with this module do.
+	 *
+	 * <p>Bundled packets keep their order relative to each other, but they may arrive after packets sent later on channels that are not bundled.
+	 * Packets of a bundled channel that can't be bundled, such as large payloads or packets made with {@link PacketSender#createPacket},
+	 * first send the pending bundle, so that the packets of a channel always arrive in order.
+	 * Payloads larger than 32767 bytes are never bundled.
+	 *
+	 * @param channelName the id of the channel
+	 */
+	public static void enableBundling(Identifier channelName) {
+		Objects.requireNonNull(channelName, "Channel name cannot be null");
+
+		ServerNetworkingImpl.BUNDLED_CHANNELS.add(channelName);
+	}
+
+	/**
+	 * Limits the rate of the packets received on a channel, separately for every connection.
+	 *
+	 * <p>Every connection may receive up to {@code burst} packets on the channel at once, and then {@code packetsPerSecond} packets per second on average.
+	 * Packets over the limit are either dropped, or deferred until the connection is within the limit again:
+	 * deferred packets are handled on the server thread when the connection is ticked, and later packets of the channel are deferred too in order to keep their order.
+	 * At most {@code burst} packets are deferred, further packets are dropped.
+	 * {@linkplain PayloadCompression Compressed} packets are checked against the limit before they are decompressed.
+	 *
+	 * <p>Dropped packets are counted in the {@linkplain NetworkTraffic traffic statistics} of the channel.
+	 * Replaces the previous rate limit of the channel, if any.
+	 *
+	 * @param channelName the channel name
+	 * @param packetsPerSecond the average number of packets per second allowed for each connection
+	 * @param burst the number of packets allowed at once for each connection
+	 * @param action what to do with the packets over the limit
+	 * @throws IllegalArgumentException if the rate or the burst is not positive
+	 */
+	public static void setRateLimit(Identifier channelName, double packetsPerSecond, int burst, RateLimitAction action) {
+		Objects.requireNonNull(channelName, "Channel name cannot be null");
+		Objects.requireNonNull(action, "Rate limit action cannot be null");
+
+		if (!(packetsPerSecond > 0) || burst <= 0) {
+			throw new IllegalArgumentException(String.format("Invalid rate limit of %s packets per second with a burst of %d packets", packetsPerSecond, burst));
+		}
+
+		ServerNetworkingImpl.RATE_LIMITS.put(channelName, new ChannelRateLimit(packetsPerSecond, burst, action));
+	}
+
+	/**
+	 * Removes the rate limit of the packets received on a channel.
+	 * Deferred packets are handled on the next tick.
+	 *
+	 * @param channelName the channel name
+	 */
+	public static void removeRateLimit(Identifier channelName) {
+		Objects.requireNonNull(channelName, "Channel name cannot be null");
+
+		ServerNetworkingImpl.RATE_LIMITS.remove(channelName);
+	}
+
+	/**
+	 * Sends a packet to every player of a collection that can receive packets on its channel.
+	 *
+	 * <p>Unlike calling {@link #send(ServerPlayerEntity, Identifier, PacketByteBuf)} for every player,
+	 * the packet is only created and serialized once, and the serialized bytes are shared by all the connections.
+	 * This is meant to be used with the collections returned by {@link PlayerLookup}.
+	 *
+	 * <p>This method should only be called on the server thread.
+	 *
+	 * @param players the players to send the packet to
+	 * @param channelName the channel of the packet
+	 * @param buf the payload of the packet.
+	 * @return the number of players the packet was sent to
+	 */
+	public static int broadcast(Collection<ServerPlayerEntity> players, Identifier channelName, PacketByteBuf buf) {
+		Objects.requireNonNull(players, "Players cannot be null");
+		Objects.requireNonNull(channelName, "Channel name cannot be null");
+		Objects.requireNonNull(buf, "Packet byte buf cannot be null");
+
+		return ServerNetworkingImpl.broadcast(players, channelName, buf);
 	}
 
 	// Helper methods
@@ -294,4 +436,63 @@ public final class ServerPlayNetworking {
 		 */
 		void receive(MinecraftServer server, ServerPlayerEntity player, ServerPlayNetworkHandler handler, PacketByteBuf buf, PacketSender responseSender);
 	}
+
+	/**
+	 * What to do with the packets received over the {@linkplain ServerPlayNetworking#setRateLimit rate limit} of their channel.
+	 */
+	public enum RateLimitAction {
+		/**
+		 * Drop the packets over the limit.
+		 */
+		DROP,
+		/**
+		 * Handle the packets over the limit later, on the server thread.
+		 */
+		DEFER
+	}
+
+	/**
+	 * Decodes the payloads of a channel registered with {@link ServerPlayNetworking#registerGlobalReceiver(Identifier, PayloadDecoder, PlayPayloadHandler)}.
+	 *
+	 * @param <T> the type of the payloads
+	 */
+	@FunctionalInterface
+	public interface PayloadDecoder<T> {
+		/**
+		 * Decodes the payload of a packet.
+		 *
+		 * <p>This method is executed on {@linkplain io.netty.channel.EventLoop netty's event loops}, and must not access the game.
+		 * The buffer is only valid during the call, but it doesn't need to be copied: fields should be read directly from it.
+		 *
+		 * <p>Payloads that were handled are kept in a small pool to be reused. If {@code reused} is not {@code null},
+		 * the decoder may overwrite all of its fields and return it instead of allocating a new payload.
+		 * Decoders of immutable payloads should simply ignore it.
+		 *
+		 * @param buf the payload of the packet
+		 * @param reused a payload that was already handled and may be reused, or {@code null}
+		 * @return the decoded payload
+		 */
+		T decode(PacketByteBuf buf, @Nullable T reused);
+	}
+
+	/**
+	 * Handles the decoded payloads of a channel registered with {@link ServerPlayNetworking#registerGlobalReceiver(Identifier, PayloadDecoder, PlayPayloadHandler)}.
+	 *
+	 * @param <T> the type of the payloads
+	 */
+	@FunctionalInterface
+	public interface PlayPayloadHandler<T> {
+		/**
+		 * Handles a decoded payload.
+		 *
+		 * <p>This method is executed on the server thread, so the game may be modified directly.
+		 * The payload may be reused for another packet once this method returns, so it must not be kept.
+		 *
+		 * @param server the server
+		 * @param player the player who sent the packet
+		 * @param payload the decoded payload
+		 * @param responseSender the packet sender
+		 */
+		void receive(MinecraftServer server, ServerPlayerEntity player, T payload, PacketSender responseSender);
+	}
 }
@@ -22,12 +22,18 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
 
+import io.netty.buffer.Unpooled;
 import io.netty.util.AsciiString;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GenericFutureListener;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import org.jetbrains.annotations.Nullable;
 
 import net.minecraft.network.ClientConnection;
@@ -36,6 +42,7 @@ import net.minecraft.network.PacketByteBuf;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.InvalidIdentifierException;
 
+import net.fabricmc.fabric.api.networking.v1.NetworkTraffic;
 import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
 import net.fabricmc.fabric.api.networking.v1.PacketSender;
 
@@ -45,10 +52,24 @@ import net.fabricmc.fabric.api.networking.v1.PacketSender;
  * @param <H> the channel handler type
  */
 public abstract class AbstractChanneledNetworkAddon<H> extends AbstractNetworkAddon<H> implements PacketSender {
+	// Leaves room for the channel names and lengths below the maximum size of custom payloads, 1 MiB
+	private static final int MAX_BUNDLE_SIZE = 1000000;
+	// Larger payloads don't gain anything from being bundled
+	private static final int MAX_BUNDLED_PAYLOAD_SIZE = 32767;
 	protected final ClientConnection connection;
 	protected final GlobalReceiverRegistry<H> receiver;
 	protected final Set<Identifier> sendableChannels;
 	protected final Set<Identifier> sendableChannelsView;
+	// Ids the other side assigned to its channels, used instead of the channel names when sending
+	private final Map<Identifier, Integer> sendableChannelIds = new ConcurrentHashMap<>();
+	// Checksums of the compression dictionaries the other side has for its channels
+	private final Map<Identifier, Integer> sendableDictionaryChecksums = new ConcurrentHashMap<>();
+	private final Map<Identifier, ChannelTraffic> traffic = new ConcurrentHashMap<>();
+	private final Map<Identifier, NetworkTraffic.ChannelStatistics> trafficView = Collections.unmodifiableMap(this.traffic);
+	// Payloads waiting to be sent in a single bundle packet, guarded by bundleLock
+	private final Object bundleLock = new Object();
+	@Nullable
+	private PacketByteBuf bundle;
 
 	protected AbstractChanneledNetworkAddon(GlobalReceiverRegistry<H> receiver, ClientConnection connection, String description) {
 		this(receiver, connection, new HashSet<>(), description);
@@ -88,6 +109,32 @@ public abstract class AbstractChanneledNetworkAddon<H> extends AbstractNetworkAd
 			return true;
 		}
 
+		if (NetworkingImpl.BUNDLE_CHANNEL.equals(channelName)) {
+			this.receiveBundle(PacketByteBufs.slice(originalBuf));
+			return true;
+		}
+
+		if (NetworkingImpl.CHANNEL_IDS_CHANNEL.equals(channelName)) {
+			this.receiveChannelIds(PacketByteBufs.slice(originalBuf));
+			return true;
+		}
+
+		if (NetworkingImpl.COMPRESSION_DICTIONARIES_CHANNEL.equals(channelName)) {
+			this.receiveDictionaryChecksums(PacketByteBufs.slice(originalBuf));
+			return true;
+		}
+
+		if (NetworkingImpl.COMPRESSED_CHANNEL.equals(channelName)) {
+			this.receiveCompressed(PacketByteBufs.slice(originalBuf));
+			return true;
+		}
+
+		if (NetworkingImpl.CHANNEL_ID_CHANNEL.equals(channelName)) {
+			PacketByteBuf buf = PacketByteBufs.slice(originalBuf);
+			this.handle(buf.readVarInt(), buf);
+			return true;
+		}
+
 		@Nullable H handler = this.getHandler(channelName);
 
 		if (handler == null) {
@@ -97,7 +144,7 @@ public abstract class AbstractChanneledNetworkAddon<H> extends AbstractNetworkAd
 		PacketByteBuf buf = PacketByteBufs.slice(originalBuf);
 
 		try {
-			this.receive(handler, buf);
+			this.receive(channelName, handler, buf);
 		} catch (Throwable ex) {
 			this.logger.error("Encountered exception while handling in channel with name \"{}\"", channelName, ex);
 			throw ex;
@@ -106,10 +153,202 @@ public abstract class AbstractChanneledNetworkAddon<H> extends AbstractNetworkAd
 		return true;
 	}
 
+	private void handle(int channelId, PacketByteBuf buf) {
+		@Nullable H handler = this.getHandler(channelId);
+		@Nullable Identifier channelName = this.getChannelName(channelId);
+
+		if (handler == null || channelName == null) {
+			// The channel was unregistered while the packet was in flight
+			this.logger.debug("Ignoring packet from unknown channel with id {}", channelId);
+			return;
+		}
+
+		try {
+			this.receive(channelName, handler, buf);
+		} catch (Throwable ex) {
+			this.logger.error("Encountered exception while handling in channel with name \"{}\"", channelName, ex);
+			throw ex;
+		}
+	}
+
+	/**
+	 * Counts a received packet, and passes it to its handler.
+	 *
+	 * @param channelName the channel name
+	 * @param handler the channel handler
+	 * @param buf the payload of the packet
+	 */
+	protected void receive(Identifier channelName, H handler, PacketByteBuf buf) {
+		this.getTraffic(channelName).onReceived(buf.readableBytes());
+		this.receive(handler, buf);
+	}
+
 	protected abstract void receive(H handler, PacketByteBuf buf);
 
+	/**
+	 * Gets the traffic counters of a channel on this connection.
+	 *
+	 * @param channelName the channel name
+	 * @return the traffic counters, created if the channel had no traffic yet
+	 */
+	public ChannelTraffic getTraffic(Identifier channelName) {
+		ChannelTraffic traffic = this.traffic.get(channelName);
+		return traffic != null ? traffic : this.traffic.computeIfAbsent(channelName, ChannelTraffic::create);
+	}
+
+	public Map<Identifier, NetworkTraffic.ChannelStatistics> getTraffic() {
+		return this.trafficView;
+	}
+
+	private void receiveBundle(PacketByteBuf buf) {
+		while (buf.isReadable()) {
+			int channelId = buf.readVarInt();
+			Identifier channelName = channelId == 0 ? buf.readIdentifier() : null;
+			PacketByteBuf payload = new PacketByteBuf(buf.readSlice(buf.readVarInt()));
+
+			if (channelName == null) {
+				this.handle(channelId, payload);
+			} else if (this.isReservedChannel(channelName)) {
+				// Only user channels are bundled, so that bundles and compressed packets can't be nested
+				this.logger.warn("Ignoring bundled packet from reserved channel with name \"{}\"", channelName);
+			} else if (!this.handle(channelName, payload)) {
+				this.logger.debug("Ignoring bundled packet from unknown channel with name \"{}\"", channelName);
+			}
+		}
+	}
+
+	private void receiveChannelIds(PacketByteBuf buf) {
+		int count = buf.readVarInt();
+
+		for (int i = 0; i < count; i++) {
+			Identifier channelName = buf.readIdentifier();
+			this.sendableChannelIds.put(channelName, buf.readVarInt());
+		}
+	}
+
+	private void receiveDictionaryChecksums(PacketByteBuf buf) {
+		int count = buf.readVarInt();
+
+		for (int i = 0; i < count; i++) {
+			Identifier channelName = buf.readIdentifier();
+			this.sendableDictionaryChecksums.put(channelName, buf.readInt());
+		}
+	}
+
+	private void receiveCompressed(PacketByteBuf buf) {
+		Identifier channelName = buf.readIdentifier();
+		@Nullable PayloadCompressionImpl.Dictionary dictionary = PayloadCompressionImpl.getDictionary(channelName);
+
+		if (dictionary == null) {
+			this.logger.warn("Ignoring compressed packet from channel with name \"{}\" which has no compression dictionary", channelName);
+			return;
+		}
+
+		@Nullable H handler = this.getHandler(channelName);
+
+		if (handler == null) {
+			this.logger.debug("Ignoring compressed packet from unknown channel with name \"{}\"", channelName);
+			return;
+		}
+
+		try {
+			this.receiveCompressed(channelName, handler, dictionary, buf);
+		} catch (Throwable ex) {
+			this.logger.error("Encountered exception while handling in channel with name \"{}\"", channelName, ex);
+			throw ex;
+		}
+	}
+
+	/**
+	 * Decompresses a received payload, and passes it to its handler.
+	 * Overridden to check the packet against the limits of its channel before it is decompressed.
+	 *
+	 * @param channelName the channel name
+	 * @param handler the channel handler
+	 * @param dictionary the compression dictionary of the channel
+	 * @param buf the compressed payload of the packet
+	 */
+	protected void receiveCompressed(Identifier channelName, H handler, PayloadCompressionImpl.Dictionary dictionary, PacketByteBuf buf) {
+		PacketByteBuf payload;
+
+		try {
+			payload = dictionary.decompress(buf, this.getMaxPayloadSize());
+		} catch (DataFormatException | IllegalArgumentException ex) {
+			this.logger.warn("Ignoring invalid compressed packet from channel with name \"{}\"", channelName, ex);
+			return;
+		}
+
+		this.receive(channelName, handler, payload);
+	}
+
+	/**
+	 * Gets the maximum size of the payloads received by this side, which bounds the size of decompressed payloads.
+	 *
+	 * @return the maximum size of a received payload, in bytes
+	 */
+	protected int getMaxPayloadSize() {
+		return PayloadCompressionImpl.MAX_PAYLOAD_SIZE;
+	}
+
+	private void sendDictionaryChecksums() {
+		Map<Identifier, PayloadCompressionImpl.Dictionary> dictionaries = PayloadCompressionImpl.getDictionaries();
+
+		if (dictionaries.isEmpty()) {
+			return;
+		}
+
+		// Copied first, so that the count matches the entries even if a dictionary is registered concurrently
+		List<Map.Entry<Identifier, PayloadCompressionImpl.Dictionary>> entries = new ArrayList<>(dictionaries.entrySet());
+		PacketByteBuf buf = PacketByteBufs.create();
+		buf.writeVarInt(entries.size());
+
+		for (Map.Entry<Identifier, PayloadCompressionImpl.Dictionary> entry : entries) {
+			buf.writeIdentifier(entry.getKey());
+			buf.writeInt(entry.getValue().getChecksum());
+		}
+
+		this.sendPacket(NetworkingImpl.COMPRESSION_DICTIONARIES_CHANNEL, buf);
+	}
+
+	/**
+	 * Sends the id of a channel this side can receive, if the other side can receive it.
+	 *
+	 * @param channelName the channel name
+	 */
+	protected void sendChannelId(Identifier channelName) {
+		final Object2IntMap<Identifier> channelIds = new Object2IntOpenHashMap<>(1);
+		channelIds.put(channelName, this.getChannelId(channelName));
+		this.sendChannelIds(channelIds);
+	}
+
+	/**
+	 * Sends the ids of some of the channels this side can receive, if the other side can receive them.
+	 *
+	 * @param channelIds the channel names and their ids
+	 */
+	private void sendChannelIds(Object2IntMap<Identifier> channelIds) {
+		if (channelIds.isEmpty() || !this.sendableChannels.contains(NetworkingImpl.CHANNEL_IDS_CHANNEL)) {
+			return;
+		}
+
+		PacketByteBuf buf = PacketByteBufs.create();
+		buf.writeVarInt(channelIds.size());
+
+		for (Object2IntMap.Entry<Identifier> entry : channelIds.object2IntEntrySet()) {
+			buf.writeIdentifier(entry.getKey());
+			buf.writeVarInt(entry.getIntValue());
+		}
+
+		this.sendPacket(NetworkingImpl.CHANNEL_IDS_CHANNEL, buf);
+	}
+
 	protected void sendInitialChannelRegistrationPacket() {
-		final PacketByteBuf buf = this.createRegistrationPacket(this.getReceivableChannels());
+		final Set<Identifier> channels = this.getReceivableChannels();
+		// Bundles are handled as a reserved channel, but the other side must know that we can receive them
+		channels.add(NetworkingImpl.BUNDLE_CHANNEL);
+		channels.add(NetworkingImpl.CHANNEL_IDS_CHANNEL);
+		channels.add(NetworkingImpl.COMPRESSION_DICTIONARIES_CHANNEL);
+		final PacketByteBuf buf = this.createRegistrationPacket(channels);
 
 		if (buf != null) {
 			this.sendPacket(NetworkingImpl.REGISTER_CHANNEL, buf);
@@ -160,11 +399,22 @@ public abstract class AbstractChanneledNetworkAddon<H> extends AbstractNetworkAd
 
 	void register(List<Identifier> ids) {
 		this.sendableChannels.addAll(ids);
+
+		if (ids.contains(NetworkingImpl.CHANNEL_IDS_CHANNEL)) {
+			this.sendChannelIds(this.getReceivableChannelIds());
+		}
+
+		if (ids.contains(NetworkingImpl.COMPRESSION_DICTIONARIES_CHANNEL)) {
+			this.sendDictionaryChecksums();
+		}
+
 		this.invokeRegisterEvent(ids);
 	}
 
 	void unregister(List<Identifier> ids) {
 		this.sendableChannels.removeAll(ids);
+		this.sendableChannelIds.keySet().removeAll(ids);
+		this.sendableDictionaryChecksums.keySet().removeAll(ids);
 		this.invokeUnregisterEvent(ids);
 	}
 
@@ -182,6 +432,119 @@ public abstract class AbstractChanneledNetworkAddon<H> extends AbstractNetworkAd
 		this.connection.send(packet, callback);
 	}
 
+	@Override
+	public void sendPacket(Identifier channel, PacketByteBuf buf) {
+		Objects.requireNonNull(channel, "Channel cannot be null");
+		Objects.requireNonNull(buf, "Payload cannot be null");
+
+		if (this.shouldBundle(channel) && buf.readableBytes() <= MAX_BUNDLED_PAYLOAD_SIZE && this.sendableChannels.contains(NetworkingImpl.BUNDLE_CHANNEL)) {
+			synchronized (this.bundleLock) {
+				if (this.bundle != null && this.bundle.writerIndex() + buf.readableBytes() > MAX_BUNDLE_SIZE) {
+					this.flushBundle();
+				}
+
+				if (this.bundle == null) {
+					this.bundle = PacketByteBufs.create();
+				}
+
+				int channelId = this.sendableChannelIds.getOrDefault(channel, 0);
+				this.bundle.writeVarInt(channelId);
+
+				if (channelId == 0) {
+					this.bundle.writeIdentifier(channel);
+				}
+
+				this.bundle.writeVarInt(buf.readableBytes());
+				this.bundle.writeBytes(buf, buf.readerIndex(), buf.readableBytes());
+				this.getTraffic(channel).onSent(buf.readableBytes());
+			}
+		} else {
+			PacketSender.super.sendPacket(channel, buf);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>If both sides have the same compression dictionary for the channel, the payload is sent compressed if that makes it smaller.
+	 * Otherwise, if the other side declared an id for the channel, the packet is sent with the id in place of the channel name.
+	 */
+	@Override
+	public Packet<?> createPacket(Identifier channelName, PacketByteBuf buf) {
+		Objects.requireNonNull(channelName, "Channel name cannot be null");
+		Objects.requireNonNull(buf, "Buf cannot be null");
+
+		if (!this.isReservedChannel(channelName)) {
+			this.flushBundleBefore(channelName);
+			this.getTraffic(channelName).onSent(buf.readableBytes());
+		}
+
+		@Nullable PayloadCompressionImpl.Dictionary dictionary = PayloadCompressionImpl.getDictionary(channelName);
+
+		if (dictionary != null && Objects.equals(this.sendableDictionaryChecksums.get(channelName), dictionary.getChecksum())) {
+			PacketByteBuf compressed = PacketByteBufs.create();
+			compressed.writeIdentifier(channelName);
+
+			if (dictionary.compress(buf, compressed)) {
+				return this.createNamedPacket(NetworkingImpl.COMPRESSED_CHANNEL, compressed);
+			}
+		}
+
+		Integer channelId = this.sendableChannelIds.get(channelName);
+
+		if (channelId == null) {
+			return this.createNamedPacket(channelName, buf);
+		}
+
+		PacketByteBuf header = PacketByteBufs.create();
+		header.writeVarInt(channelId);
+		return this.createNamedPacket(NetworkingImpl.CHANNEL_ID_CHANNEL, new PacketByteBuf(Unpooled.wrappedBuffer(header, buf)));
+	}
+
+	/**
+	 * Makes a custom payload packet for a channel name, without looking up the id of the channel.
+	 *
+	 * @param channelName the channel name
+	 * @param buf the payload of the packet
+	 * @return a new packet
+	 */
+	protected abstract Packet<?> createNamedPacket(Identifier channelName, PacketByteBuf buf);
+
+	/**
+	 * Sends the payloads waiting in the bundle, if any, as a single packet.
+	 */
+	public void flushBundle() {
+		synchronized (this.bundleLock) {
+			if (this.bundle != null) {
+				// Sent while holding the lock, so that bundles can't be reordered
+				this.sendPacket(this.createNamedPacket(NetworkingImpl.BUNDLE_CHANNEL, this.bundle));
+				this.bundle = null;
+			}
+		}
+	}
+
+	/**
+	 * Sends the pending bundle if it may contain payloads of a channel, before a packet of that channel is sent without being bundled,
+	 * so that the packets of a channel keep their order.
+	 *
+	 * @param channelName the channel of the packet about to be sent
+	 */
+	public void flushBundleBefore(Identifier channelName) {
+		if (this.shouldBundle(channelName)) {
+			this.flushBundle();
+		}
+	}
+
+	/**
+	 * Checks if packets sent on a channel should be bundled with the other packets of the same tick.
+	 *
+	 * @param channelName the channel name
+	 * @return whether the packets should be bundled
+	 */
+	protected boolean shouldBundle(Identifier channelName) {
+		return false;
+	}
+
 	/**
 	 * Schedules a task to run on the main thread.
 	 */
@@ -16,8 +16,12 @@
 
 package net.fabricmc.fabric.impl.networking;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -26,6 +30,8 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.Nullable;
@@ -41,10 +47,18 @@ public abstract class AbstractNetworkAddon<H> {
 	protected final GlobalReceiverRegistry<H> receiver;
 	protected final Logger logger;
 	// A lock is used due to possible access on netty's event loops and game thread at same times such as during dynamic registration
+	// It only guards changes and the channel ids, handlers are read without locking
 	private final ReadWriteLock lock = new ReentrantReadWriteLock();
-	// Sync map should be fine as there is little read write competition
+	// Copy on write, like the handlers of the GlobalReceiverRegistry: handlers are looked up for every packet on netty's event loops.
+	// The map is never modified once published, changes replace it with a modified copy while holding the write lock
+	private volatile Map<Identifier, H> handlers = Collections.emptyMap();
+	// Ids assigned to the channels registered on this connection, starting at 1. Ids are never reused, so that an id sent to the other side keeps meaning the same channel.
 	// All access to this map is guarded by the lock
-	private final Map<Identifier, H> handlers = new HashMap<>();
+	private final Object2IntMap<Identifier> channelIds = new Object2IntOpenHashMap<>();
+	// Handlers indexed by channel id, replaced by a new array on every change so that it can be read without locking
+	private volatile Object[] handlersById = new Object[16];
+	// Channel names indexed by channel id, published the same way. Names are kept when channels are unregistered, since ids are never reused
+	private volatile Identifier[] channelNamesById = new Identifier[16];
 	private final AtomicBoolean disconnected = new AtomicBoolean(); // blocks redundant disconnect notifications
 
 	protected AbstractNetworkAddon(GlobalReceiverRegistry<H> receiver, String description) {
@@ -54,40 +68,118 @@ public abstract class AbstractNetworkAddon<H> {
 
 	@Nullable
 	public H getHandler(Identifier channel) {
+		return this.handlers.get(channel);
+	}
+
+	/**
+	 * Gets the handler of a channel from the id this side assigned to it.
+	 *
+	 * @param channelId the channel id
+	 * @return the handler, or {@code null} if there is no channel with this id or if the channel is not registered anymore
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public H getHandler(int channelId) {
+		final Object[] handlersById = this.handlersById;
+		return channelId > 0 && channelId < handlersById.length ? (H) handlersById[channelId] : null;
+	}
+
+	/**
+	 * Gets the name of a channel from the id this side assigned to it.
+	 *
+	 * @param channelId the channel id
+	 * @return the channel name, or {@code null} if no channel ever had this id
+	 */
+	@Nullable
+	public Identifier getChannelName(int channelId) {
+		final Identifier[] channelNamesById = this.channelNamesById;
+		return channelId > 0 && channelId < channelNamesById.length ? channelNamesById[channelId] : null;
+	}
+
+	/**
+	 * Gets the id this side assigned to a registered channel, which the other side may use instead of the channel name.
+	 *
+	 * @param channelName the channel name
+	 * @return the channel id, or {@code 0} if the channel is not registered
+	 */
+	public int getChannelId(Identifier channelName) {
 		Lock lock = this.lock.readLock();
 		lock.lock();
 
 		try {
-			return this.handlers.get(channel);
+			return this.handlers.containsKey(channelName) ? this.channelIds.getInt(channelName) : 0;
 		} finally {
 			lock.unlock();
 		}
 	}
 
 	public boolean registerChannel(Identifier channelName, H handler) {
-		Objects.requireNonNull(channelName, "Channel name cannot be null");
-		Objects.requireNonNull(handler, "Packet handler cannot be null");
+		return this.registerChannels(Collections.singletonMap(channelName, handler)) == 1;
+	}
 
-		if (this.isReservedChannel(channelName)) {
-			throw new IllegalArgumentException(String.format("Cannot register handler for reserved channel with name \"%s\"", channelName));
+	/**
+	 * Registers several channels at once, which only copies the handlers once.
+	 * Channels which already have a handler are left unchanged.
+	 *
+	 * @param channels the handlers of the channels
+	 * @return the number of channels that were registered
+	 */
+	public int registerChannels(Map<Identifier, H> channels) {
+		for (Map.Entry<Identifier, H> entry : channels.entrySet()) {
+			Objects.requireNonNull(entry.getKey(), "Channel name cannot be null");
+			Objects.requireNonNull(entry.getValue(), "Packet handler cannot be null");
+
+			if (this.isReservedChannel(entry.getKey())) {
+				throw new IllegalArgumentException(String.format("Cannot register handler for reserved channel with name \"%s\"", entry.getKey()));
+			}
 		}
 
 		Lock lock = this.lock.writeLock();
 		lock.lock();
 
 		try {
-			final boolean replaced = this.handlers.putIfAbsent(channelName, handler) == null;
+			final Map<Identifier, H> handlers = new HashMap<>(this.handlers);
+			final List<Identifier> registered = new ArrayList<>();
+
+			for (Map.Entry<Identifier, H> entry : channels.entrySet()) {
+				if (handlers.putIfAbsent(entry.getKey(), entry.getValue()) == null) {
+					registered.add(entry.getKey());
+				}
+			}
+
+			if (registered.isEmpty()) {
+				return 0;
+			}
+
+			this.handlers = Collections.unmodifiableMap(handlers);
 
-			if (replaced) {
+			for (Identifier channelName : registered) {
+				this.setHandlerById(this.getOrAssignChannelId(channelName), handlers.get(channelName));
 				this.handleRegistration(channelName);
 			}
 
-			return replaced;
+			return registered.size();
 		} finally {
 			lock.unlock();
 		}
 	}
 
+	// Must be called with the write lock held
+	private int getOrAssignChannelId(Identifier channelName) {
+		int channelId = this.channelIds.getInt(channelName);
+
+		if (channelId == 0) {
+			channelId = this.channelIds.size() + 1;
+			this.channelIds.put(channelName, channelId);
+			final int length = this.channelNamesById.length;
+			final Identifier[] channelNamesById = Arrays.copyOf(this.channelNamesById, channelId >= length ? Math.max(length * 2, channelId + 1) : length);
+			channelNamesById[channelId] = channelName;
+			this.channelNamesById = channelNamesById;
+		}
+
+		return channelId;
+	}
+
 	public H unregisterChannel(Identifier channelName) {
 		Objects.requireNonNull(channelName, "Channel name cannot be null");
 
@@ -99,9 +191,13 @@ public abstract class AbstractNetworkAddon<H> {
 		lock.lock();
 
 		try {
-			final H removed = this.handlers.remove(channelName);
+			final H removed = this.handlers.get(channelName);
 
 			if (removed != null) {
+				final Map<Identifier, H> handlers = new HashMap<>(this.handlers);
+				handlers.remove(channelName);
+				this.handlers = Collections.unmodifiableMap(handlers);
+				this.setHandlerById(this.channelIds.getInt(channelName), null);
 				this.handleUnregistration(channelName);
 			}
 
@@ -111,12 +207,41 @@ public abstract class AbstractNetworkAddon<H> {
 		}
 	}
 
+	// Must be called with the write lock held
+	private void setHandlerById(int channelId, @Nullable H handler) {
+		Object[] handlersById = this.handlersById;
+
+		if (channelId >= handlersById.length) {
+			handlersById = Arrays.copyOf(handlersById, Math.max(handlersById.length * 2, channelId + 1));
+		} else {
+			handlersById = handlersById.clone();
+		}
+
+		handlersById[channelId] = handler;
+		this.handlersById = handlersById;
+	}
+
 	public Set<Identifier> getReceivableChannels() {
+		return new HashSet<>(this.handlers.keySet());
+	}
+
+	/**
+	 * Gets the ids assigned to all currently registered channels.
+	 *
+	 * @return a copy of the ids of the registered channels
+	 */
+	public Object2IntMap<Identifier> getReceivableChannelIds() {
 		Lock lock = this.lock.readLock();
 		lock.lock();
 
 		try {
-			return new HashSet<>(this.handlers.keySet());
+			Object2IntMap<Identifier> ids = new Object2IntOpenHashMap<>(this.handlers.size());
+
+			for (Identifier channelName : this.handlers.keySet()) {
+				ids.put(channelName, this.channelIds.getInt(channelName));
+			}
+
+			return ids;
 		} finally {
 			lock.unlock();
 		}
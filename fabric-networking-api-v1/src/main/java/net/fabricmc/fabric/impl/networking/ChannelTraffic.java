@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.minecraft.util.Identifier;
+
+import net.fabricmc.fabric.api.networking.v1.NetworkTraffic;
+
+/**
+ * Live traffic counters of a channel, for a single connection or for all connections.
+ */
+public final class ChannelTraffic implements NetworkTraffic.ChannelStatistics {
+	// Totals of all connections since the start of the game, updated together with the counters of every connection
+	private static final Map<Identifier, ChannelTraffic> TOTAL = new ConcurrentHashMap<>();
+	private static final Map<Identifier, NetworkTraffic.ChannelStatistics> TOTAL_VIEW = Collections.unmodifiableMap(TOTAL);
+
+	private final ChannelTraffic total;
+	private final AtomicLong packetsReceived = new AtomicLong();
+	private final AtomicLong bytesReceived = new AtomicLong();
+	private final AtomicLong packetsSent = new AtomicLong();
+	private final AtomicLong bytesSent = new AtomicLong();
+	private final AtomicLong packetsDropped = new AtomicLong();
+
+	private ChannelTraffic(ChannelTraffic total) {
+		this.total = total;
+	}
+
+	/**
+	 * Creates the counters of a channel for a single connection.
+	 */
+	public static ChannelTraffic create(Identifier channelName) {
+		return new ChannelTraffic(TOTAL.computeIfAbsent(channelName, c -> new ChannelTraffic(null)));
+	}
+
+	public static Map<Identifier, NetworkTraffic.ChannelStatistics> getTotal() {
+		return TOTAL_VIEW;
+	}
+
+	public void onReceived(int bytes) {
+		this.packetsReceived.incrementAndGet();
+		this.bytesReceived.addAndGet(bytes);
+
+		if (this.total != null) {
+			this.total.onReceived(bytes);
+		}
+	}
+
+	public void onSent(int bytes) {
+		this.packetsSent.incrementAndGet();
+		this.bytesSent.addAndGet(bytes);
+
+		if (this.total != null) {
+			this.total.onSent(bytes);
+		}
+	}
+
+	public void onDropped() {
+		this.packetsDropped.incrementAndGet();
+
+		if (this.total != null) {
+			this.total.onDropped();
+		}
+	}
+
+	@Override
+	public long getPacketsReceived() {
+		return this.packetsReceived.get();
+	}
+
+	@Override
+	public long getBytesReceived() {
+		return this.bytesReceived.get();
+	}
+
+	@Override
+	public long getPacketsSent() {
+		return this.packetsSent.get();
+	}
+
+	@Override
+	public long getBytesSent() {
+		return this.bytesSent.get();
+	}
+
+	@Override
+	public long getPacketsDropped() {
+		return this.packetsDropped.get();
+	}
+}
@@ -16,6 +16,7 @@
 
 package net.fabricmc.fabric.impl.networking;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -30,28 +31,24 @@ import org.jetbrains.annotations.Nullable;
 import net.minecraft.util.Identifier;
 
 public final class GlobalReceiverRegistry<H> {
+	// Only guards changes, handlers are read without locking
 	private final ReadWriteLock lock = new ReentrantReadWriteLock();
-	private final Map<Identifier, H> handlers;
+	// Copy on write: registrations happen almost only at startup, while handlers are looked up for every packet, possibly on many threads.
+	// The map is never modified once published, changes replace it with a modified copy while holding the write lock
+	private volatile Map<Identifier, H> handlers;
 	private final Set<AbstractNetworkAddon<H>> trackedAddons = new HashSet<>();
 
 	public GlobalReceiverRegistry() {
-		this(new HashMap<>()); // sync map should be fine as there is little read write competitions
+		this(Collections.emptyMap());
 	}
 
 	public GlobalReceiverRegistry(Map<Identifier, H> map) {
-		this.handlers = map;
+		this.handlers = Collections.unmodifiableMap(new HashMap<>(map));
 	}
 
 	@Nullable
 	public H getHandler(Identifier channelName) {
-		Lock lock = this.lock.readLock();
-		lock.lock();
-
-		try {
-			return this.handlers.get(channelName);
-		} finally {
-			lock.unlock();
-		}
+		return this.handlers.get(channelName);
 	}
 
 	public boolean registerGlobalReceiver(Identifier channelName, H handler) {
@@ -66,9 +63,13 @@ public final class GlobalReceiverRegistry<H> {
 		lock.lock();
 
 		try {
-			final boolean replaced = this.handlers.putIfAbsent(channelName, handler) == null;
+			final boolean replaced = !this.handlers.containsKey(channelName);
 
-			if (!replaced) {
+			if (replaced) {
+				final Map<Identifier, H> handlers = new HashMap<>(this.handlers);
+				handlers.put(channelName, handler);
+				this.handlers = Collections.unmodifiableMap(handlers);
+			} else {
 				this.handleRegistration(channelName, handler);
 			}
 
@@ -89,9 +90,12 @@ public final class GlobalReceiverRegistry<H> {
 		lock.lock();
 
 		try {
-			final H removed = this.handlers.remove(channelName);
+			final H removed = this.handlers.get(channelName);
 
 			if (removed != null) {
+				final Map<Identifier, H> handlers = new HashMap<>(this.handlers);
+				handlers.remove(channelName);
+				this.handlers = Collections.unmodifiableMap(handlers);
 				this.handleUnregistration(channelName);
 			}
 
@@ -102,25 +106,11 @@ public final class GlobalReceiverRegistry<H> {
 	}
 
 	public Map<Identifier, H> getHandlers() {
-		Lock lock = this.lock.writeLock();
-		lock.lock();
-
-		try {
-			return new HashMap<>(this.handlers);
-		} finally {
-			lock.unlock();
-		}
+		return new HashMap<>(this.handlers);
 	}
 
 	public Set<Identifier> getChannels() {
-		Lock lock = this.lock.readLock();
-		lock.lock();
-
-		try {
-			return new HashSet<>(this.handlers.keySet());
-		} finally {
-			lock.unlock();
-		}
+		return new HashSet<>(this.handlers.keySet());
 	}
 
 	// State tracking methods
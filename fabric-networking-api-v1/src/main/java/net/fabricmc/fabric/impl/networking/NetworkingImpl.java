@@ -47,6 +47,30 @@ public final class NetworkingImpl {
 	 * Dynamic registration of supported channels is still allowed using {@link NetworkingImpl#REGISTER_CHANNEL} and {@link NetworkingImpl#UNREGISTER_CHANNEL}.
 	 */
 	public static final Identifier EARLY_REGISTRATION_CHANNEL = new Identifier(MOD_ID, "early_registration");
+	/**
+	 * Id of the packet containing several payloads, each prefixed with its channel and its length.
+	 * Both sides declare that they can receive it through {@link NetworkingImpl#REGISTER_CHANNEL}.
+	 */
+	public static final Identifier BUNDLE_CHANNEL = new Identifier(MOD_ID, "bundle");
+	/**
+	 * Id of the packet used to declare the integer ids of supported channels, as pairs of channel names and ids.
+	 * Both sides declare that they can receive it through {@link NetworkingImpl#REGISTER_CHANNEL}.
+	 */
+	public static final Identifier CHANNEL_IDS_CHANNEL = new Identifier(MOD_ID, "channel_ids");
+	/**
+	 * Id of the packet containing a payload prefixed with the id of its channel, as declared through {@link NetworkingImpl#CHANNEL_IDS_CHANNEL}.
+	 * Kept short since it is written in every such packet.
+	 */
+	public static final Identifier CHANNEL_ID_CHANNEL = new Identifier("fabric", "id");
+	/**
+	 * Id of the packet used to declare the compression dictionaries of supported channels, as pairs of channel names and dictionary checksums.
+	 * Both sides declare that they can receive it through {@link NetworkingImpl#REGISTER_CHANNEL}.
+	 */
+	public static final Identifier COMPRESSION_DICTIONARIES_CHANNEL = new Identifier(MOD_ID, "compression_dictionaries");
+	/**
+	 * Id of the packet containing a payload compressed with the dictionary of its channel, prefixed with the channel name and the uncompressed size.
+	 */
+	public static final Identifier COMPRESSED_CHANNEL = new Identifier(MOD_ID, "compressed");
 
 	public static void init() {
 		// Login setup
@@ -83,6 +107,8 @@ public final class NetworkingImpl {
 	}
 
 	public static boolean isReservedPlayChannel(Identifier channelName) {
-		return channelName.equals(REGISTER_CHANNEL) || channelName.equals(UNREGISTER_CHANNEL);
+		return channelName.equals(REGISTER_CHANNEL) || channelName.equals(UNREGISTER_CHANNEL) || channelName.equals(BUNDLE_CHANNEL)
+				|| channelName.equals(CHANNEL_IDS_CHANNEL) || channelName.equals(CHANNEL_ID_CHANNEL)
+				|| channelName.equals(COMPRESSION_DICTIONARIES_CHANNEL) || channelName.equals(COMPRESSED_CHANNEL);
 	}
 }
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Adler32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.Identifier;
+
+import net.fabricmc.fabric.api.networking.v1.PayloadCompression;
+
+public final class PayloadCompressionImpl {
+	// Same limit as custom payload packets sent by the server
+	public static final int MAX_PAYLOAD_SIZE = 1048576;
+	// Same limit as custom payload packets sent by the client
+	public static final int MAX_C2S_PAYLOAD_SIZE = 32767;
+	// Smaller payloads don't gain anything from compression
+	private static final int MIN_COMPRESSED_SIZE = 64;
+	private static final Map<Identifier, Dictionary> DICTIONARIES = new ConcurrentHashMap<>();
+	// Reset before every payload, each payload is compressed independently so that packets can be created and sent in any order
+	private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(Deflater::new);
+	private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+
+	public static void registerDictionary(Identifier channelName, byte[] dictionary) {
+		if (NetworkingImpl.isReservedPlayChannel(channelName)) {
+			throw new IllegalArgumentException(String.format("Cannot register dictionary for reserved channel with name \"%s\"", channelName));
+		}
+
+		if (DICTIONARIES.putIfAbsent(channelName, new Dictionary(dictionary.clone())) != null) {
+			throw new IllegalArgumentException(String.format("Channel with name \"%s\" already has a compression dictionary", channelName));
+		}
+	}
+
+	@Nullable
+	public static Dictionary getDictionary(Identifier channelName) {
+		return DICTIONARIES.get(channelName);
+	}
+
+	public static Map<Identifier, Dictionary> getDictionaries() {
+		return DICTIONARIES;
+	}
+
+	public static PayloadCompression.Statistics getStatistics(Identifier channelName) {
+		final Dictionary dictionary = DICTIONARIES.get(channelName);
+		final long compressedPayloads = dictionary == null ? 0 : dictionary.compressedPayloads.sum();
+		final long rawBytes = dictionary == null ? 0 : dictionary.rawBytes.sum();
+		final long compressedBytes = dictionary == null ? 0 : dictionary.compressedBytes.sum();
+
+		return new PayloadCompression.Statistics() {
+			@Override
+			public long getCompressedPayloads() {
+				return compressedPayloads;
+			}
+
+			@Override
+			public long getRawBytes() {
+				return rawBytes;
+			}
+
+			@Override
+			public long getCompressedBytes() {
+				return compressedBytes;
+			}
+		};
+	}
+
+	private static byte[] getBytes(ByteBuf buf) {
+		final byte[] bytes = new byte[buf.readableBytes()];
+		buf.getBytes(buf.readerIndex(), bytes);
+		return bytes;
+	}
+
+	public static final class Dictionary {
+		private final byte[] bytes;
+		private final int checksum;
+		private final LongAdder compressedPayloads = new LongAdder();
+		private final LongAdder rawBytes = new LongAdder();
+		private final LongAdder compressedBytes = new LongAdder();
+
+		private Dictionary(byte[] bytes) {
+			final Adler32 adler = new Adler32();
+			adler.update(bytes, 0, bytes.length);
+			this.bytes = bytes;
+			this.checksum = (int) adler.getValue();
+		}
+
+		/**
+		 * Identifies the dictionary, so that it is only used if both sides have the same one.
+		 */
+		public int getChecksum() {
+			return this.checksum;
+		}
+
+		/**
+		 * Compresses a payload, and appends it to a buffer prefixed with its uncompressed size.
+		 *
+		 * @return false if the payload is too small to be compressed or if it would not be smaller, in which case nothing is written
+		 */
+		public boolean compress(PacketByteBuf payload, PacketByteBuf out) {
+			final int rawSize = payload.readableBytes();
+
+			if (rawSize < MIN_COMPRESSED_SIZE || rawSize > MAX_PAYLOAD_SIZE) {
+				return false;
+			}
+
+			final Deflater deflater = DEFLATER.get();
+			deflater.reset();
+			deflater.setDictionary(this.bytes);
+			deflater.setInput(getBytes(payload));
+			deflater.finish();
+
+			// Only worth it if smaller than the raw payload
+			final byte[] compressed = new byte[rawSize];
+			int compressedSize = 0;
+
+			while (!deflater.finished() && compressedSize < compressed.length) {
+				compressedSize += deflater.deflate(compressed, compressedSize, compressed.length - compressedSize);
+			}
+
+			if (!deflater.finished()) {
+				return false;
+			}
+
+			out.writeVarInt(rawSize);
+			out.writeBytes(compressed, 0, compressedSize);
+			this.compressedPayloads.increment();
+			this.rawBytes.add(rawSize);
+			this.compressedBytes.add(compressedSize);
+			return true;
+		}
+
+		/**
+		 * Decompresses the rest of a buffer written by {@link #compress(PacketByteBuf, PacketByteBuf)}.
+		 *
+		 * @param maxSize the maximum size of the decompressed payload, checked before it is decompressed
+		 * @throws DataFormatException if the compressed payload is invalid or too large
+		 */
+		public PacketByteBuf decompress(PacketByteBuf buf, int maxSize) throws DataFormatException {
+			final int rawSize = buf.readVarInt();
+
+			if (rawSize < 0 || rawSize > maxSize) {
+				throw new DataFormatException("Invalid payload size " + rawSize);
+			}
+
+			final Inflater inflater = INFLATER.get();
+			inflater.reset();
+			inflater.setInput(getBytes(buf));
+			final byte[] raw = new byte[rawSize];
+			int size = 0;
+
+			while (!inflater.finished()) {
+				final int inflated = inflater.inflate(raw, size, raw.length - size);
+				size += inflated;
+
+				if (inflated == 0) {
+					if (inflater.needsDictionary()) {
+						inflater.setDictionary(this.bytes);
+					} else if (inflater.needsInput() || size == raw.length) {
+						throw new DataFormatException("Compressed payload is truncated or larger than declared");
+					}
+				}
+			}
+
+			if (size != rawSize) {
+				throw new DataFormatException("Compressed payload is smaller than declared");
+			}
+
+			return new PacketByteBuf(Unpooled.wrappedBuffer(raw));
+		}
+	}
+
+	private PayloadCompressionImpl() {
+	}
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.math.ChunkPos;
+
+/**
+ * The players of a world, grouped by chunk, so that the players near a position can be found without going through all players.
+ * Only accessed on the server thread.
+ *
+ * <p>Players added, moved or removed while the players are iterated over are only updated in the index once the iteration is over,
+ * so that an action moving players doesn't change the lists being iterated over.
+ */
+public final class PlayerChunkIndex {
+	private final Long2ObjectMap<List<ServerPlayerEntity>> playersByChunk = new Long2ObjectOpenHashMap<>();
+	private final Object2LongMap<ServerPlayerEntity> chunkByPlayer = new Object2LongOpenHashMap<>();
+	// Number of iterations in progress, which may be nested if an action looks players up too
+	private int iterations = 0;
+	// New chunks of the players updated during an iteration, null for removed players
+	private final Map<ServerPlayerEntity, Long> deferredChunks = new LinkedHashMap<>();
+
+	public boolean contains(ServerPlayerEntity player) {
+		if (this.deferredChunks.containsKey(player)) {
+			return this.deferredChunks.get(player) != null;
+		}
+
+		return this.chunkByPlayer.containsKey(player);
+	}
+
+	/**
+	 * Adds a player to the index, or moves it to another chunk.
+	 */
+	public void update(ServerPlayerEntity player, int chunkX, int chunkZ) {
+		final long chunk = ChunkPos.toLong(chunkX, chunkZ);
+
+		if (this.iterations > 0) {
+			this.deferredChunks.put(player, chunk);
+			return;
+		}
+
+		this.move(player, chunk);
+	}
+
+	private void move(ServerPlayerEntity player, long chunk) {
+		if (this.chunkByPlayer.containsKey(player)) {
+			final long previousChunk = this.chunkByPlayer.getLong(player);
+
+			if (previousChunk == chunk) {
+				return;
+			}
+
+			this.removeFromChunk(player, previousChunk);
+		}
+
+		this.chunkByPlayer.put(player, chunk);
+		List<ServerPlayerEntity> players = this.playersByChunk.get(chunk);
+
+		if (players == null) {
+			players = new ArrayList<>(2);
+			this.playersByChunk.put(chunk, players);
+		}
+
+		players.add(player);
+	}
+
+	public void remove(ServerPlayerEntity player) {
+		if (this.iterations > 0) {
+			this.deferredChunks.put(player, null);
+			return;
+		}
+
+		this.removeNow(player);
+	}
+
+	private void removeNow(ServerPlayerEntity player) {
+		if (this.chunkByPlayer.containsKey(player)) {
+			this.removeFromChunk(player, this.chunkByPlayer.removeLong(player));
+		}
+	}
+
+	private void removeFromChunk(ServerPlayerEntity player, long chunk) {
+		final List<ServerPlayerEntity> players = this.playersByChunk.get(chunk);
+		players.remove(player);
+
+		// Empty chunks are removed, so that the number of chunks is never larger than the number of players
+		if (players.isEmpty()) {
+			this.playersByChunk.remove(chunk);
+		}
+	}
+
+	/**
+	 * Calls an action for every player in a square of chunks.
+	 * Players added, moved or removed by the action are visited as if they hadn't been.
+	 */
+	public void forEachInChunks(int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ, Consumer<ServerPlayerEntity> action) {
+		this.forEachAround(minChunkX, minChunkZ, maxChunkX, maxChunkZ, 0, 0, 0, Double.POSITIVE_INFINITY, action);
+	}
+
+	/**
+	 * Calls an action for every player in a square of chunks whose distance to a position is at most the square root of {@code maxSquaredDistance}.
+	 * Players added, moved or removed by the action are visited as if they hadn't been.
+	 */
+	public void forEachAround(int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ, double x, double y, double z, double maxSquaredDistance, Consumer<ServerPlayerEntity> action) {
+		final long chunkCount = ((long) maxChunkX - minChunkX + 1) * ((long) maxChunkZ - minChunkZ + 1);
+
+		if (chunkCount <= 0) {
+			return;
+		}
+
+		this.iterations++;
+
+		try {
+			this.forEachAround(chunkCount, minChunkX, minChunkZ, maxChunkX, maxChunkZ, x, y, z, maxSquaredDistance, action);
+		} finally {
+			if (--this.iterations == 0 && !this.deferredChunks.isEmpty()) {
+				this.applyDeferredChunks();
+			}
+		}
+	}
+
+	private void applyDeferredChunks() {
+		for (Map.Entry<ServerPlayerEntity, Long> entry : this.deferredChunks.entrySet()) {
+			final ServerPlayerEntity player = entry.getKey();
+
+			if (entry.getValue() == null) {
+				this.removeNow(player);
+			} else {
+				this.move(player, entry.getValue());
+			}
+		}
+
+		this.deferredChunks.clear();
+	}
+
+	private void forEachAround(long chunkCount, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ, double x, double y, double z, double maxSquaredDistance, Consumer<ServerPlayerEntity> action) {
+		if (chunkCount <= this.playersByChunk.size()) {
+			for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+				for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+					final List<ServerPlayerEntity> players = this.playersByChunk.get(ChunkPos.toLong(chunkX, chunkZ));
+
+					if (players != null) {
+						forEachAround(players, x, y, z, maxSquaredDistance, action);
+					}
+				}
+			}
+		} else {
+			// Fewer occupied chunks than chunks in the square, so go through the occupied ones instead
+			final ObjectIterator<Long2ObjectMap.Entry<List<ServerPlayerEntity>>> iterator = Long2ObjectMaps.fastIterator(this.playersByChunk);
+
+			while (iterator.hasNext()) {
+				final Long2ObjectMap.Entry<List<ServerPlayerEntity>> entry = iterator.next();
+				final long chunk = entry.getLongKey();
+				final int chunkX = ChunkPos.getPackedX(chunk);
+				final int chunkZ = ChunkPos.getPackedZ(chunk);
+
+				if (chunkX >= minChunkX && chunkX <= maxChunkX && chunkZ >= minChunkZ && chunkZ <= maxChunkZ) {
+					forEachAround(entry.getValue(), x, y, z, maxSquaredDistance, action);
+				}
+			}
+		}
+	}
+
+	private static void forEachAround(List<ServerPlayerEntity> players, double x, double y, double z, double maxSquaredDistance, Consumer<ServerPlayerEntity> action) {
+		for (int i = 0; i < players.size(); i++) {
+			final ServerPlayerEntity player = players.get(i);
+
+			if (maxSquaredDistance == Double.POSITIVE_INFINITY || player.squaredDistanceTo(x, y, z) <= maxSquaredDistance) {
+				action.accept(player);
+			}
+		}
+	}
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Implemented by packets whose body can be serialized ahead of time, to be written to many connections without serializing it again.
+ */
+public interface PreEncodedPacket {
+	/**
+	 * Set the serialized body of this packet, which is written instead of serializing the packet.
+	 * The buffer is never modified afterwards, so that it can be written from several threads at once.
+	 */
+	void fabric_setEncoded(ByteBuf encoded);
+}
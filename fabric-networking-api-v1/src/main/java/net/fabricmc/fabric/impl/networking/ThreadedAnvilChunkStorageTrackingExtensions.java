@@ -17,10 +17,18 @@
 package net.fabricmc.fabric.impl.networking;
 
 import java.util.Collection;
+import java.util.function.Consumer;
 
 import net.minecraft.entity.Entity;
 import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.math.ChunkPos;
 
 public interface ThreadedAnvilChunkStorageTrackingExtensions {
 	Collection<ServerPlayerEntity> fabric_getTrackingPlayers(Entity entity);
+
+	void fabric_forEachTrackingPlayer(ChunkPos pos, Consumer<ServerPlayerEntity> action);
+
+	void fabric_forEachPlayerAround(double x, double y, double z, double radius, Consumer<ServerPlayerEntity> action);
+
+	void fabric_onPlayerMoved(ServerPlayerEntity player);
 }
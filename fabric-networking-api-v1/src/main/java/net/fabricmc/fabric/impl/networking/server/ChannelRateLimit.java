@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking.server;
+
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+
+/**
+ * The rate limit of the packets received on a channel, applied to every connection separately.
+ */
+public final class ChannelRateLimit {
+	final double packetsPerNano;
+	final int burst;
+	final ServerPlayNetworking.RateLimitAction action;
+
+	public ChannelRateLimit(double packetsPerSecond, int burst, ServerPlayNetworking.RateLimitAction action) {
+		this.packetsPerNano = packetsPerSecond / 1e9;
+		this.burst = burst;
+		this.action = action;
+	}
+
+	/**
+	 * A token bucket holding up to {@code burst} packets, refilled continuously at the rate of the limit.
+	 */
+	static final class Bucket {
+		private double tokens = Double.POSITIVE_INFINITY;
+		private long lastRefill = System.nanoTime();
+
+		synchronized boolean tryAcquire(ChannelRateLimit limit) {
+			final long now = System.nanoTime();
+			// The limit may have changed since the last packet, so the bucket is capped on every refill
+			this.tokens = Math.min(limit.burst, this.tokens + (now - this.lastRefill) * limit.packetsPerNano);
+			this.lastRefill = now;
+
+			if (this.tokens >= 1) {
+				this.tokens--;
+				return true;
+			}
+
+			return false;
+		}
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking.server;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import net.fabricmc.fabric.api.networking.v1.ServerLoginNetworking;
+
+/**
+ * Aggregated duration of the phases of every login that completed since the game started.
+ */
+public final class LoginLatencyImpl implements ServerLoginNetworking.LoginLatency {
+	public static final LoginLatencyImpl INSTANCE = new LoginLatencyImpl();
+	private static final int PHASES = ServerLoginNetworking.LoginPhase.values().length;
+
+	private final AtomicLong logins = new AtomicLong();
+	private final AtomicLongArray totalNanos = new AtomicLongArray(PHASES);
+	private final AtomicLongArray maxNanos = new AtomicLongArray(PHASES);
+
+	private LoginLatencyImpl() {
+	}
+
+	void record(long[] phaseNanos) {
+		for (int i = 0; i < PHASES; i++) {
+			long nanos = phaseNanos[i];
+			this.totalNanos.addAndGet(i, nanos);
+			long max = this.maxNanos.get(i);
+
+			while (nanos > max && !this.maxNanos.compareAndSet(i, max, nanos)) {
+				max = this.maxNanos.get(i);
+			}
+		}
+
+		this.logins.incrementAndGet();
+	}
+
+	@Override
+	public long getLogins() {
+		return this.logins.get();
+	}
+
+	@Override
+	public long getAverageNanos(ServerLoginNetworking.LoginPhase phase) {
+		long logins = this.logins.get();
+		return logins == 0 ? 0 : this.totalNanos.get(phase.ordinal()) / logins;
+	}
+
+	@Override
+	public long getMaxNanos(ServerLoginNetworking.LoginPhase phase) {
+		return this.maxNanos.get(phase.ordinal());
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking.server;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded worker pool running the tasks {@linkplain net.fabricmc.fabric.api.networking.v1.ServerLoginNetworking.LoginSynchronizer#submit(Runnable) submitted}
+ * during login, so that heavy login work doesn't block netty's event loops or the server thread.
+ *
+ * <p>When the queue is full, the task is rejected: its future fails with a {@link RejectedExecutionException} instead of
+ * running on the submitting thread, which is usually a netty event loop. The login which submitted it is then aborted.
+ */
+public final class LoginTaskExecutor {
+	private static final int THREADS = Integer.getInteger("fabric.networking.login.threads", Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2)));
+	private static final int CAPACITY = Integer.getInteger("fabric.networking.login.queueCapacity", 1024);
+	private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+	private static final ThreadPoolExecutor EXECUTOR;
+
+	static {
+		EXECUTOR = new ThreadPoolExecutor(THREADS, THREADS, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(CAPACITY), runnable -> {
+			Thread thread = new Thread(runnable, "Fabric Login Worker #" + THREAD_COUNTER.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}, (runnable, executor) -> ((LoginTask<?>) runnable).reject()) {
+			@Override
+			protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+				return new LoginTask<>(runnable, value);
+			}
+		};
+		// Don't keep idle threads around once every player has logged in.
+		EXECUTOR.allowCoreThreadTimeOut(true);
+	}
+
+	public static Future<?> submit(Runnable task) {
+		return EXECUTOR.submit(task);
+	}
+
+	/**
+	 * Checks whether a future was returned by {@link #submit(Runnable)}, and thus is owned by the login that submitted it.
+	 * Other futures may be shared with other logins or cached, so they must not be cancelled.
+	 */
+	public static boolean isLoginTask(Future<?> future) {
+		return future instanceof LoginTask;
+	}
+
+	private LoginTaskExecutor() {
+	}
+
+	private static final class LoginTask<V> extends FutureTask<V> {
+		LoginTask(Runnable runnable, V result) {
+			super(runnable, result);
+		}
+
+		void reject() {
+			this.setException(new RejectedExecutionException("Too many login tasks are queued"));
+		}
+	}
+}
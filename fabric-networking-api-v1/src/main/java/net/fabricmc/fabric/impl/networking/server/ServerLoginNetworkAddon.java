@@ -24,6 +24,9 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 import io.netty.util.concurrent.GenericFutureListener;
@@ -37,6 +40,8 @@ import net.minecraft.network.packet.s2c.login.LoginCompressionS2CPacket;
 import net.minecraft.network.packet.s2c.login.LoginQueryRequestS2CPacket;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerLoginNetworkHandler;
+import net.minecraft.text.LiteralText;
+import net.minecraft.text.TranslatableText;
 import net.minecraft.util.Identifier;
 
 import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
@@ -49,6 +54,8 @@ import net.fabricmc.fabric.mixin.networking.accessor.LoginQueryResponseC2SPacket
 import net.fabricmc.fabric.mixin.networking.accessor.ServerLoginNetworkHandlerAccessor;
 
 public final class ServerLoginNetworkAddon extends AbstractNetworkAddon<ServerLoginNetworking.LoginQueryResponseHandler> implements PacketSender {
+	// Leaves some room before vanilla kicks the player after 600 ticks, so that pending tasks are cancelled first.
+	private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(Long.getLong("fabric.networking.login.timeout", 25));
 	private final ClientConnection connection;
 	private final ServerLoginNetworkHandler handler;
 	private final MinecraftServer server;
@@ -56,6 +63,12 @@ public final class ServerLoginNetworkAddon extends AbstractNetworkAddon<ServerLo
 	private final Collection<Future<?>> waits = new ConcurrentLinkedQueue<>();
 	private final Map<Integer, Identifier> channels = new ConcurrentHashMap<>();
 	private boolean firstQueryTick = true;
+	private boolean completed = false;
+	// Whether the login was aborted, because it timed out or one of its tasks was rejected.
+	private boolean aborted = false;
+	private final long startTime = System.nanoTime();
+	private long queryStartTime;
+	private volatile long lastResponseTime;
 
 	public ServerLoginNetworkAddon(ServerLoginNetworkHandler handler) {
 		super(ServerNetworkingImpl.LOGIN, "ServerLoginNetworkAddon for " + handler.getConnectionInfo());
@@ -79,11 +92,17 @@ public final class ServerLoginNetworkAddon extends AbstractNetworkAddon<ServerLo
 				ServerLoginNetworking.registerReceiver(this.handler, entry.getKey(), entry.getValue());
 			}
 
+			this.queryStartTime = System.nanoTime();
 			ServerLoginConnectionEvents.QUERY_START.invoker().onLoginStart(this.handler, this.server, this, this.waits::add);
 			this.firstQueryTick = false;
 		}
 
+		if (this.completed) {
+			return true;
+		}
+
 		AtomicReference<Throwable> error = new AtomicReference<>();
+		AtomicBoolean rejected = new AtomicBoolean();
 		this.waits.removeIf(future -> {
 			if (!future.isDone()) {
 				return false;
@@ -93,6 +112,13 @@ public final class ServerLoginNetworkAddon extends AbstractNetworkAddon<ServerLo
 				future.get();
 			} catch (ExecutionException ex) {
 				Throwable caught = ex.getCause();
+
+				// A rejected task never ran, so the login must not go on as if it had
+				if (caught instanceof RejectedExecutionException && LoginTaskExecutor.isLoginTask(future)) {
+					rejected.set(true);
+					return true;
+				}
+
 				error.getAndUpdate(oldEx -> {
 					if (oldEx == null) {
 						return caught;
@@ -108,7 +134,60 @@ public final class ServerLoginNetworkAddon extends AbstractNetworkAddon<ServerLo
 			return true;
 		});
 
-		return this.channels.isEmpty() && this.waits.isEmpty();
+		if (error.get() != null) {
+			this.logger.error("Encountered exception while waiting for login of {}", this.handler.getConnectionInfo(), error.get());
+		}
+
+		if (rejected.get() && !this.aborted) {
+			this.aborted = true;
+			this.logger.warn("Login of {} was aborted since too many login tasks are queued", this.handler.getConnectionInfo());
+			this.cancelWaits();
+			this.handler.disconnect(new LiteralText("Server is busy, please try again later"));
+		}
+
+		if (this.aborted) {
+			return false;
+		}
+
+		long now = System.nanoTime();
+
+		if (this.channels.isEmpty() && this.waits.isEmpty()) {
+			this.completed = true;
+			this.recordLatency(now);
+			return true;
+		}
+
+		if (now - this.startTime > TIMEOUT_NANOS) {
+			this.aborted = true;
+			this.logger.warn("Login of {} timed out with {} pending queries and {} pending tasks", this.handler.getConnectionInfo(), this.channels.size(), this.waits.size());
+			this.cancelWaits();
+			this.handler.disconnect(new TranslatableText("multiplayer.disconnect.slow_login"));
+		}
+
+		return false;
+	}
+
+	private void recordLatency(long now) {
+		long queriesEnd = Math.max(this.queryStartTime, this.lastResponseTime);
+		long[] phaseNanos = new long[ServerLoginNetworking.LoginPhase.values().length];
+		phaseNanos[ServerLoginNetworking.LoginPhase.AUTHENTICATION.ordinal()] = this.queryStartTime - this.startTime;
+		phaseNanos[ServerLoginNetworking.LoginPhase.QUERIES.ordinal()] = queriesEnd - this.queryStartTime;
+		phaseNanos[ServerLoginNetworking.LoginPhase.SYNCHRONIZATION.ordinal()] = now - queriesEnd;
+		LoginLatencyImpl.INSTANCE.record(phaseNanos);
+
+		this.logger.debug("Login of {} took {} ms: authentication {} ms, queries {} ms, synchronization {} ms", this.handler.getConnectionInfo(),
+				(now - this.startTime) / 1000000, phaseNanos[0] / 1000000, phaseNanos[1] / 1000000, phaseNanos[2] / 1000000);
+	}
+
+	private void cancelWaits() {
+		for (Future<?> future : this.waits) {
+			// Only the tasks submitted for this login are cancelled, other futures may be shared with other logins
+			if (LoginTaskExecutor.isLoginTask(future)) {
+				future.cancel(true);
+			}
+		}
+
+		this.waits.clear();
 	}
 
 	private void sendCompressionPacket() {
@@ -140,6 +219,7 @@ public final class ServerLoginNetworkAddon extends AbstractNetworkAddon<ServerLo
 			return false;
 		}
 
+		this.lastResponseTime = System.nanoTime();
 		boolean understood = originalBuf != null;
 		@Nullable ServerLoginNetworking.LoginQueryResponseHandler handler = ServerNetworkingImpl.LOGIN.getHandler(channel);
 
@@ -200,6 +280,8 @@ public final class ServerLoginNetworkAddon extends AbstractNetworkAddon<ServerLo
 
 	@Override
 	protected void invokeDisconnectEvent() {
+		// Don't keep login workers busy for a connection that is gone.
+		this.cancelWaits();
 		ServerLoginConnectionEvents.DISCONNECT.invoker().onLoginDisconnect(this.handler, this.server);
 		this.receiver.endSession(this);
 	}
@@ -16,21 +16,40 @@
 
 package net.fabricmc.fabric.impl.networking.server;
 
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.EncoderException;
+
 import net.minecraft.network.Packet;
 import net.minecraft.network.PacketByteBuf;
 import net.minecraft.network.packet.s2c.play.CustomPayloadS2CPacket;
 import net.minecraft.server.network.ServerLoginNetworkHandler;
 import net.minecraft.server.network.ServerPlayNetworkHandler;
+import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.util.Identifier;
 
 import net.fabricmc.fabric.api.networking.v1.ServerLoginNetworking;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
 import net.fabricmc.fabric.impl.networking.GlobalReceiverRegistry;
 import net.fabricmc.fabric.impl.networking.NetworkHandlerExtensions;
+import net.fabricmc.fabric.impl.networking.PreEncodedPacket;
 
 public final class ServerNetworkingImpl {
 	public static final GlobalReceiverRegistry<ServerLoginNetworking.LoginQueryResponseHandler> LOGIN = new GlobalReceiverRegistry<>();
 	public static final GlobalReceiverRegistry<ServerPlayNetworking.PlayChannelHandler> PLAY = new GlobalReceiverRegistry<>();
+	/**
+	 * Channels whose packets are bundled with the other packets of the same tick.
+	 */
+	public static final Set<Identifier> BUNDLED_CHANNELS = ConcurrentHashMap.newKeySet();
+	/**
+	 * Rate limits of the packets received on channels, per connection.
+	 */
+	public static final Map<Identifier, ChannelRateLimit> RATE_LIMITS = new ConcurrentHashMap<>();
 
 	public static ServerPlayNetworkAddon getAddon(ServerPlayNetworkHandler handler) {
 		return (ServerPlayNetworkAddon) ((NetworkHandlerExtensions) handler).getAddon();
@@ -43,4 +62,46 @@ public final class ServerNetworkingImpl {
 	public static Packet<?> createPlayC2SPacket(Identifier channel, PacketByteBuf buf) {
 		return new CustomPayloadS2CPacket(channel, buf);
 	}
+
+	public static int broadcast(Collection<ServerPlayerEntity> players, Identifier channel, PacketByteBuf buf) {
+		Packet<?> packet = null;
+		int count = 0;
+
+		for (ServerPlayerEntity player : players) {
+			ServerPlayNetworkAddon addon = getAddon(player.networkHandler);
+
+			if (addon.getSendableChannels().contains(channel)) {
+				addon.flushBundleBefore(channel);
+				addon.getTraffic(channel).onSent(buf.readableBytes());
+
+				// Sent with the channel name, since every client may have assigned a different id to the channel
+				if (packet == null) {
+					packet = createPreEncodedPacket(channel, buf);
+				}
+
+				player.networkHandler.sendPacket(packet);
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Create a packet whose body is serialized right away, so that it is only copied when it is written to every connection.
+	 * The serialized bytes are on the heap, so they don't need to be released if a connection is closed before the packet is written.
+	 */
+	private static Packet<?> createPreEncodedPacket(Identifier channel, PacketByteBuf buf) {
+		CustomPayloadS2CPacket packet = new CustomPayloadS2CPacket(channel, buf);
+		PacketByteBuf encoded = new PacketByteBuf(Unpooled.buffer(buf.readableBytes() + 64));
+
+		try {
+			packet.write(encoded);
+		} catch (IOException e) {
+			throw new EncoderException("Failed to encode custom payload packet on channel " + channel, e);
+		}
+
+		((PreEncodedPacket) packet).fabric_setEncoded(encoded);
+		return packet;
+	}
 }
@@ -16,9 +16,15 @@
 
 package net.fabricmc.fabric.impl.networking.server;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetbrains.annotations.Nullable;
 
 import net.minecraft.network.Packet;
 import net.minecraft.network.PacketByteBuf;
@@ -27,18 +33,30 @@ import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayNetworkHandler;
 import net.minecraft.util.Identifier;
 
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
 import net.fabricmc.fabric.api.networking.v1.S2CPlayChannelEvents;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
 import net.fabricmc.fabric.impl.networking.AbstractChanneledNetworkAddon;
 import net.fabricmc.fabric.impl.networking.ChannelInfoHolder;
 import net.fabricmc.fabric.impl.networking.NetworkingImpl;
+import net.fabricmc.fabric.impl.networking.PayloadCompressionImpl;
 import net.fabricmc.fabric.mixin.networking.accessor.CustomPayloadC2SPacketAccessor;
 
 public final class ServerPlayNetworkAddon extends AbstractChanneledNetworkAddon<ServerPlayNetworking.PlayChannelHandler> {
 	private final ServerPlayNetworkHandler handler;
 	private final MinecraftServer server;
 	private boolean sentInitialRegisterPacket;
+	// Decoded payloads waiting to be handled on the server thread, with their handlers at the same indices, guarded by queueLock.
+	// Two pairs of lists are swapped on every drain, so that queuing doesn't allocate once they are large enough
+	private final Object queueLock = new Object();
+	private List<TypedPlayChannelHandler<?>> queuedHandlers = new ArrayList<>();
+	private List<Object> queuedPayloads = new ArrayList<>();
+	private List<TypedPlayChannelHandler<?>> drainedHandlers = new ArrayList<>();
+	private List<Object> drainedPayloads = new ArrayList<>();
+	private final Map<Identifier, ChannelRateLimit.Bucket> rateLimitBuckets = new ConcurrentHashMap<>();
+	// Copies of the packets over the rate limit of their channel which are handled later, guarded by itself
+	private final Map<Identifier, ArrayDeque<DeferredPacket>> deferredPackets = new HashMap<>();
 
 	public ServerPlayNetworkAddon(ServerPlayNetworkHandler handler, MinecraftServer server) {
 		super(ServerNetworkingImpl.PLAY, handler.getConnection(), "ServerPlayNetworkAddon for " + handler.player.getEntityName());
@@ -54,9 +72,7 @@ public final class ServerPlayNetworkAddon extends AbstractChanneledNetworkAddon<
 
 	@Override
 	public void lateInit() {
-		for (Map.Entry<Identifier, ServerPlayNetworking.PlayChannelHandler> entry : this.receiver.getHandlers().entrySet()) {
-			this.registerChannel(entry.getKey(), entry.getValue());
-		}
+		this.registerChannels(this.receiver.getHandlers());
 
 		ServerPlayConnectionEvents.INIT.invoker().onPlayInit(this.handler, this.server);
 	}
@@ -84,9 +100,177 @@ public final class ServerPlayNetworkAddon extends AbstractChanneledNetworkAddon<
 		return this.handle(access.getChannel(), access.getData());
 	}
 
+	@Override
+	protected void receive(Identifier channelName, ServerPlayNetworking.PlayChannelHandler handler, PacketByteBuf buf) {
+		this.receive(channelName, handler, buf, null);
+	}
+
+	@Override
+	protected void receiveCompressed(Identifier channelName, ServerPlayNetworking.PlayChannelHandler handler, PayloadCompressionImpl.Dictionary dictionary, PacketByteBuf buf) {
+		// Checked against the rate limit while still compressed, so that packets over the limit are never decompressed
+		this.receive(channelName, handler, buf, dictionary);
+	}
+
+	@Override
+	protected int getMaxPayloadSize() {
+		return PayloadCompressionImpl.MAX_C2S_PAYLOAD_SIZE;
+	}
+
+	/**
+	 * Checks a received packet against the rate limit of its channel, and passes it to its handler if it is within it.
+	 *
+	 * @param dictionary the compression dictionary the payload is compressed with, or {@code null} if it isn't compressed
+	 */
+	private void receive(Identifier channelName, ServerPlayNetworking.PlayChannelHandler handler, PacketByteBuf buf, @Nullable PayloadCompressionImpl.Dictionary dictionary) {
+		@Nullable ChannelRateLimit limit = ServerNetworkingImpl.RATE_LIMITS.get(channelName);
+
+		if (limit == null) {
+			this.receiveWithinLimit(channelName, handler, buf, dictionary);
+			return;
+		}
+
+		if (limit.action == ServerPlayNetworking.RateLimitAction.DEFER) {
+			synchronized (this.deferredPackets) {
+				@Nullable ArrayDeque<DeferredPacket> deferred = this.deferredPackets.get(channelName);
+
+				// Packets received while others are deferred or being handled are deferred too, to keep their order
+				if (deferred != null || !this.getRateLimitBucket(channelName).tryAcquire(limit)) {
+					if (deferred == null) {
+						deferred = new ArrayDeque<>();
+						this.deferredPackets.put(channelName, deferred);
+					}
+
+					if (deferred.size() < limit.burst) {
+						deferred.addLast(new DeferredPacket(PacketByteBufs.copy(buf), dictionary));
+					} else {
+						this.getTraffic(channelName).onDropped();
+					}
+
+					return;
+				}
+			}
+		} else if (!this.getRateLimitBucket(channelName).tryAcquire(limit)) {
+			this.getTraffic(channelName).onDropped();
+			return;
+		}
+
+		this.receiveWithinLimit(channelName, handler, buf, dictionary);
+	}
+
+	private void receiveWithinLimit(Identifier channelName, ServerPlayNetworking.PlayChannelHandler handler, PacketByteBuf buf, @Nullable PayloadCompressionImpl.Dictionary dictionary) {
+		if (dictionary == null) {
+			super.receive(channelName, handler, buf);
+		} else {
+			super.receiveCompressed(channelName, handler, dictionary, buf);
+		}
+	}
+
+	private ChannelRateLimit.Bucket getRateLimitBucket(Identifier channelName) {
+		ChannelRateLimit.Bucket bucket = this.rateLimitBuckets.get(channelName);
+		return bucket != null ? bucket : this.rateLimitBuckets.computeIfAbsent(channelName, c -> new ChannelRateLimit.Bucket());
+	}
+
+	/**
+	 * Handles the deferred packets which are within the rate limit of their channel again, in the order they were received.
+	 * Must be called on the server thread.
+	 */
+	public void handleDeferredPackets() {
+		final List<Identifier> channelNames = new ArrayList<>();
+		final List<DeferredPacket> packets = new ArrayList<>();
+		boolean drainedChannel = false;
+
+		synchronized (this.deferredPackets) {
+			if (this.deferredPackets.isEmpty()) {
+				return;
+			}
+
+			for (Map.Entry<Identifier, ArrayDeque<DeferredPacket>> entry : this.deferredPackets.entrySet()) {
+				Identifier channelName = entry.getKey();
+				ArrayDeque<DeferredPacket> deferred = entry.getValue();
+				@Nullable ChannelRateLimit limit = ServerNetworkingImpl.RATE_LIMITS.get(channelName);
+
+				while (!deferred.isEmpty() && (limit == null || this.getRateLimitBucket(channelName).tryAcquire(limit))) {
+					channelNames.add(channelName);
+					packets.add(deferred.pollFirst());
+				}
+
+				drainedChannel |= deferred.isEmpty();
+			}
+		}
+
+		// Handled outside of the lock, so that the network thread isn't blocked by the handlers
+		for (int i = 0; i < channelNames.size(); i++) {
+			final Identifier channelName = channelNames.get(i);
+			@Nullable ServerPlayNetworking.PlayChannelHandler handler = this.getHandler(channelName);
+
+			if (handler == null) {
+				continue;
+			}
+
+			try {
+				this.receiveWithinLimit(channelName, handler, packets.get(i).buf, packets.get(i).dictionary);
+			} catch (RuntimeException ex) {
+				this.logger.error("Encountered exception while handling deferred packet in channel with name \"{}\"", channelName, ex);
+			}
+		}
+
+		// Drained channels are only removed once their packets were handled: until then, new packets must be deferred
+		// behind them rather than handled right away on the network thread, which could overtake them.
+		if (drainedChannel) {
+			synchronized (this.deferredPackets) {
+				this.deferredPackets.values().removeIf(ArrayDeque::isEmpty);
+			}
+		}
+	}
+
 	@Override
 	protected void receive(ServerPlayNetworking.PlayChannelHandler handler, PacketByteBuf buf) {
-		handler.receive(this.server, this.handler.player, this.handler, buf, this);
+		if (handler instanceof TypedPlayChannelHandler) {
+			final TypedPlayChannelHandler<?> typedHandler = (TypedPlayChannelHandler<?>) handler;
+			final Object payload = typedHandler.decode(buf);
+
+			synchronized (this.queueLock) {
+				this.queuedHandlers.add(typedHandler);
+				this.queuedPayloads.add(payload);
+			}
+		} else {
+			handler.receive(this.server, this.handler.player, this.handler, buf, this);
+		}
+	}
+
+	/**
+	 * Handles the decoded payloads received since the last call, in the order they were received.
+	 * Must be called on the server thread.
+	 */
+	public void handleQueuedPayloads() {
+		final List<TypedPlayChannelHandler<?>> handlers;
+		final List<Object> payloads;
+
+		synchronized (this.queueLock) {
+			if (this.queuedHandlers.isEmpty()) {
+				return;
+			}
+
+			handlers = this.queuedHandlers;
+			payloads = this.queuedPayloads;
+			this.queuedHandlers = this.drainedHandlers;
+			this.queuedPayloads = this.drainedPayloads;
+			this.drainedHandlers = handlers;
+			this.drainedPayloads = payloads;
+		}
+
+		try {
+			for (int i = 0; i < handlers.size(); i++) {
+				try {
+					handlers.get(i).handle(this.server, this.handler.player, payloads.get(i), this);
+				} catch (RuntimeException ex) {
+					this.logger.error("Encountered exception while handling a decoded payload", ex);
+				}
+			}
+		} finally {
+			handlers.clear();
+			payloads.clear();
+		}
 	}
 
 	// impl details
@@ -97,7 +281,7 @@ public final class ServerPlayNetworkAddon extends AbstractChanneledNetworkAddon<
 	}
 
 	@Override
-	public Packet<?> createPacket(Identifier channelName, PacketByteBuf buf) {
+	protected Packet<?> createNamedPacket(Identifier channelName, PacketByteBuf buf) {
 		return ServerPlayNetworking.createS2CPacket(channelName, buf);
 	}
 
@@ -120,6 +304,8 @@ public final class ServerPlayNetworkAddon extends AbstractChanneledNetworkAddon<
 			if (buf != null) {
 				this.sendPacket(NetworkingImpl.REGISTER_CHANNEL, buf);
 			}
+
+			this.sendChannelId(channelName);
 		}
 	}
 
@@ -135,6 +321,11 @@ public final class ServerPlayNetworkAddon extends AbstractChanneledNetworkAddon<
 		}
 	}
 
+	@Override
+	protected boolean shouldBundle(Identifier channelName) {
+		return ServerNetworkingImpl.BUNDLED_CHANNELS.contains(channelName);
+	}
+
 	@Override
 	protected void invokeDisconnectEvent() {
 		ServerPlayConnectionEvents.DISCONNECT.invoker().onPlayDisconnect(this.handler, this.server);
@@ -145,4 +336,16 @@ public final class ServerPlayNetworkAddon extends AbstractChanneledNetworkAddon<
 	protected boolean isReservedChannel(Identifier channelName) {
 		return NetworkingImpl.isReservedPlayChannel(channelName);
 	}
+
+	private static final class DeferredPacket {
+		final PacketByteBuf buf;
+		// Deferred packets are only decompressed once they are handled
+		@Nullable
+		final PayloadCompressionImpl.Dictionary dictionary;
+
+		DeferredPacket(PacketByteBuf buf, @Nullable PayloadCompressionImpl.Dictionary dictionary) {
+			this.buf = buf;
+			this.dictionary = dictionary;
+		}
+	}
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.networking.server;
+
+import java.util.ArrayDeque;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayNetworkHandler;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import net.fabricmc.fabric.api.networking.v1.PacketSender;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+
+/**
+ * A channel handler which decodes payloads on the network thread, and leaves them to be handled on the server thread.
+ *
+ * <p>{@link ServerPlayNetworkAddon} queues the decoded payloads and handles them once per tick.
+ * When the handler is called directly, the decoded payload is handled in a scheduled task instead.
+ *
+ * @param <T> the type of the payloads
+ */
+public final class TypedPlayChannelHandler<T> implements ServerPlayNetworking.PlayChannelHandler {
+	private static final int MAX_POOL_SIZE = 64;
+	private final ServerPlayNetworking.PayloadDecoder<T> decoder;
+	private final ServerPlayNetworking.PlayPayloadHandler<T> handler;
+	// Handled payloads which may be reused by the decoder, guarded by itself
+	private final ArrayDeque<T> pool = new ArrayDeque<>();
+
+	public TypedPlayChannelHandler(ServerPlayNetworking.PayloadDecoder<T> decoder, ServerPlayNetworking.PlayPayloadHandler<T> handler) {
+		this.decoder = decoder;
+		this.handler = handler;
+	}
+
+	@Override
+	public void receive(MinecraftServer server, ServerPlayerEntity player, ServerPlayNetworkHandler handler, PacketByteBuf buf, PacketSender responseSender) {
+		final T payload = this.decode(buf);
+		server.execute(() -> this.handle(server, player, payload, responseSender));
+	}
+
+	T decode(PacketByteBuf buf) {
+		@Nullable T reused;
+
+		synchronized (this.pool) {
+			reused = this.pool.pollLast();
+		}
+
+		return this.decoder.decode(buf, reused);
+	}
+
+	@SuppressWarnings("unchecked")
+	void handle(MinecraftServer server, ServerPlayerEntity player, Object payload, PacketSender responseSender) {
+		this.handler.receive(server, player, (T) payload, responseSender);
+
+		synchronized (this.pool) {
+			if (this.pool.size() < MAX_POOL_SIZE) {
+				this.pool.addLast((T) payload);
+			}
+		}
+	}
+}
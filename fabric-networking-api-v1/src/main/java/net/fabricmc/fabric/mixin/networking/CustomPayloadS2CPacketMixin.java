@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.mixin.networking;
+
+import io.netty.buffer.ByteBuf;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.packet.s2c.play.CustomPayloadS2CPacket;
+
+import net.fabricmc.fabric.impl.networking.PreEncodedPacket;
+
+@Mixin(CustomPayloadS2CPacket.class)
+abstract class CustomPayloadS2CPacketMixin implements PreEncodedPacket {
+	@Unique
+	private ByteBuf encoded;
+
+	@Override
+	public void fabric_setEncoded(ByteBuf encoded) {
+		this.encoded = encoded;
+	}
+
+	@Inject(method = "write", at = @At("HEAD"), cancellable = true)
+	private void writeEncoded(PacketByteBuf buf, CallbackInfo ci) {
+		if (this.encoded != null) {
+			// Absolute indices, so that the shared buffer is never modified.
+			buf.writeBytes(this.encoded, this.encoded.readerIndex(), this.encoded.readableBytes());
+			ci.cancel();
+		}
+	}
+}
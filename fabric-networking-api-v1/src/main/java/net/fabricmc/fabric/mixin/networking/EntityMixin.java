@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.mixin.networking;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.world.World;
+
+import net.fabricmc.fabric.impl.networking.ThreadedAnvilChunkStorageTrackingExtensions;
+
+@Mixin(Entity.class)
+abstract class EntityMixin {
+	@Shadow
+	public World world;
+
+	// All position changes go through setPos, keep the index used by PlayerLookup.around up to date
+	@Inject(method = "setPos", at = @At("RETURN"))
+	private void updatePlayerIndex(double x, double y, double z, CallbackInfo ci) {
+		if ((Object) this instanceof ServerPlayerEntity && this.world instanceof ServerWorld) {
+			((ThreadedAnvilChunkStorageTrackingExtensions) ((ServerWorld) this.world).getChunkManager().threadedAnvilChunkStorage).fabric_onPlayerMoved((ServerPlayerEntity) (Object) this);
+		}
+	}
+}
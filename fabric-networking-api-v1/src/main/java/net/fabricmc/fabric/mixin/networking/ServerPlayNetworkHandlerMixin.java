@@ -63,6 +63,17 @@ abstract class ServerPlayNetworkHandlerMixin implements NetworkHandlerExtensions
 		}
 	}
 
+	@Inject(method = "tick", at = @At("HEAD"))
+	private void handleQueuedPackets(CallbackInfo ci) {
+		this.addon.handleDeferredPackets();
+		this.addon.handleQueuedPayloads();
+	}
+
+	@Inject(method = "tick", at = @At("TAIL"))
+	private void flushBundle(CallbackInfo ci) {
+		this.addon.flushBundle();
+	}
+
 	@Inject(method = "onDisconnected", at = @At("HEAD"))
 	private void handleDisconnection(Text reason, CallbackInfo ci) {
 		this.addon.handleDisconnect();
@@ -18,16 +18,25 @@ package net.fabricmc.fabric.mixin.networking;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.function.Consumer;
 
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 import net.minecraft.entity.Entity;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ThreadedAnvilChunkStorage;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.MathHelper;
 
+import net.fabricmc.fabric.impl.networking.PlayerChunkIndex;
 import net.fabricmc.fabric.impl.networking.ThreadedAnvilChunkStorageTrackingExtensions;
 import net.fabricmc.fabric.mixin.networking.accessor.EntityTrackerAccessor;
 
@@ -38,6 +47,57 @@ abstract class ThreadedAnvilChunkStorageMixin implements ThreadedAnvilChunkStora
 	// We can abuse type erasure here and just get the type in the map as the accessor.
 	// This allows us to avoid an access widener for the package-private `EntityTracker` subclass.
 	private Int2ObjectMap<EntityTrackerAccessor> entityTrackers;
+	@Shadow
+	private int watchDistance;
+
+	// Players indexed by the chunk they are in, kept up to date whenever they move
+	@Unique
+	private final PlayerChunkIndex playersByPosition = new PlayerChunkIndex();
+	// Players indexed by the chunk the game sends the surrounding chunks of, which can lag behind their position
+	@Unique
+	private final PlayerChunkIndex playersByCameraPosition = new PlayerChunkIndex();
+
+	@Inject(method = "handlePlayerAddedOrRemoved", at = @At("RETURN"))
+	private void indexPlayer(ServerPlayerEntity player, boolean added, CallbackInfo ci) {
+		if (added) {
+			this.playersByPosition.update(player, MathHelper.floor(player.getX()) >> 4, MathHelper.floor(player.getZ()) >> 4);
+			this.indexCameraPosition(player);
+		} else {
+			this.playersByPosition.remove(player);
+			this.playersByCameraPosition.remove(player);
+		}
+	}
+
+	@Inject(method = "updateCameraPosition", at = @At("RETURN"))
+	private void onCameraPositionUpdated(ServerPlayerEntity player, CallbackInfo ci) {
+		if (this.playersByCameraPosition.contains(player)) {
+			this.indexCameraPosition(player);
+		}
+	}
+
+	@Unique
+	private void indexCameraPosition(ServerPlayerEntity player) {
+		final ChunkSectionPos cameraPosition = player.getCameraPosition();
+		this.playersByCameraPosition.update(player, cameraPosition.getSectionX(), cameraPosition.getSectionZ());
+	}
+
+	@Override
+	public void fabric_onPlayerMoved(ServerPlayerEntity player) {
+		if (this.playersByPosition.contains(player)) {
+			this.playersByPosition.update(player, MathHelper.floor(player.getX()) >> 4, MathHelper.floor(player.getZ()) >> 4);
+		}
+	}
+
+	@Override
+	public void fabric_forEachTrackingPlayer(ChunkPos pos, Consumer<ServerPlayerEntity> action) {
+		// Same as getPlayersWatchingChunk: all players whose camera chunk is within the watch distance of the chunk
+		this.playersByCameraPosition.forEachInChunks(pos.x - this.watchDistance, pos.z - this.watchDistance, pos.x + this.watchDistance, pos.z + this.watchDistance, action);
+	}
+
+	@Override
+	public void fabric_forEachPlayerAround(double x, double y, double z, double radius, Consumer<ServerPlayerEntity> action) {
+		this.playersByPosition.forEachAround(MathHelper.floor(x - radius) >> 4, MathHelper.floor(z - radius) >> 4, MathHelper.floor(x + radius) >> 4, MathHelper.floor(z + radius) >> 4, x, y, z, radius * radius, action);
+	}
 
 	@Override
 	public Collection<ServerPlayerEntity> fabric_getTrackingPlayers(Entity entity) {
@@ -18,10 +18,10 @@ package net.fabricmc.fabric.test.networking.keybindreciever;
 
 import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.MinecraftServer;
-import net.minecraft.server.network.ServerPlayNetworkHandler;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.KeybindText;
 import net.minecraft.text.LiteralText;
+import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 import net.minecraft.util.Identifier;
 
@@ -36,17 +36,20 @@ import net.fabricmc.fabric.test.networking.NetworkingTestmods;
 public final class NetworkingKeybindPacketTest implements ModInitializer {
 	public static final Identifier KEYBINDING_PACKET_ID = NetworkingTestmods.id("keybind_press_test");
 
-	private static void receive(MinecraftServer server, ServerPlayerEntity player, ServerPlayNetworkHandler handler, PacketByteBuf buf, PacketSender responseSender) {
-		// TODO: Can we send chat off the server thread?
-		server.execute(() -> {
-			player.sendMessage(new LiteralText("So you pressed ").append(new KeybindText("fabric-networking-api-v1-testmod-keybind").styled(style -> style.withFormatting(Formatting.BLUE))), false);
-		});
+	// Decoded on the network thread, the message is built there since it doesn't depend on the game
+	private static Text decode(PacketByteBuf buf, Text reused) {
+		return new LiteralText("So you pressed ").append(new KeybindText("fabric-networking-api-v1-testmod-keybind").styled(style -> style.withFormatting(Formatting.BLUE)));
+	}
+
+	// Handled on the server thread, once per tick
+	private static void receive(MinecraftServer server, ServerPlayerEntity player, Text message, PacketSender responseSender) {
+		player.sendMessage(message, false);
 	}
 
 	@Override
 	public void onInitialize() {
 		ServerPlayConnectionEvents.INIT.register((handler, server) -> {
-			ServerPlayNetworking.registerReceiver(handler, KEYBINDING_PACKET_ID, NetworkingKeybindPacketTest::receive);
+			ServerPlayNetworking.registerReceiver(handler, KEYBINDING_PACKET_ID, NetworkingKeybindPacketTest::decode, NetworkingKeybindPacketTest::receive);
 		});
 	}
 }
@@ -17,11 +17,9 @@
 package net.fabricmc.fabric.test.networking.login;
 
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.FutureTask;
 
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerLoginNetworkHandler;
-import net.minecraft.util.Util;
 
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.networking.v1.ServerLoginConnectionEvents;
@@ -45,18 +43,17 @@ public final class NetworkingLoginQueryTest implements ModInitializer {
 				NetworkingTestmods.LOGGER.info("Understood response from client in {}", NetworkingPlayPacketTest.TEST_CHANNEL);
 
 				if (useLoginDelayTest) {
-					FutureTask<?> future = new FutureTask<>(() -> {
-						for (int i = 0; i <= 10; i++) {
-							Thread.sleep(300);
-							NetworkingTestmods.LOGGER.info("Delayed login for number {} 300 milliseconds", i);
+					// Execute the task on a login worker thread as not to block the event loop
+					synchronizer.submit(() -> {
+						try {
+							for (int i = 0; i <= 10; i++) {
+								Thread.sleep(300);
+								NetworkingTestmods.LOGGER.info("Delayed login for number {} 300 milliseconds", i);
+							}
+						} catch (InterruptedException e) {
+							NetworkingTestmods.LOGGER.info("Delayed login was cancelled");
 						}
-
-						return null;
 					});
-
-					// Execute the task on a worker thread as not to block the server thread
-					Util.getMainWorkerExecutor().execute(future);
-					synchronizer.waitFor(future);
 				}
 			} else {
 				NetworkingTestmods.LOGGER.info("Client did not understand response query message with channel name {}", NetworkingPlayPacketTest.TEST_CHANNEL);
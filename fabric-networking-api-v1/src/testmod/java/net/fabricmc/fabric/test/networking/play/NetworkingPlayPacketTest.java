@@ -60,6 +60,9 @@ public final class NetworkingPlayPacketTest implements ModInitializer {
 	public void onInitialize() {
 		NetworkingTestmods.LOGGER.info("Hello from networking user!");
 
+		// Test packets are sent in a bundle at the end of the tick, and unbundled transparently by the client
+		ServerPlayNetworking.enableBundling(TEST_CHANNEL);
+
 		CommandRegistrationCallback.EVENT.register((dispatcher, dedicated) -> {
 			NetworkingPlayPacketTest.registerCommand(dispatcher);
 		});
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.test.networking.traffic;
+
+import static net.minecraft.command.argument.EntityArgumentType.getPlayer;
+import static net.minecraft.command.argument.EntityArgumentType.player;
+import static net.minecraft.server.command.CommandManager.argument;
+import static net.minecraft.server.command.CommandManager.literal;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.LiteralText;
+import net.minecraft.util.Identifier;
+
+import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.command.v1.CommandRegistrationCallback;
+import net.fabricmc.fabric.api.networking.v1.NetworkTraffic;
+import net.fabricmc.fabric.api.networking.v1.ServerLoginNetworking;
+
+/**
+ * Adds the {@code /networktraffic [<player>]} command, which shows the channels with the most traffic, in total or for a single player.
+ * Without a player, the latency of the login phases is shown too.
+ */
+public final class NetworkingTrafficTest implements ModInitializer {
+	private static final int SHOWN_CHANNELS = 10;
+
+	@Override
+	public void onInitialize() {
+		CommandRegistrationCallback.EVENT.register((dispatcher, dedicated) -> {
+			dispatcher.register(literal("networktraffic")
+					.requires(source -> source.hasPermissionLevel(3))
+					.executes(context -> {
+						showLoginLatency(context.getSource());
+						return show(context.getSource(), "all players", NetworkTraffic.getTotal());
+					})
+					.then(argument("player", player()).executes(context -> {
+						return show(context.getSource(), getPlayer(context, "player").getEntityName(), NetworkTraffic.get(getPlayer(context, "player").networkHandler));
+					})));
+		});
+	}
+
+	private static int show(ServerCommandSource source, String description, Map<Identifier, NetworkTraffic.ChannelStatistics> traffic) {
+		List<Map.Entry<Identifier, NetworkTraffic.ChannelStatistics>> channels = new ArrayList<>(traffic.entrySet());
+		channels.sort(Comparator.comparingLong((Map.Entry<Identifier, NetworkTraffic.ChannelStatistics> entry) -> entry.getValue().getBytesReceived() + entry.getValue().getBytesSent()).reversed());
+
+		source.sendFeedback(new LiteralText(String.format("Network traffic of %s on %d channels:", description, channels.size())), false);
+
+		for (Map.Entry<Identifier, NetworkTraffic.ChannelStatistics> entry : channels.subList(0, Math.min(SHOWN_CHANNELS, channels.size()))) {
+			NetworkTraffic.ChannelStatistics statistics = entry.getValue();
+			source.sendFeedback(new LiteralText(String.format(" - %s: received %d packets (%d bytes), sent %d packets (%d bytes), dropped %d packets",
+					entry.getKey(), statistics.getPacketsReceived(), statistics.getBytesReceived(),
+					statistics.getPacketsSent(), statistics.getBytesSent(), statistics.getPacketsDropped())), false);
+		}
+
+		return channels.size();
+	}
+
+	private static void showLoginLatency(ServerCommandSource source) {
+		ServerLoginNetworking.LoginLatency latency = ServerLoginNetworking.getLoginLatency();
+		StringBuilder builder = new StringBuilder(String.format("Login latency of %d logins:", latency.getLogins()));
+
+		for (ServerLoginNetworking.LoginPhase phase : ServerLoginNetworking.LoginPhase.values()) {
+			builder.append(String.format(" %s %.1f ms (max %.1f ms)", phase.name().toLowerCase(Locale.ROOT), latency.getAverageNanos(phase) / 1e6, latency.getMaxNanos(phase) / 1e6));
+		}
+
+		source.sendFeedback(new LiteralText(builder.toString()), false);
+	}
+}
@@ -16,13 +16,20 @@
 
 package net.fabricmc.fabric.impl.registry.sync;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ClientPlayNetworkHandler;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.text.LiteralText;
 
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.networking.v1.ClientLoginNetworking;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
 
 public class FabricRegistryClientInit implements ClientModInitializer {
 	private static final Logger LOGGER = LogManager.getLogger();
@@ -31,13 +38,26 @@ public class FabricRegistryClientInit implements ClientModInitializer {
 	public void onInitializeClient() {
 		ClientPlayNetworking.registerGlobalReceiver(RegistrySyncManager.ID, (client, handler, buf, responseSender) -> {
 			// if not hosting server, apply packet
-			RegistrySyncManager.receivePacket(client, buf, RegistrySyncManager.DEBUG || !client.isInSingleplayer(), (e) -> {
-				LOGGER.error("Registry remapping failed!", e);
+			RegistrySyncManager.receivePacket(client, buf, RegistrySyncManager.DEBUG || !client.isInSingleplayer(), (e) -> onRemapFailed(client, handler, e));
+		});
+
+		ClientPlayNetworking.registerGlobalReceiver(RegistrySyncManager.BINARY_ID, (client, handler, buf, responseSender) -> {
+			RegistrySyncManager.receiveBinaryPacket(client, buf, RegistrySyncManager.DEBUG || !client.isInSingleplayer(), (e) -> onRemapFailed(client, handler, e));
+		});
+
+		// Tell the server that the binary format is supported, and which id maps are cached.
+		ClientLoginNetworking.registerGlobalReceiver(RegistrySyncManager.BINARY_ID, (client, handler, buf, listenerAdder) -> {
+			PacketByteBuf response = PacketByteBufs.create();
+			RegistrySyncManager.writeBinaryQueryResponse(response);
+			return CompletableFuture.completedFuture(response);
+		});
+	}
+
+	private static void onRemapFailed(MinecraftClient client, ClientPlayNetworkHandler handler, Exception e) {
+		LOGGER.error("Registry remapping failed!", e);
 
-				client.execute(() -> {
-					handler.getConnection().disconnect(new LiteralText("Registry remapping failed: " + e.getMessage()));
-				});
-			});
+		client.execute(() -> {
+			handler.getConnection().disconnect(new LiteralText("Registry remapping failed: " + e.getMessage()));
 		});
 	}
 }
@@ -21,10 +21,22 @@ import net.minecraft.util.registry.Registry;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.event.registry.RegistryAttribute;
 import net.fabricmc.fabric.api.event.registry.RegistryAttributeHolder;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.fabricmc.fabric.api.networking.v1.ServerLoginConnectionEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerLoginNetworking;
 
 public class FabricRegistryInit implements ModInitializer {
 	@Override
 	public void onInitialize() {
+		// Ask logging in clients whether they support the binary sync format, and which id maps they have cached.
+		ServerLoginConnectionEvents.QUERY_START.register((handler, server, sender, synchronizer) -> {
+			sender.sendPacket(RegistrySyncManager.BINARY_ID, PacketByteBufs.empty());
+		});
+		ServerLoginNetworking.registerGlobalReceiver(RegistrySyncManager.BINARY_ID, (server, handler, understood, buf, synchronizer, responseSender) -> {
+			RegistrySyncManager.onBinaryQueryResponse(handler.connection, understood, buf);
+		});
+		ServerLoginConnectionEvents.DISCONNECT.register((handler, server) -> RegistrySyncManager.onLoginDisconnect(handler.connection));
+
 		// Synced in PlaySoundS2CPacket.
 		RegistryAttributeHolder.get(Registry.SOUND_EVENT)
 				.addAttribute(RegistryAttribute.SYNCED);
@@ -17,11 +17,8 @@
 package net.fabricmc.fabric.impl.registry.sync;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
 
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
@@ -31,7 +28,6 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import net.minecraft.nbt.CompoundTag;
-import net.minecraft.nbt.NbtIo;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.registry.DynamicRegistryManager;
 import net.minecraft.util.registry.MutableRegistry;
@@ -53,15 +49,34 @@ public class PersistentDynamicRegistryHandler {
 	public static void remapDynamicRegistries(DynamicRegistryManager.Impl dynamicRegistryManager, Path saveDir) {
 		LOGGER.debug("Starting registry remap");
 
+		CompoundTag existingData;
 		CompoundTag registryData;
 
 		try {
-			registryData = remapDynamicRegistries(dynamicRegistryManager, readCompoundTag(getDataPath(saveDir)));
+			existingData = RegistryIdMapStorage.read(getDataPath(saveDir));
+
+			if (existingData == null) {
+				existingData = RegistryIdMapStorage.readLegacy(getLegacyDataPath(saveDir));
+
+				if (existingData != null) {
+					LOGGER.info("Converting legacy dynamic registry data");
+				}
+			}
+
+			registryData = remapDynamicRegistries(dynamicRegistryManager, existingData);
 		} catch (RemapException | IOException e) {
 			throw new RuntimeException("Failed to read dynamic registry data", e);
 		}
 
-		writeCompoundTag(registryData, getDataPath(saveDir));
+		// Only rewrite the file when the ids changed, or to convert legacy data.
+		if (!registryData.equals(existingData) || !Files.exists(getDataPath(saveDir))) {
+			try {
+				RegistryIdMapStorage.write(getDataPath(saveDir), registryData);
+				RegistryIdMapStorage.retireLegacy(getLegacyDataPath(saveDir));
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
 	}
 
 	@NotNull
@@ -178,39 +193,10 @@ public class PersistentDynamicRegistryHandler {
 	}
 
 	private static Path getDataPath(Path saveDir) {
-		return saveDir.resolve("data").resolve("fabricDynamicRegistry.dat");
-	}
-
-	@Nullable
-	private static CompoundTag readCompoundTag(Path path) throws IOException {
-		if (!Files.exists(path)) {
-			return null;
-		}
-
-		try (InputStream inputStream = Files.newInputStream(path)) {
-			CompoundTag compoundTag = NbtIo.readCompressed(inputStream);
-
-			if (!compoundTag.contains("version") || !compoundTag.contains("registries") || compoundTag.getInt("version") != 1) {
-				throw new UnsupportedOperationException("Unsupported dynamic registry data format. Try updating?");
-			}
-
-			return compoundTag.getCompound("registries");
-		}
+		return saveDir.resolve("data").resolve("fabricDynamicRegistry.bin");
 	}
 
-	private static void writeCompoundTag(CompoundTag compoundTag, Path path) {
-		try {
-			Files.createDirectories(path.getParent());
-
-			try (OutputStream outputStream = Files.newOutputStream(path, StandardOpenOption.CREATE)) {
-				CompoundTag outputTag = new CompoundTag();
-				outputTag.putInt("version", 1);
-				outputTag.put("registries", compoundTag);
-
-				NbtIo.writeCompressed(outputTag, outputStream);
-			}
-		} catch (IOException e) {
-			throw new RuntimeException(e);
-		}
+	private static Path getLegacyDataPath(Path saveDir) {
+		return saveDir.resolve("data").resolve("fabricDynamicRegistry.dat");
 	}
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.registry.sync;
+
+import net.minecraft.util.Identifier;
+
+/**
+ * Order-independent 64-bit fingerprint of the id to raw id layout of a registry.
+ *
+ * <p>String ids without a namespace are hashed as if they had the {@code minecraft} namespace,
+ * so that the fingerprint of a saved id map can be computed from its keys without parsing them into identifiers.
+ */
+public final class RegistryFingerprint {
+	private static final String DEFAULT_NAMESPACE = "minecraft";
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private long sum = 0;
+	private int count = 0;
+
+	public void add(Identifier id, int rawId) {
+		long hash = hash(FNV_OFFSET_BASIS, id.getNamespace());
+		hash = (hash ^ ':') * FNV_PRIME;
+		this.add(hash(hash, id.getPath()), rawId);
+	}
+
+	public void add(String id, int rawId) {
+		long hash = FNV_OFFSET_BASIS;
+
+		if (id.indexOf(':') < 0) {
+			hash = hash(hash, DEFAULT_NAMESPACE);
+			hash = (hash ^ ':') * FNV_PRIME;
+		}
+
+		this.add(hash(hash, id), rawId);
+	}
+
+	private void add(long idHash, int rawId) {
+		this.sum += mix(idHash ^ (rawId * 0x9e3779b97f4a7c15L));
+		this.count++;
+	}
+
+	public long get() {
+		return mix(this.sum + mix(this.count));
+	}
+
+	private static long hash(long hash, String s) {
+		for (int i = 0; i < s.length(); i++) {
+			hash = (hash ^ s.charAt(i)) * FNV_PRIME;
+		}
+
+		return hash;
+	}
+
+	// Finalizer of SplitMix64.
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.registry.sync;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtIo;
+
+/**
+ * Reads and writes saved registry id maps, in the same {@code registry id -> (entry id -> raw id)} compound tag
+ * structure as the {@code registries} tag of the legacy NBT files.
+ *
+ * <p>The binary format is a string table followed by int arrays indexing it, all big-endian:
+ * <pre>
+ * int magic ("FRIM")
+ * int version
+ * int stringCount
+ * stringCount times: int length, UTF-8 bytes
+ * int registryCount
+ * registryCount times:
+ *   int registry id string index
+ *   int entryCount
+ *   int[entryCount] entry id string indices
+ *   int[entryCount] raw ids
+ * </pre>
+ *
+ * <p>Files are read with a single bulk read rather than memory-mapped: on Windows, a mapped file cannot be replaced or renamed
+ * until the mapping is garbage collected, which would break the atomic rewrite and the backup rotation.
+ * Files are written to a temporary file first, then moved over the previous one.
+ */
+public final class RegistryIdMapStorage {
+	private static final int MAGIC = 0x4652494d;
+	private static final int VERSION = 1;
+
+	private RegistryIdMapStorage() { }
+
+	/**
+	 * @return the registries tag read from a binary file, or {@code null} if the file doesn't exist
+	 */
+	@Nullable
+	public static CompoundTag read(Path path) throws IOException {
+		if (!Files.exists(path)) {
+			return null;
+		}
+
+		ByteBuffer buf;
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			buf = ByteBuffer.allocate((int) channel.size());
+
+			while (buf.hasRemaining() && channel.read(buf) >= 0) {
+				// read until the buffer is full
+			}
+
+			buf.flip();
+		}
+
+		try {
+			if (buf.getInt() != MAGIC) {
+				throw new IOException("Not a registry id map file: " + path);
+			}
+
+			int version = buf.getInt();
+
+			if (version != VERSION) {
+				throw new IOException("Unsupported registry id map format version " + version + " in " + path + ". Try updating?");
+			}
+
+			// Every count is checked against the remaining bytes before allocating, so that a corrupted count can't exhaust the memory
+			String[] strings = new String[readCount(buf, Integer.BYTES, path)];
+
+			for (int i = 0; i < strings.length; i++) {
+				byte[] bytes = new byte[readCount(buf, 1, path)];
+				buf.get(bytes);
+				strings[i] = new String(bytes, StandardCharsets.UTF_8);
+			}
+
+			CompoundTag registries = new CompoundTag();
+			int registryCount = buf.getInt();
+
+			for (int i = 0; i < registryCount; i++) {
+				String registryId = strings[buf.getInt()];
+				int[] ids = new int[readCount(buf, 2 * Integer.BYTES, path)];
+				CompoundTag registryTag = new CompoundTag();
+
+				for (int j = 0; j < ids.length; j++) {
+					ids[j] = buf.getInt();
+				}
+
+				for (int id : ids) {
+					registryTag.putInt(strings[id], buf.getInt());
+				}
+
+				registries.put(registryId, registryTag);
+			}
+
+			return registries;
+		} catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+			throw new IOException("Corrupted registry id map file: " + path, e);
+		}
+	}
+
+	/**
+	 * Reads the number of elements of an array, each taking at least {@code minElementSize} bytes.
+	 */
+	private static int readCount(ByteBuffer buf, int minElementSize, Path path) throws IOException {
+		int count = buf.getInt();
+
+		if (count < 0 || (long) count * minElementSize > buf.remaining()) {
+			throw new IOException("Corrupted registry id map file: " + path + ", invalid count " + count);
+		}
+
+		return count;
+	}
+
+	/**
+	 * @return the registries tag read from a legacy gzip-compressed NBT file, or {@code null} if the file doesn't exist
+	 */
+	@Nullable
+	public static CompoundTag readLegacy(Path path) throws IOException {
+		if (!Files.exists(path)) {
+			return null;
+		}
+
+		try (InputStream inputStream = Files.newInputStream(path)) {
+			CompoundTag tag = NbtIo.readCompressed(inputStream);
+
+			if (!tag.contains("version") || !tag.contains("registries") || tag.getInt("version") != 1) {
+				throw new IOException("Unsupported registry data format in " + path + ". Try updating?");
+			}
+
+			return tag.getCompound("registries");
+		}
+	}
+
+	/**
+	 * Rename a legacy file once its data was converted, so that a stale copy isn't read again if the binary file goes missing.
+	 */
+	public static void retireLegacy(Path path) throws IOException {
+		if (Files.exists(path)) {
+			Files.move(path, path.resolveSibling(path.getFileName() + ".old"), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Atomically write a registries tag to a binary file.
+	 */
+	public static void write(Path path, CompoundTag registries) throws IOException {
+		List<String> strings = new ArrayList<>();
+		Object2IntMap<String> stringIndices = new Object2IntOpenHashMap<>();
+		stringIndices.defaultReturnValue(-1);
+		// Sort the registries, so that the same maps always give the same file.
+		TreeSet<String> registryIds = new TreeSet<>(registries.getKeys());
+
+		for (String registryId : registryIds) {
+			addString(registryId, strings, stringIndices);
+
+			for (String id : registries.getCompound(registryId).getKeys()) {
+				addString(id, strings, stringIndices);
+			}
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		try (DataOutputStream output = new DataOutputStream(bytes)) {
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeInt(strings.size());
+
+			for (String string : strings) {
+				byte[] stringBytes = string.getBytes(StandardCharsets.UTF_8);
+				output.writeInt(stringBytes.length);
+				output.write(stringBytes);
+			}
+
+			output.writeInt(registryIds.size());
+
+			for (String registryId : registryIds) {
+				CompoundTag registryTag = registries.getCompound(registryId);
+				List<String> ids = new ArrayList<>(new TreeSet<>(registryTag.getKeys()));
+
+				output.writeInt(stringIndices.getInt(registryId));
+				output.writeInt(ids.size());
+
+				for (String id : ids) {
+					output.writeInt(stringIndices.getInt(id));
+				}
+
+				for (String id : ids) {
+					output.writeInt(registryTag.getInt(id));
+				}
+			}
+		}
+
+		Files.createDirectories(path.getParent());
+		Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+		Files.write(tempPath, bytes.toByteArray());
+
+		try {
+			Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static void addString(String string, List<String> strings, Object2IntMap<String> stringIndices) {
+		if (stringIndices.getInt(string) < 0) {
+			stringIndices.put(string, strings.size());
+			strings.add(string);
+		}
+	}
+}
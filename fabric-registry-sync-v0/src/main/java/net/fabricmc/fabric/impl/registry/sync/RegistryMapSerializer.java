@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2016, 2017, 2018, 2019 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.fabric.impl.registry.sync;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.Identifier;
+
+/**
+ * Compact binary form of the registry id maps, used to sync them to clients which support it.
+ *
+ * <p>For every registry, the entries are grouped by namespace, so that each namespace is written once,
+ * and sorted by raw id, so that each raw id is written as a small varint difference to the previous one:
+ * <pre>
+ * varint registryCount
+ * registryCount times:
+ *   identifier registryId
+ *   varint namespaceCount
+ *   namespaceCount times:
+ *     string namespace
+ *     varint entryCount
+ *     entryCount times:
+ *       varint rawId - previousRawId (previousRawId being 0 for the first entry of the namespace)
+ *       string path
+ * </pre>
+ */
+public final class RegistryMapSerializer {
+	private static final int MAX_STRING_LENGTH = 32767;
+
+	private RegistryMapSerializer() { }
+
+	public static void write(Map<Identifier, Object2IntMap<Identifier>> registries, PacketByteBuf buf) {
+		buf.writeVarInt(registries.size());
+
+		for (Map.Entry<Identifier, Object2IntMap<Identifier>> registry : registries.entrySet()) {
+			Map<String, List<Object2IntMap.Entry<Identifier>>> namespaces = new TreeMap<>();
+
+			for (Object2IntMap.Entry<Identifier> entry : registry.getValue().object2IntEntrySet()) {
+				namespaces.computeIfAbsent(entry.getKey().getNamespace(), namespace -> new ArrayList<>()).add(entry);
+			}
+
+			buf.writeIdentifier(registry.getKey());
+			buf.writeVarInt(namespaces.size());
+
+			for (Map.Entry<String, List<Object2IntMap.Entry<Identifier>>> namespace : namespaces.entrySet()) {
+				List<Object2IntMap.Entry<Identifier>> entries = namespace.getValue();
+				entries.sort(Comparator.comparingInt(Object2IntMap.Entry::getIntValue));
+				int previousRawId = 0;
+
+				buf.writeString(namespace.getKey());
+				buf.writeVarInt(entries.size());
+
+				for (Object2IntMap.Entry<Identifier> entry : entries) {
+					buf.writeVarInt(entry.getIntValue() - previousRawId);
+					buf.writeString(entry.getKey().getPath());
+					previousRawId = entry.getIntValue();
+				}
+			}
+		}
+	}
+
+	public static Map<Identifier, Object2IntMap<Identifier>> read(PacketByteBuf buf) {
+		int registryCount = buf.readVarInt();
+		Map<Identifier, Object2IntMap<Identifier>> registries = new LinkedHashMap<>(registryCount);
+
+		for (int i = 0; i < registryCount; i++) {
+			Identifier registryId = buf.readIdentifier();
+			int namespaceCount = buf.readVarInt();
+			Object2IntMap<Identifier> idMap = new Object2IntOpenHashMap<>();
+
+			for (int j = 0; j < namespaceCount; j++) {
+				String namespace = buf.readString(MAX_STRING_LENGTH);
+				int entryCount = buf.readVarInt();
+				int rawId = 0;
+
+				for (int k = 0; k < entryCount; k++) {
+					rawId += buf.readVarInt();
+					idMap.put(new Identifier(namespace, buf.readString(MAX_STRING_LENGTH)), rawId);
+				}
+			}
+
+			registries.put(registryId, idMap);
+		}
+
+		return registries;
+	}
+}
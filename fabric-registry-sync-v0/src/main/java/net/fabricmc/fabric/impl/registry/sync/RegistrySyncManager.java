@@ -20,24 +20,41 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
 import com.google.common.base.Joiner;
 import com.google.common.collect.Sets;
+import com.google.common.hash.Hashing;
 import io.netty.buffer.Unpooled;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMaps;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.Nullable;
 
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.ClientConnection;
 import net.minecraft.network.Packet;
 import net.minecraft.util.Identifier;
 import net.minecraft.network.PacketByteBuf;
@@ -51,12 +68,27 @@ import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
 public final class RegistrySyncManager {
 	static final boolean DEBUG = System.getProperty("fabric.registry.debug", "false").equalsIgnoreCase("true");
 	static final Identifier ID = new Identifier("fabric", "registry/sync");
+	/**
+	 * Id of the login query asking the client whether it supports the binary sync format, and which id map it has cached,
+	 * and of the play packet syncing the id maps in that format.
+	 */
+	static final Identifier BINARY_ID = new Identifier("fabric", "registry/sync/binary");
 	private static final Logger LOGGER = LogManager.getLogger("FabricRegistrySync");
 	private static final boolean DEBUG_WRITE_REGISTRY_DATA = System.getProperty("fabric.registry.debug.writeContentsAsCsv", "false").equalsIgnoreCase("true");
 
+	// Hash of the id map cached by each logging in client which supports the binary format, empty if it has none.
+	private static final Map<ClientConnection, OptionalLong> CLIENT_CACHED_HASHES = new ConcurrentHashMap<>();
+
 	//Set to true after vanilla's bootstrap has completed
 	public static boolean postBootstrap = false;
 
+	// Binary id maps to sync, built once and cleared whenever the ids change.
+	@Nullable
+	private static BinarySyncData binarySyncData;
+	// Last id maps received in the binary format, reused when the server says they didn't change.
+	@Nullable
+	private static volatile BinarySyncData clientCachedData;
+
 	private RegistrySyncManager() { }
 
 	public static Packet<?> createPacket() {
@@ -74,6 +106,141 @@ public final class RegistrySyncManager {
 		return ServerPlayNetworking.createS2CPacket(ID, buf);
 	}
 
+	/**
+	 * Creates the packet syncing the registry ids to a player, in the binary format if the client supports it.
+	 * If the client already has the same id maps cached, only their hash is sent.
+	 */
+	public static Packet<?> createPacket(ClientConnection connection) {
+		OptionalLong clientHash = CLIENT_CACHED_HASHES.remove(connection);
+
+		if (clientHash == null) {
+			return createPacket();
+		}
+
+		BinarySyncData data = getBinarySyncData();
+
+		if (data == null) {
+			return null;
+		}
+
+		boolean cached = clientHash.isPresent() && clientHash.getAsLong() == data.hash;
+		LOGGER.debug("Creating binary registry sync packet, client has it cached: {}", cached);
+
+		PacketByteBuf buf = new PacketByteBuf(Unpooled.buffer());
+		buf.writeBoolean(!cached);
+		buf.writeLong(data.hash);
+
+		if (!cached) {
+			buf.writeBytes(data.bytes);
+		}
+
+		return ServerPlayNetworking.createS2CPacket(BINARY_ID, buf);
+	}
+
+	private static synchronized BinarySyncData getBinarySyncData() {
+		if (binarySyncData == null) {
+			CompoundTag tag = toTag(true, null);
+
+			if (tag == null) {
+				return null;
+			}
+
+			CompoundTag mainTag = tag.getCompound("registries");
+			Map<Identifier, Object2IntMap<Identifier>> registries = new TreeMap<>(Comparator.comparing(Identifier::toString));
+
+			for (String registryId : mainTag.getKeys()) {
+				CompoundTag registryTag = mainTag.getCompound(registryId);
+				Object2IntMap<Identifier> idMap = new Object2IntOpenHashMap<>();
+
+				for (String key : registryTag.getKeys()) {
+					idMap.put(new Identifier(key), registryTag.getInt(key));
+				}
+
+				registries.put(new Identifier(registryId), idMap);
+			}
+
+			PacketByteBuf buf = new PacketByteBuf(Unpooled.buffer());
+			RegistryMapSerializer.write(registries, buf);
+			byte[] bytes = new byte[buf.readableBytes()];
+			buf.readBytes(bytes);
+			binarySyncData = new BinarySyncData(bytes, registries);
+			LOGGER.debug("Built binary registry sync data of {} bytes", bytes.length);
+		}
+
+		return binarySyncData;
+	}
+
+	private static synchronized void invalidateBinarySyncData() {
+		binarySyncData = null;
+	}
+
+	/**
+	 * Handles the response of a logging in client to the binary sync query.
+	 */
+	public static void onBinaryQueryResponse(ClientConnection connection, boolean understood, PacketByteBuf buf) {
+		if (understood) {
+			CLIENT_CACHED_HASHES.put(connection, buf.readBoolean() ? OptionalLong.of(buf.readLong()) : OptionalLong.empty());
+		}
+	}
+
+	public static void onLoginDisconnect(ClientConnection connection) {
+		CLIENT_CACHED_HASHES.remove(connection);
+	}
+
+	/**
+	 * Writes the response of the client to the binary sync query: the hash of the id maps it has cached, if any.
+	 */
+	public static void writeBinaryQueryResponse(PacketByteBuf buf) {
+		BinarySyncData cachedData = clientCachedData;
+		buf.writeBoolean(cachedData != null);
+
+		if (cachedData != null) {
+			buf.writeLong(cachedData.hash);
+		}
+	}
+
+	public static void receiveBinaryPacket(ThreadExecutor<?> executor, PacketByteBuf buf, boolean accept, Consumer<Exception> errorHandler) {
+		boolean full = buf.readBoolean();
+		long hash = buf.readLong();
+		BinarySyncData data;
+
+		if (full) {
+			byte[] bytes = new byte[buf.readableBytes()];
+			buf.readBytes(bytes);
+			data = new BinarySyncData(bytes, RegistryMapSerializer.read(new PacketByteBuf(Unpooled.wrappedBuffer(bytes))));
+
+			if (data.hash != hash) {
+				errorHandler.accept(new RemapException("Received corrupted registry sync packet!"));
+				return;
+			}
+
+			clientCachedData = data;
+		} else {
+			data = clientCachedData;
+
+			if (data == null || data.hash != hash) {
+				errorHandler.accept(new RemapException("Server assumed the registry sync data was cached, but it isn't!"));
+				return;
+			}
+		}
+
+		if (accept) {
+			try {
+				executor.submit(() -> {
+					try {
+						apply(data.registries, RemappableRegistry.RemapMode.REMOTE);
+					} catch (RemapException e) {
+						errorHandler.accept(e);
+					}
+
+					return null;
+				}).get(30, TimeUnit.SECONDS);
+			} catch (ExecutionException | InterruptedException | TimeoutException e) {
+				errorHandler.accept(e);
+			}
+		}
+	}
+
 	public static void receivePacket(ThreadExecutor<?> executor, PacketByteBuf buf, boolean accept, Consumer<Exception> errorHandler) {
 		CompoundTag compound = buf.readCompoundTag();
 
@@ -256,14 +423,73 @@ public final class RegistrySyncManager {
 
 	public static CompoundTag apply(CompoundTag tag, RemappableRegistry.RemapMode mode) throws RemapException {
 		CompoundTag mainTag = tag.getCompound("registries");
-		Set<String> containedRegistries = Sets.newHashSet(mainTag.getKeys());
+
+		apply(Sets.newHashSet(mainTag.getKeys()), registryId -> {
+			CompoundTag registryTag = mainTag.getCompound(registryId.toString());
+			RegistryFingerprint fingerprint = new RegistryFingerprint();
+
+			for (String key : registryTag.getKeys()) {
+				fingerprint.add(key, registryTag.getInt(key));
+			}
+
+			return fingerprint.get();
+		}, registryId -> {
+			CompoundTag registryTag = mainTag.getCompound(registryId.toString());
+			Object2IntMap<Identifier> idMap = new Object2IntOpenHashMap<>();
+
+			for (String key : registryTag.getKeys()) {
+				idMap.put(new Identifier(key), registryTag.getInt(key));
+			}
+
+			return idMap;
+		}, mode);
+
+		return mainTag;
+	}
+
+	private static void apply(Map<Identifier, Object2IntMap<Identifier>> registries, RemappableRegistry.RemapMode mode) throws RemapException {
+		Set<String> containedRegistries = new HashSet<>();
+
+		for (Identifier registryId : registries.keySet()) {
+			containedRegistries.add(registryId.toString());
+		}
+
+		apply(containedRegistries, registryId -> {
+			RegistryFingerprint fingerprint = new RegistryFingerprint();
+
+			for (Object2IntMap.Entry<Identifier> entry : Object2IntMaps.fastIterable(registries.get(registryId))) {
+				fingerprint.add(entry.getKey(), entry.getIntValue());
+			}
+
+			return fingerprint.get();
+		}, registryId -> {
+			// Copy the id maps, since remapping may add client only entries to them.
+			return new Object2IntOpenHashMap<>(registries.get(registryId));
+		}, mode);
+	}
+
+	/**
+	 * Remaps the registries to the given id maps.
+	 * Registries whose current layout has the same fingerprint as the id map are skipped,
+	 * since remapping them wouldn't change anything, but would still make every tracker rebuild its state.
+	 * This is the common case when loading a world again with the same mods, or joining a server with the same mods.
+	 *
+	 * <p>The id maps are built, validated and turned into the new layout of each registry in parallel on a small dedicated pool,
+	 * or on the calling thread when there are too few registries to remap for it to pay off.
+	 * Only then are the registries modified and the remap listeners notified, one registry at a time on the calling thread,
+	 * so that no registry is modified if any of them fails to remap.
+	 */
+	private static void apply(Set<String> containedRegistries, ToLongFunction<Identifier> fingerprints, Function<Identifier, Object2IntMap<Identifier>> idMaps, RemappableRegistry.RemapMode mode) throws RemapException {
+		invalidateBinarySyncData();
+
+		List<Identifier> remappedRegistryIds = new ArrayList<>();
+		List<FutureTask<Runnable>> remaps = new ArrayList<>();
 
 		for (Identifier registryId : Registry.REGISTRIES.getIds()) {
 			if (!containedRegistries.remove(registryId.toString())) {
 				continue;
 			}
 
-			CompoundTag registryTag = mainTag.getCompound(registryId.toString());
 			Registry registry = Registry.REGISTRIES.get(registryId);
 
 			RegistryAttributeHolder attributeHolder = RegistryAttributeHolder.get(registry);
@@ -274,24 +500,65 @@ public final class RegistrySyncManager {
 			}
 
 			if (registry instanceof RemappableRegistry) {
-				Object2IntMap<Identifier> idMap = new Object2IntOpenHashMap<>();
+				RemappableRegistry remappableRegistry = (RemappableRegistry) registry;
 
-				for (String key : registryTag.getKeys()) {
-					idMap.put(new Identifier(key), registryTag.getInt(key));
+				remappedRegistryIds.add(registryId);
+				remaps.add(new FutureTask<>(() -> {
+					long start = System.nanoTime();
+
+					if (remappableRegistry.fabric_getFingerprint() == fingerprints.applyAsLong(registryId)) {
+						LOGGER.debug("Not remapping unchanged registry {}", registryId);
+						return null;
+					}
+
+					Runnable remap = remappableRegistry.fabric_prepareRemap(registryId.toString(), idMaps.apply(registryId), mode);
+					LOGGER.debug("Prepared remap of registry {} in {} ms", registryId, (System.nanoTime() - start) / 1000000);
+					return remap;
+				}));
+			}
+		}
+
+		for (FutureTask<Runnable> remap : remaps) {
+			if (remaps.size() < RemapExecutor.MIN_PARALLEL_REMAPS) {
+				remap.run();
+			} else {
+				RemapExecutor.EXECUTOR.execute(remap);
+			}
+		}
+
+		List<Runnable> preparedRemaps = new ArrayList<>(remaps.size());
+
+		for (FutureTask<Runnable> remap : remaps) {
+			try {
+				preparedRemaps.add(remap.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RemapException("Interrupted while preparing the remap", e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RemapException) {
+					throw (RemapException) e.getCause();
 				}
 
-				((RemappableRegistry) registry).remap(registryId.toString(), idMap, mode);
+				throw new RemapException("Failed to prepare the remap", e.getCause());
+			}
+		}
+
+		for (int i = 0; i < preparedRemaps.size(); i++) {
+			if (preparedRemaps.get(i) != null) {
+				long start = System.nanoTime();
+				preparedRemaps.get(i).run();
+				LOGGER.debug("Remapped registry {} in {} ms", remappedRegistryIds.get(i), (System.nanoTime() - start) / 1000000);
 			}
 		}
 
 		if (!containedRegistries.isEmpty()) {
 			LOGGER.warn("[fabric-registry-sync] Could not find the following registries: " + Joiner.on(", ").join(containedRegistries));
 		}
-
-		return mainTag;
 	}
 
 	public static void unmap() throws RemapException {
+		invalidateBinarySyncData();
+
 		for (Identifier registryId : Registry.REGISTRIES.getIds()) {
 			Registry registry = Registry.REGISTRIES.get(registryId);
 
@@ -304,4 +571,37 @@ public final class RegistrySyncManager {
 	public static void bootstrapRegistries() {
 		postBootstrap = true;
 	}
+
+	private static final class BinarySyncData {
+		final byte[] bytes;
+		final long hash;
+		final Map<Identifier, Object2IntMap<Identifier>> registries;
+
+		BinarySyncData(byte[] bytes, Map<Identifier, Object2IntMap<Identifier>> registries) {
+			this.bytes = bytes;
+			this.hash = Hashing.murmur3_128().hashBytes(bytes).asLong();
+			this.registries = registries;
+		}
+	}
+
+	/**
+	 * Pool preparing the remaps of registries in parallel, created on first use.
+	 * It has its own few daemon threads, so that remapping doesn't compete with other users of the common fork-join pool.
+	 */
+	private static final class RemapExecutor {
+		static final int MIN_PARALLEL_REMAPS = 3;
+		private static final int THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+		private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+		static final ThreadPoolExecutor EXECUTOR;
+
+		static {
+			EXECUTOR = new ThreadPoolExecutor(THREADS, THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+				Thread thread = new Thread(runnable, "Fabric Registry Remap Worker #" + THREAD_COUNTER.getAndIncrement());
+				thread.setDaemon(true);
+				return thread;
+			});
+			// Remapping only happens when loading a world or joining a server.
+			EXECUTOR.allowCoreThreadTimeOut(true);
+		}
+	}
 }
@@ -17,42 +17,63 @@
 package net.fabricmc.fabric.impl.registry.sync;
 
 import it.unimi.dsi.fastutil.ints.Int2IntMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
 
 import net.minecraft.util.Identifier;
 import net.minecraft.util.registry.Registry;
 
 import net.fabricmc.fabric.api.event.registry.RegistryIdRemapCallback;
 
+/**
+ * The remap state is backed by the permutation of the raw ids, which trackers can use directly to rebuild their state in linear time.
+ * The raw id change map of the API is only built when it is requested.
+ */
 public class RemapStateImpl<T> implements RegistryIdRemapCallback.RemapState<T> {
-	private final Int2IntMap rawIdChangeMap;
-	private final Int2ObjectMap<Identifier> oldIdMap;
-	private final Int2ObjectMap<Identifier> newIdMap;
-
-	public RemapStateImpl(Registry<T> registry, Int2ObjectMap<Identifier> oldIdMap, Int2IntMap rawIdChangeMap) {
-		this.rawIdChangeMap = rawIdChangeMap;
-		this.oldIdMap = oldIdMap;
-		this.newIdMap = new Int2ObjectOpenHashMap<>();
-
-		for (Int2IntMap.Entry entry : rawIdChangeMap.int2IntEntrySet()) {
-			Identifier id = registry.getId(registry.get(entry.getIntValue()));
-			newIdMap.put(entry.getIntValue(), id);
-		}
+	private final Registry<T> registry;
+	private final Identifier[] oldIds;
+	private final int[] newRawIds;
+	private Int2IntMap rawIdChangeMap;
+
+	/**
+	 * @param oldIds the id of every entry, indexed by its old raw id
+	 * @param newRawIds the new raw id of every entry, indexed by its old raw id, or -1 if the entry didn't get a new raw id
+	 */
+	public RemapStateImpl(Registry<T> registry, Identifier[] oldIds, int[] newRawIds) {
+		this.registry = registry;
+		this.oldIds = oldIds;
+		this.newRawIds = newRawIds;
+	}
+
+	/**
+	 * @return the new raw id of every entry, indexed by its old raw id, or -1 if the entry didn't get a new raw id.
+	 * The returned array must not be modified.
+	 */
+	public int[] getNewRawIds() {
+		return newRawIds;
 	}
 
 	@Override
 	public Int2IntMap getRawIdChangeMap() {
+		if (rawIdChangeMap == null) {
+			rawIdChangeMap = new Int2IntOpenHashMap(newRawIds.length);
+
+			for (int oldRawId = 0; oldRawId < newRawIds.length; oldRawId++) {
+				if (newRawIds[oldRawId] >= 0) {
+					rawIdChangeMap.put(oldRawId, newRawIds[oldRawId]);
+				}
+			}
+		}
+
 		return rawIdChangeMap;
 	}
 
 	@Override
 	public Identifier getIdFromOld(int oldRawId) {
-		return oldIdMap.get(oldRawId);
+		return oldRawId >= 0 && oldRawId < oldIds.length ? oldIds[oldRawId] : null;
 	}
 
 	@Override
 	public Identifier getIdFromNew(int newRawId) {
-		return newIdMap.get(newRawId);
+		return registry.getId(registry.get(newRawId));
 	}
 }
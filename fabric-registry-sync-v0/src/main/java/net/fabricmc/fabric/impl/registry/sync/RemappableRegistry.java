@@ -45,5 +45,18 @@ public interface RemappableRegistry {
 
 	void remap(String name, Object2IntMap<Identifier> remoteIndexedEntries, RemapMode mode) throws RemapException;
 
+	/**
+	 * Validates a remap and computes the new layout of the registry, without modifying it.
+	 * Different registries may be prepared in parallel, as long as none of them is modified at the same time.
+	 *
+	 * @return the task applying the remap to the registry and notifying the remap listeners, which must be run on the thread owning the registries
+	 */
+	Runnable fabric_prepareRemap(String name, Object2IntMap<Identifier> remoteIndexedEntries, RemapMode mode) throws RemapException;
+
 	void unmap(String name) throws RemapException;
+
+	/**
+	 * @return the {@link RegistryFingerprint fingerprint} of the current id to raw id layout of the registry
+	 */
+	long fabric_getFingerprint();
 }
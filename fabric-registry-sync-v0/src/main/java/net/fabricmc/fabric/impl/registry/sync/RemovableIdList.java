@@ -16,6 +16,8 @@
 
 package net.fabricmc.fabric.impl.registry.sync;
 
+import java.util.Collection;
+
 import it.unimi.dsi.fastutil.ints.Int2IntMap;
 
 public interface RemovableIdList<T> {
@@ -24,4 +26,27 @@ public interface RemovableIdList<T> {
 	void fabric_removeId(int i);
 	void fabric_remapId(int from, int to);
 	void fabric_remapIds(Int2IntMap map);
+
+	/**
+	 * Remap all ids at once, in linear time.
+	 *
+	 * @param newIds the new id of every value, indexed by its old id, or -1 to keep its id
+	 */
+	void fabric_remapIds(int[] newIds);
+
+	/**
+	 * Insert values at consecutive ids, shifting the ids of the values after them up.
+	 *
+	 * @param index the id of the first inserted value
+	 * @param values the values to insert
+	 */
+	void fabric_insert(int index, Collection<T> values);
+
+	/**
+	 * Remove values at consecutive ids, shifting the ids of the values after them down.
+	 *
+	 * @param index the id of the first removed value
+	 * @param count the number of values to remove
+	 */
+	void fabric_removeRange(int index, int count);
 }
@@ -26,6 +26,7 @@ import net.minecraft.util.registry.Registry;
 import net.fabricmc.fabric.api.event.registry.RegistryEntryAddedCallback;
 import net.fabricmc.fabric.api.event.registry.RegistryEntryRemovedCallback;
 import net.fabricmc.fabric.api.event.registry.RegistryIdRemapCallback;
+import net.fabricmc.fabric.impl.registry.sync.RemapStateImpl;
 import net.fabricmc.fabric.impl.registry.sync.RemovableIdList;
 
 public class IdListTracker<V, OV> implements RegistryEntryAddedCallback<V>, RegistryIdRemapCallback<V>, RegistryEntryRemovedCallback<V> {
@@ -55,7 +56,11 @@ public class IdListTracker<V, OV> implements RegistryEntryAddedCallback<V>, Regi
 	@SuppressWarnings("unchecked")
 	@Override
 	public void onRemap(RemapState<V> state) {
-		((RemovableIdList<OV>) mappers).fabric_remapIds(state.getRawIdChangeMap());
+		if (state instanceof RemapStateImpl) {
+			((RemovableIdList<OV>) mappers).fabric_remapIds(((RemapStateImpl<V>) state).getNewRawIds());
+		} else {
+			((RemovableIdList<OV>) mappers).fabric_remapIds(state.getRawIdChangeMap());
+		}
 	}
 
 	@Override
@@ -16,6 +16,7 @@
 
 package net.fabricmc.fabric.impl.registry.sync.trackers;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.function.Function;
 
@@ -29,19 +30,34 @@ import net.minecraft.util.Identifier;
 import net.minecraft.util.registry.Registry;
 
 import net.fabricmc.fabric.api.event.registry.RegistryEntryAddedCallback;
+import net.fabricmc.fabric.api.event.registry.RegistryEntryRemovedCallback;
 import net.fabricmc.fabric.api.event.registry.RegistryIdRemapCallback;
 import net.fabricmc.fabric.impl.registry.sync.RemovableIdList;
 
-public final class StateIdTracker<T, S> implements RegistryIdRemapCallback<T>, RegistryEntryAddedCallback<T> {
+/**
+ * Keeps the state id list of a registry in sync with it: the states of every entry are laid out consecutively, in raw id order.
+ *
+ * <p>The state ids must stay contiguous and in raw id order, since the client and the server compute them independently,
+ * and the global palette sizes its ids from the number of states. So instead of reserving gaps,
+ * out-of-order additions insert the states of the entry at their position and shift the states after them.
+ * This costs time proportional to the number of states after that position, which is still far cheaper than
+ * rebuilding the whole list, since the states of the other entries don't need to be collected and sorted again.
+ * Entries added in raw id order only append their states, in time proportional to their own number of states.
+ */
+public final class StateIdTracker<T, S> implements RegistryIdRemapCallback<T>, RegistryEntryAddedCallback<T>, RegistryEntryRemovedCallback<T> {
 	private final Logger logger = LogManager.getLogger();
 	private final Registry<T> registry;
 	private final IdList<S> stateList;
 	private final Function<T, Collection<S>> stateGetter;
 	private int currentHighestId = 0;
+	// Number of states of the entry at every raw id.
+	private int[] stateCounts = new int[0];
+	private int totalStates = 0;
 
 	public static <T, S> void register(Registry<T> registry, IdList<S> stateList, Function<T, Collection<S>> stateGetter) {
 		StateIdTracker<T, S> tracker = new StateIdTracker<>(registry, stateList, stateGetter);
 		RegistryEntryAddedCallback.event(registry).register(tracker);
+		RegistryEntryRemovedCallback.event(registry).register(tracker);
 		RegistryIdRemapCallback.event(registry).register(tracker);
 	}
 
@@ -50,17 +66,38 @@ public final class StateIdTracker<T, S> implements RegistryIdRemapCallback<T>, R
 		this.stateList = stateList;
 		this.stateGetter = stateGetter;
 
-		recalcHighestId();
+		recalcStateCounts();
 	}
 
+	@SuppressWarnings("unchecked")
 	@Override
 	public void onEntryAdded(int rawId, Identifier id, T object) {
-		if (rawId == currentHighestId + 1) {
-			stateGetter.apply(object).forEach(stateList::add);
-			currentHighestId = rawId;
+		Collection<S> states = stateGetter.apply(object);
+		ensureCapacity(rawId + 1);
+
+		if (stateCounts[rawId] != 0) {
+			// The states of this entry are already there, for example because a remap added the entry back before notifying.
+			removeStates(rawId);
+		}
+
+		// Entries added after every other one, the common case, append their states without summing the state counts.
+		int index = rawId > currentHighestId ? totalStates : getFirstStateIndex(rawId);
+
+		if (index == totalStates) {
+			states.forEach(stateList::add);
 		} else {
-			logger.debug("[fabric-registry-sync] Non-sequential RegistryEntryAddedCallback for " + object.getClass().getSimpleName() + " ID tracker (at " + id + "), forcing state map recalculation...");
-			recalcStateMap();
+			logger.debug("[fabric-registry-sync] Non-sequential RegistryEntryAddedCallback for " + object.getClass().getSimpleName() + " ID tracker (at " + id + "), inserting its states at " + index);
+			((RemovableIdList<S>) stateList).fabric_insert(index, states);
+		}
+
+		addStateCount(rawId, states.size());
+		currentHighestId = Math.max(currentHighestId, rawId);
+	}
+
+	@Override
+	public void onEntryRemoved(int rawId, Identifier id, T object) {
+		if (rawId < stateCounts.length && stateCounts[rawId] != 0) {
+			removeStates(rawId);
 		}
 	}
 
@@ -69,28 +106,89 @@ public final class StateIdTracker<T, S> implements RegistryIdRemapCallback<T>, R
 		recalcStateMap();
 	}
 
+	private void removeStates(int rawId) {
+		int count = stateCounts[rawId];
+		((RemovableIdList<?>) stateList).fabric_removeRange(getFirstStateIndex(rawId), count);
+		addStateCount(rawId, -count);
+	}
+
 	private void recalcStateMap() {
 		((RemovableIdList<?>) stateList).fabric_clear();
 
-		Int2ObjectMap<T> sortedBlocks = new Int2ObjectRBTreeMap<>();
+		// Simple registries iterate in raw id order, so the states can be added directly without sorting.
+		currentHighestId = -1;
+		boolean sorted = true;
 
-		currentHighestId = 0;
-		registry.forEach((t) -> {
-			int rawId = registry.getRawId(t);
-			currentHighestId = Math.max(currentHighestId, rawId);
-			sortedBlocks.put(rawId, t);
-		});
-
-		for (T b : sortedBlocks.values()) {
-			stateGetter.apply(b).forEach(stateList::add);
+		for (T object : registry) {
+			int rawId = registry.getRawId(object);
+
+			if (rawId < currentHighestId) {
+				sorted = false;
+				break;
+			}
+
+			currentHighestId = rawId;
+			stateGetter.apply(object).forEach(stateList::add);
+		}
+
+		if (!sorted) {
+			((RemovableIdList<?>) stateList).fabric_clear();
+			Int2ObjectMap<T> sortedBlocks = new Int2ObjectRBTreeMap<>();
+
+			currentHighestId = 0;
+			registry.forEach((t) -> {
+				int rawId = registry.getRawId(t);
+				currentHighestId = Math.max(currentHighestId, rawId);
+				sortedBlocks.put(rawId, t);
+			});
+
+			for (T b : sortedBlocks.values()) {
+				stateGetter.apply(b).forEach(stateList::add);
+			}
 		}
+
+		recalcStateCounts();
 	}
 
-	private void recalcHighestId() {
+	private void recalcStateCounts() {
 		currentHighestId = 0;
 
 		for (T object : registry) {
 			currentHighestId = Math.max(currentHighestId, registry.getRawId(object));
 		}
+
+		stateCounts = new int[currentHighestId + 1];
+		totalStates = 0;
+
+		for (T object : registry) {
+			int count = stateGetter.apply(object).size();
+			stateCounts[registry.getRawId(object)] = count;
+			totalStates += count;
+		}
+	}
+
+	private void ensureCapacity(int size) {
+		if (size > stateCounts.length) {
+			stateCounts = Arrays.copyOf(stateCounts, Math.max(size, stateCounts.length * 2));
+		}
+	}
+
+	private void addStateCount(int rawId, int delta) {
+		stateCounts[rawId] += delta;
+		totalStates += delta;
+	}
+
+	/**
+	 * @return the number of states of all entries before this raw id, which is the id of the first state of the entry at this raw id
+	 */
+	private int getFirstStateIndex(int rawId) {
+		// A plain prefix sum is enough, since shifting the states after the entry costs more anyway.
+		int index = 0;
+
+		for (int i = Math.min(rawId, stateCounts.length) - 1; i >= 0; i--) {
+			index += stateCounts[i];
+		}
+
+		return index;
 	}
 }
@@ -17,6 +17,7 @@
 package net.fabricmc.fabric.mixin.registry.sync;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.IdentityHashMap;
 import java.util.List;
 
@@ -83,6 +84,82 @@ public class MixinIdList<T> implements RemovableIdList<T> {
 		fabric_remapIds(Int2IntMaps.singleton(from, to));
 	}
 
+	@Override
+	public void fabric_remapIds(int[] newIds) {
+		idMap.replaceAll((a, b) -> b < newIds.length && newIds[b] >= 0 ? newIds[b] : b);
+
+		List<T> oldList = new ArrayList<>(list);
+		list.clear();
+		nextId = 0;
+
+		for (int k = 0; k < oldList.size(); k++) {
+			T o = oldList.get(k);
+
+			if (o != null) {
+				int i = k < newIds.length && newIds[k] >= 0 ? newIds[k] : k;
+
+				while (list.size() <= i) {
+					list.add(null);
+				}
+
+				list.set(i, o);
+
+				if (nextId <= i) {
+					nextId = i + 1;
+				}
+			}
+		}
+	}
+
+	@Override
+	public void fabric_insert(int index, Collection<T> values) {
+		int count = values.size();
+
+		while (list.size() < index) {
+			list.add(null);
+		}
+
+		for (int i = index; i < list.size(); i++) {
+			T o = list.get(i);
+
+			if (o != null) {
+				idMap.put(o, i + count);
+			}
+		}
+
+		list.addAll(index, values);
+		int i = index;
+
+		for (T o : values) {
+			idMap.put(o, i++);
+		}
+
+		nextId = Math.max(nextId, index) + count;
+	}
+
+	@Override
+	public void fabric_removeRange(int index, int count) {
+		List<T> removed = list.subList(index, index + count);
+
+		for (T o : removed) {
+			if (o != null) {
+				idMap.remove(o);
+			}
+		}
+
+		removed.clear();
+
+		for (int i = index; i < list.size(); i++) {
+			T o = list.get(i);
+
+			if (o != null) {
+				idMap.put(o, i);
+			}
+		}
+
+		nextId = Math.max(nextId - count, index);
+	}
+
 	@Override
 	public void fabric_remapIds(Int2IntMap map) {
 		// remap idMap
@@ -17,18 +17,14 @@
 package net.fabricmc.fabric.mixin.registry.sync;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
 import com.mojang.serialization.Lifecycle;
-import it.unimi.dsi.fastutil.ints.Int2IntMap;
-import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMaps;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectList;
 import org.apache.logging.log4j.LogManager;
@@ -52,6 +48,7 @@ import net.fabricmc.fabric.api.event.registry.RegistryEntryAddedCallback;
 import net.fabricmc.fabric.api.event.registry.RegistryEntryRemovedCallback;
 import net.fabricmc.fabric.api.event.registry.RegistryIdRemapCallback;
 import net.fabricmc.fabric.impl.registry.sync.ListenableRegistry;
+import net.fabricmc.fabric.impl.registry.sync.RegistryFingerprint;
 import net.fabricmc.fabric.impl.registry.sync.RemapException;
 import net.fabricmc.fabric.impl.registry.sync.RemapStateImpl;
 import net.fabricmc.fabric.impl.registry.sync.RemappableRegistry;
@@ -80,7 +77,7 @@ public abstract class MixinIdRegistry<T> extends Registry<T> implements Remappab
 	}
 
 	@Unique
-	private final Event<RegistryEntryAddedCallback<T>> fabric_addObjectEvent = EventFactory.createArrayBacked(RegistryEntryAddedCallback.class,
+	private final Event<RegistryEntryAddedCallback<T>> fabric_addObjectEvent = EventFactory.createUnrolled(RegistryEntryAddedCallback.class,
 			(callbacks) -> (rawId, id, object) -> {
 				for (RegistryEntryAddedCallback<T> callback : callbacks) {
 					callback.onEntryAdded(rawId, id, object);
@@ -110,6 +107,10 @@ public abstract class MixinIdRegistry<T> extends Registry<T> implements Remappab
 	private Object2IntMap<Identifier> fabric_prevIndexedEntries;
 	@Unique
 	private BiMap<Identifier, T> fabric_prevEntries;
+	@Unique
+	private long fabric_fingerprint;
+	@Unique
+	private boolean fabric_fingerprintValid = false;
 
 	@Override
 	public Event<RegistryEntryAddedCallback<T>> fabric_getAddObjectEvent() {
@@ -160,6 +161,8 @@ public abstract class MixinIdRegistry<T> extends Registry<T> implements Remappab
 
 	@Inject(method = "set(ILnet/minecraft/util/registry/RegistryKey;Ljava/lang/Object;Lcom/mojang/serialization/Lifecycle;Z)Ljava/lang/Object;", at = @At("RETURN"))
 	public void setPost(int id, RegistryKey<T> registryId, T object, Lifecycle lifecycle, boolean checkDuplicateKeys, CallbackInfoReturnable<T> info) {
+		fabric_fingerprintValid = false;
+
 		if (fabric_isObjectNew) {
 			fabric_addObjectEvent.invoker().onEntryAdded(id, registryId.getValue(), object);
 		}
@@ -167,6 +170,11 @@ public abstract class MixinIdRegistry<T> extends Registry<T> implements Remappab
 
 	@Override
 	public void remap(String name, Object2IntMap<Identifier> remoteIndexedEntries, RemapMode mode) throws RemapException {
+		fabric_prepareRemap(name, remoteIndexedEntries, mode).run();
+	}
+
+	@Override
+	public Runnable fabric_prepareRemap(String name, Object2IntMap<Identifier> remoteIndexedEntries, RemapMode mode) throws RemapException {
 		// Throw on invalid conditions.
 		switch (mode) {
 		case AUTHORITATIVE:
@@ -225,39 +233,16 @@ public abstract class MixinIdRegistry<T> extends Registry<T> implements Remappab
 		}
 		}
 
-		// Make a copy of the previous maps.
-		// For now, only one is necessary - on an integrated server scenario,
-		// AUTHORITATIVE == CLIENT, which is fine.
-		// The reason we preserve the first one is because it contains the
-		// vanilla order of IDs before mods, which is crucial for vanilla server
-		// compatibility.
-		if (fabric_prevIndexedEntries == null) {
-			fabric_prevIndexedEntries = new Object2IntOpenHashMap<>();
-			fabric_prevEntries = HashBiMap.create(idToEntry);
-
-			for (T o : this) {
-				fabric_prevIndexedEntries.put(getId(o), getRawId(o));
-			}
-		}
-
-		Int2ObjectMap<Identifier> oldIdMap = new Int2ObjectOpenHashMap<>();
-
-		for (T o : this) {
-			oldIdMap.put(getRawId(o), getId(o));
-		}
-
 		// If we're AUTHORITATIVE, we append entries which only exist on the
 		// local side to the new entry list. For REMOTE, we instead drop them.
 		switch (mode) {
 		case AUTHORITATIVE: {
 			int maxValue = 0;
 
-			Object2IntMap<Identifier> oldRemoteIndexedEntries = remoteIndexedEntries;
-			remoteIndexedEntries = new Object2IntOpenHashMap<>();
+			// Don't modify the map of the caller.
+			remoteIndexedEntries = new Object2IntOpenHashMap<>(remoteIndexedEntries);
 
-			for (Identifier id : oldRemoteIndexedEntries.keySet()) {
-				int v = oldRemoteIndexedEntries.getInt(id);
-				remoteIndexedEntries.put(id, v);
+			for (int v : remoteIndexedEntries.values()) {
 				if (v > maxValue) maxValue = v;
 			}
 
@@ -298,28 +283,20 @@ public abstract class MixinIdRegistry<T> extends Registry<T> implements Remappab
 		}
 		}
 
-		Int2IntMap idMap = new Int2IntOpenHashMap();
-
-		for (T o : rawIdToEntry) {
-			Identifier id = getId(o);
-			int rid = getRawId(o);
+		// Lay the entries out at their new raw ids in a single pass, instead of sorting them.
+		int maxRemoteId = -1;
 
-			// see above note
-			if (remoteIndexedEntries.containsKey(id)) {
-				idMap.put(rid, remoteIndexedEntries.getInt(id));
-			}
+		for (int id : remoteIndexedEntries.values()) {
+			if (id > maxRemoteId) maxRemoteId = id;
 		}
 
-		// entries was handled above, if it was necessary.
-		rawIdToEntry.clear();
-		entryToRawId.clear();
-		nextId = 0;
-
-		List<Identifier> orderedRemoteEntries = new ArrayList<>(remoteIndexedEntries.keySet());
-		orderedRemoteEntries.sort(Comparator.comparingInt(remoteIndexedEntries::getInt));
+		@SuppressWarnings("unchecked")
+		T[] newEntries = (T[]) new Object[maxRemoteId + 1];
+		int newSize = 0;
 
-		for (Identifier identifier : orderedRemoteEntries) {
-			int id = remoteIndexedEntries.getInt(identifier);
+		for (Object2IntMap.Entry<Identifier> entry : Object2IntMaps.fastIterable(remoteIndexedEntries)) {
+			Identifier identifier = entry.getKey();
+			int id = entry.getIntValue();
 			T object = idToEntry.get(identifier);
 
 			// Warn if an object is missing from the local registry.
@@ -335,17 +312,78 @@ public abstract class MixinIdRegistry<T> extends Registry<T> implements Remappab
 				continue;
 			}
 
-			// Add the new object, increment nextId to match.
-			rawIdToEntry.size(Math.max(this.rawIdToEntry.size(), id + 1));
-			rawIdToEntry.set(id, object);
-			entryToRawId.put(object, id);
+			newEntries[id] = object;
+			newSize = Math.max(newSize, id + 1);
+		}
+
+		// The permutation handed to the trackers: the new raw id of every entry, indexed by its old raw id.
+		int oldSize = rawIdToEntry.size();
+		Identifier[] oldIds = new Identifier[oldSize];
+		int[] newRawIds = new int[oldSize];
 
-			if (nextId <= id) {
-				nextId = id + 1;
+		for (int rid = 0; rid < oldSize; rid++) {
+			T o = rawIdToEntry.get(rid);
+			Identifier id = o == null ? null : getId(o);
+			oldIds[rid] = id;
+
+			// see above note
+			newRawIds[rid] = id != null && remoteIndexedEntries.containsKey(id) ? remoteIndexedEntries.getInt(id) : -1;
+		}
+
+		// Everything above only read the registry, the rest modifies it.
+		final int finalNewSize = newSize;
+
+		return () -> {
+			// Make a copy of the previous maps.
+			// For now, only one is necessary - on an integrated server scenario,
+			// AUTHORITATIVE == CLIENT, which is fine.
+			// The reason we preserve the first one is because it contains the
+			// vanilla order of IDs before mods, which is crucial for vanilla server
+			// compatibility.
+			if (fabric_prevIndexedEntries == null) {
+				fabric_prevIndexedEntries = new Object2IntOpenHashMap<>();
+				fabric_prevEntries = HashBiMap.create(idToEntry);
+
+				for (T o : this) {
+					fabric_prevIndexedEntries.put(getId(o), getRawId(o));
+				}
+			}
+
+			// entries was handled above, if it was necessary.
+			rawIdToEntry.clear();
+			entryToRawId.clear();
+			rawIdToEntry.size(finalNewSize);
+
+			for (int id = 0; id < finalNewSize; id++) {
+				T object = newEntries[id];
+
+				if (object != null) {
+					rawIdToEntry.set(id, object);
+					entryToRawId.put(object, id);
+				}
 			}
+
+			nextId = finalNewSize;
+			fabric_fingerprintValid = false;
+
+			fabric_getRemapEvent().invoker().onRemap(new RemapStateImpl<>(this, oldIds, newRawIds));
+		};
+	}
+
+	@Override
+	public long fabric_getFingerprint() {
+		if (!fabric_fingerprintValid) {
+			RegistryFingerprint fingerprint = new RegistryFingerprint();
+
+			for (T o : this) {
+				fingerprint.add(getId(o), getRawId(o));
+			}
+
+			fabric_fingerprint = fingerprint.get();
+			fabric_fingerprintValid = true;
 		}
 
-		fabric_getRemapEvent().invoker().onRemap(new RemapStateImpl<>(this, oldIdMap, idMap));
+		return fabric_fingerprint;
 	}
 
 	@Override
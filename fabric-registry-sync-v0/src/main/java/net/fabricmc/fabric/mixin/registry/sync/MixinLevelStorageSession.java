@@ -17,9 +17,7 @@
 package net.fabricmc.fabric.mixin.registry.sync;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -36,11 +34,11 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 import net.minecraft.nbt.CompoundTag;
-import net.minecraft.nbt.NbtIo;
 import net.minecraft.world.SaveProperties;
 import net.minecraft.world.level.storage.LevelStorage;
 import net.minecraft.util.registry.DynamicRegistryManager;
 
+import net.fabricmc.fabric.impl.registry.sync.RegistryIdMapStorage;
 import net.fabricmc.fabric.impl.registry.sync.RegistrySyncManager;
 import net.fabricmc.fabric.impl.registry.sync.RemapException;
 import net.fabricmc.fabric.impl.registry.sync.RemappableRegistry;
@@ -61,18 +59,21 @@ public class MixinLevelStorageSession {
 	private Path directory;
 
 	@Unique
-	private boolean fabric_readIdMapFile(File file) throws IOException, RemapException {
+	private boolean fabric_readIdMapFile(int i, boolean legacy) throws IOException, RemapException {
+		File file = legacy ? fabric_getLegacyWorldIdMapFile(i) : fabric_getWorldIdMapFile(i);
 		FABRIC_LOGGER.debug("Reading registry data from " + file.toString());
 
-		if (file.exists()) {
-			FileInputStream fileInputStream = new FileInputStream(file);
-			CompoundTag tag = NbtIo.readCompressed(fileInputStream);
-			fileInputStream.close();
+		CompoundTag registries = legacy ? RegistryIdMapStorage.readLegacy(file.toPath()) : RegistryIdMapStorage.read(file.toPath());
 
-			if (tag != null) {
-				fabric_activeTag = RegistrySyncManager.apply(tag, RemappableRegistry.RemapMode.AUTHORITATIVE);
-				return true;
-			}
+		if (registries != null) {
+			CompoundTag tag = new CompoundTag();
+			tag.putInt("version", 1);
+			tag.put("registries", registries);
+
+			fabric_activeTag = RegistrySyncManager.apply(tag, RemappableRegistry.RemapMode.AUTHORITATIVE);
+			// Legacy files and backups are replaced by the next save, the primary file is only rewritten once the ids change.
+			fabric_lastSavedIdMap = !legacy && i == 0 ? tag : null;
+			return true;
 		}
 
 		return false;
@@ -80,17 +81,36 @@ public class MixinLevelStorageSession {
 
 	@Unique
 	private File fabric_getWorldIdMapFile(int i) {
+		return new File(new File(directory.toFile(), "data"), "fabricRegistry" + ".bin" + (i == 0 ? "" : ("." + i)));
+	}
+
+	@Unique
+	private File fabric_getLegacyWorldIdMapFile(int i) {
 		return new File(new File(directory.toFile(), "data"), "fabricRegistry" + ".dat" + (i == 0 ? "" : ("." + i)));
 	}
 
 	@Unique
-	private void fabric_saveRegistryData() {
+	private void fabric_retireLegacyIdMapFiles() {
+		for (int i = 0; i < FABRIC_ID_REGISTRY_BACKUPS; i++) {
+			try {
+				RegistryIdMapStorage.retireLegacy(fabric_getLegacyWorldIdMapFile(i).toPath());
+			} catch (IOException e) {
+				FABRIC_LOGGER.warn("[fabric-registry-sync] Failed to rename converted legacy registry file!", e);
+			}
+		}
+	}
+
+	/**
+	 * @return whether the current registry data is on disk
+	 */
+	@Unique
+	private boolean fabric_saveRegistryData() {
 		FABRIC_LOGGER.debug("Starting registry save");
 		CompoundTag newIdMap = RegistrySyncManager.toTag(false, fabric_activeTag);
 
 		if (newIdMap == null) {
 			FABRIC_LOGGER.debug("Not saving empty registry data");
-			return;
+			return false;
 		}
 
 		if (!newIdMap.equals(fabric_lastSavedIdMap)) {
@@ -109,24 +129,17 @@ public class MixinLevelStorageSession {
 
 			try {
 				File file = fabric_getWorldIdMapFile(0);
-				File parentFile = file.getParentFile();
-
-				if (!parentFile.exists()) {
-					if (!parentFile.mkdirs()) {
-						FABRIC_LOGGER.warn("[fabric-registry-sync] Could not create directory " + parentFile + "!");
-					}
-				}
-
 				FABRIC_LOGGER.debug("Saving registry data to " + file.toString());
-				FileOutputStream fileOutputStream = new FileOutputStream(file);
-				NbtIo.writeCompressed(newIdMap, fileOutputStream);
-				fileOutputStream.close();
+				RegistryIdMapStorage.write(file.toPath(), newIdMap.getCompound("registries"));
 			} catch (IOException e) {
 				FABRIC_LOGGER.warn("[fabric-registry-sync] Failed to save registry file!", e);
+				return false;
 			}
 
 			fabric_lastSavedIdMap = newIdMap;
 		}
+
+		return true;
 	}
 
 	@Inject(method = "backupLevelDataFile(Lnet/minecraft/util/registry/DynamicRegistryManager;Lnet/minecraft/world/SaveProperties;Lnet/minecraft/nbt/CompoundTag;)V", at = @At("HEAD"))
@@ -141,28 +154,39 @@ public class MixinLevelStorageSession {
 	// TODO: stop double save on client?
 	@Inject(method = "readLevelProperties", at = @At("HEAD"))
 	public void readWorldProperties(CallbackInfoReturnable<SaveProperties> callbackInfo) {
-		// Load
-		for (int i = 0; i < FABRIC_ID_REGISTRY_BACKUPS; i++) {
-			FABRIC_LOGGER.trace("[fabric-registry-sync] Loading Fabric registry [file " + (i + 1) + "/" + (FABRIC_ID_REGISTRY_BACKUPS + 1) + "]");
+		// Load, falling back to the legacy NBT files, which are converted by saving right away
+		IOException readError = null;
 
-			try {
-				if (fabric_readIdMapFile(fabric_getWorldIdMapFile(i))) {
-					FABRIC_LOGGER.info("[fabric-registry-sync] Loaded registry data [file " + (i + 1) + "/" + (FABRIC_ID_REGISTRY_BACKUPS + 1) + "]");
-					return;
-				}
-			} catch (FileNotFoundException e) {
-				// pass
-			} catch (IOException e) {
-				if (i >= FABRIC_ID_REGISTRY_BACKUPS - 1) {
-					throw new RuntimeException(e);
-				} else {
+		for (boolean legacy : new boolean[] { false, true }) {
+			for (int i = 0; i < FABRIC_ID_REGISTRY_BACKUPS; i++) {
+				FABRIC_LOGGER.trace("[fabric-registry-sync] Loading Fabric registry [file " + (i + 1) + "/" + (FABRIC_ID_REGISTRY_BACKUPS + 1) + "]");
+
+				try {
+					if (fabric_readIdMapFile(i, legacy)) {
+						FABRIC_LOGGER.info("[fabric-registry-sync] Loaded " + (legacy ? "legacy " : "") + "registry data [file " + (i + 1) + "/" + (FABRIC_ID_REGISTRY_BACKUPS + 1) + "]");
+
+						if (legacy && fabric_saveRegistryData()) {
+							fabric_retireLegacyIdMapFiles();
+						}
+
+						return;
+					}
+				} catch (FileNotFoundException e) {
+					// pass
+				} catch (IOException e) {
 					FABRIC_LOGGER.warn("Reading registry file failed!", e);
+					readError = e;
+				} catch (RemapException e) {
+					throw new RuntimeException("Remapping world failed!", e);
 				}
-			} catch (RemapException e) {
-				throw new RuntimeException("Remapping world failed!", e);
 			}
 		}
 
+		// Don't overwrite registry data which exists but couldn't be read
+		if (readError != null) {
+			throw new RuntimeException(readError);
+		}
+
 		// If not returned (not present), try saving the registry data
 		fabric_saveRegistryData();
 	}
@@ -16,13 +16,29 @@
 
 package net.fabricmc.fabric.test.registry.sync;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import org.apache.commons.lang3.Validate;
 
 import net.minecraft.block.AbstractBlock;
 import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
 import net.minecraft.block.Material;
+import net.minecraft.block.SlabBlock;
 import net.minecraft.item.BlockItem;
 import net.minecraft.item.Item;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.registry.BuiltinRegistries;
 import net.minecraft.util.registry.DynamicRegistryManager;
@@ -39,6 +55,11 @@ import net.fabricmc.fabric.api.event.registry.FabricRegistryBuilder;
 import net.fabricmc.fabric.api.event.registry.RegistryAttribute;
 import net.fabricmc.fabric.api.event.registry.RegistryAttributeHolder;
 import net.fabricmc.fabric.api.event.registry.RegistryEntryAddedCallback;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.fabricmc.fabric.impl.registry.sync.RegistryFingerprint;
+import net.fabricmc.fabric.impl.registry.sync.RegistryIdMapStorage;
+import net.fabricmc.fabric.impl.registry.sync.RegistryMapSerializer;
+import net.fabricmc.fabric.impl.registry.sync.RemappableRegistry;
 
 public class RegistrySyncTest implements ModInitializer {
 	/**
@@ -67,8 +88,13 @@ public class RegistrySyncTest implements ModInitializer {
 			if (REGISTER_ITEMS) {
 				Validate.isTrue(RegistryAttributeHolder.get(Registry.ITEM).hasAttribute(RegistryAttribute.MODDED), "Modded item was registered but registry not marked as modded");
 			}
+
+			testOutOfOrderStateIds();
 		}
 
+		testIdMapSerialization();
+		testFingerprint();
+
 		SimpleRegistry<String> fabricRegistry = FabricRegistryBuilder.createSimple(String.class, new Identifier("registry_sync", "fabric_registry"))
 				.attribute(RegistryAttribute.SYNCED)
 				.buildAndRegister();
@@ -113,6 +139,110 @@ public class RegistrySyncTest implements ModInitializer {
 		checkFeature(impl2, f2Id);
 	}
 
+	/**
+	 * Tests that registering blocks out of raw id order gives their states the same ids as rebuilding the whole state id list would.
+	 */
+	private void testOutOfOrderStateIds() {
+		System.out.println("Checking state ids of out of order blocks...");
+
+		int rawId = 0;
+
+		for (Block block : Registry.BLOCK) {
+			rawId = Math.max(rawId, Registry.BLOCK.getRawId(block) + 1);
+		}
+
+		// Slabs have several states, so that the states after the inserted ones must be shifted
+		Registry.register(Registry.BLOCK, rawId + 1, "registry_sync:out_of_order_slab_1", new SlabBlock(AbstractBlock.Settings.of(Material.STONE)));
+		Registry.register(Registry.BLOCK, rawId, "registry_sync:out_of_order_slab_0", new SlabBlock(AbstractBlock.Settings.of(Material.STONE)));
+
+		List<Block> blocks = new ArrayList<>();
+		Registry.BLOCK.forEach(blocks::add);
+		blocks.sort(Comparator.comparingInt(Registry.BLOCK::getRawId));
+		int stateId = 0;
+
+		for (Block block : blocks) {
+			for (BlockState state : block.getStateManager().getStates()) {
+				if (Block.STATE_IDS.getRawId(state) != stateId) {
+					throw new IllegalStateException("Expected state " + state + " to have id " + stateId + ", but it has id " + Block.STATE_IDS.getRawId(state));
+				}
+
+				stateId++;
+			}
+		}
+
+		Validate.isTrue(Block.STATE_IDS.get(stateId) == null, "Expected no state after the states of the last block");
+	}
+
+	/**
+	 * Tests that the id maps read back from the binary sync format and from the binary save format are the ones written.
+	 */
+	private void testIdMapSerialization() {
+		System.out.println("Checking id map serialization...");
+
+		Map<Identifier, Object2IntMap<Identifier>> registries = new HashMap<>();
+		CompoundTag registriesTag = new CompoundTag();
+
+		addIdMap(Registry.BLOCK_KEY.getValue(), Registry.BLOCK, registries, registriesTag);
+		addIdMap(Registry.ITEM_KEY.getValue(), Registry.ITEM, registries, registriesTag);
+
+		PacketByteBuf buf = PacketByteBufs.create();
+		RegistryMapSerializer.write(registries, buf);
+		Validate.isTrue(registries.equals(RegistryMapSerializer.read(buf)), "Id maps read from the sync format differ from the written ones");
+		Validate.isTrue(!buf.isReadable(), "Id maps read from the sync format left unread bytes");
+		buf.release();
+
+		try {
+			Path path = Files.createTempFile("fabricRegistry", ".bin");
+
+			try {
+				RegistryIdMapStorage.write(path, registriesTag);
+				Validate.isTrue(registriesTag.equals(RegistryIdMapStorage.read(path)), "Id maps read from the save format differ from the written ones");
+			} finally {
+				Files.deleteIfExists(path);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Tests that the fingerprint of a registry doesn't depend on whether its ids are identifiers or strings, as read from saved id maps.
+	 */
+	private void testFingerprint() {
+		System.out.println("Checking registry fingerprints...");
+
+		RegistryFingerprint identifierFingerprint = new RegistryFingerprint();
+		RegistryFingerprint stringFingerprint = new RegistryFingerprint();
+		RegistryFingerprint shortStringFingerprint = new RegistryFingerprint();
+
+		for (Block block : Registry.BLOCK) {
+			Identifier id = Registry.BLOCK.getId(block);
+			int rawId = Registry.BLOCK.getRawId(block);
+
+			identifierFingerprint.add(id, rawId);
+			stringFingerprint.add(id.toString(), rawId);
+			shortStringFingerprint.add(id.getNamespace().equals("minecraft") ? id.getPath() : id.toString(), rawId);
+		}
+
+		Validate.isTrue(identifierFingerprint.get() == stringFingerprint.get(), "Fingerprints of identifier and string ids differ");
+		Validate.isTrue(identifierFingerprint.get() == shortStringFingerprint.get(), "Fingerprints of ids with and without the default namespace differ");
+		Validate.isTrue(identifierFingerprint.get() == ((RemappableRegistry) Registry.BLOCK).fabric_getFingerprint(), "Fingerprint of the block registry is out of date");
+	}
+
+	private static <T> void addIdMap(Identifier registryId, Registry<T> registry, Map<Identifier, Object2IntMap<Identifier>> registries, CompoundTag registriesTag) {
+		Object2IntMap<Identifier> idMap = new Object2IntOpenHashMap<>();
+		CompoundTag registryTag = new CompoundTag();
+
+		for (T entry : registry) {
+			Identifier id = registry.getId(entry);
+			idMap.put(id, registry.getRawId(entry));
+			registryTag.putInt(id.toString(), registry.getRawId(entry));
+		}
+
+		registries.put(registryId, idMap);
+		registriesTag.put(registryId.toString(), registryTag);
+	}
+
 	private void checkFeature(DynamicRegistryManager manager, Identifier id) {
 		MutableRegistry<ConfiguredFeature<?, ?>> registry = manager.get(Registry.CONFIGURED_FEATURE_WORLDGEN);
 